@@ -1,6 +1,11 @@
 package com.smartentrance.backend;
 
+import com.smartentrance.backend.config.FeeRunProperties;
 import com.smartentrance.backend.config.FileStorageProperties;
+import com.smartentrance.backend.config.LoginProtectionProperties;
+import com.smartentrance.backend.config.MembershipCacheProperties;
+import com.smartentrance.backend.config.ReceiptCacheProperties;
+import com.smartentrance.backend.config.StripeInboxProperties;
 import com.smartentrance.backend.payment.StripeProperties;
 import jakarta.annotation.PostConstruct;
 import org.springframework.boot.SpringApplication;
@@ -12,7 +17,7 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import java.util.TimeZone;
 
 @SpringBootApplication
-@EnableConfigurationProperties({StripeProperties.class, FileStorageProperties.class})
+@EnableConfigurationProperties({StripeProperties.class, FileStorageProperties.class, FeeRunProperties.class, ReceiptCacheProperties.class, StripeInboxProperties.class, MembershipCacheProperties.class, LoginProtectionProperties.class})
 @EnableScheduling
 @EnableAsync
 public class BackendApplication {
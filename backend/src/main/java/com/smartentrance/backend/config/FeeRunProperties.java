@@ -0,0 +1,16 @@
+package com.smartentrance.backend.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@ConfigurationProperties(prefix = "fee-run")
+@Validated
+public record FeeRunProperties(
+        @DefaultValue("4") @Positive
+        int parallelism,
+
+        @DefaultValue("true")
+        boolean virtualThreads
+) {}
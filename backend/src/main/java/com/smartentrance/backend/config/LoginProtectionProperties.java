@@ -0,0 +1,40 @@
+package com.smartentrance.backend.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "login-protection")
+@Validated
+public record LoginProtectionProperties(
+        @DefaultValue("2") @Positive
+        int hashingThreads,
+
+        @DefaultValue("32") @Positive
+        int hashingQueue,
+
+        @DefaultValue("2s") @NotNull
+        Duration hashingTimeout,
+
+        @DefaultValue("5") @Positive
+        int accountFailures,
+
+        @DefaultValue("30") @Positive
+        int ipFailures,
+
+        @DefaultValue("50") @Positive
+        int accountTotalFailures,
+
+        @DefaultValue("15m") @NotNull
+        Duration failureWindow,
+
+        @DefaultValue("1s") @NotNull
+        Duration initialLockout,
+
+        @DefaultValue("15m") @NotNull
+        Duration maxLockout
+) {}
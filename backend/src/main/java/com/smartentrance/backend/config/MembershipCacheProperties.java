@@ -0,0 +1,22 @@
+package com.smartentrance.backend.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "membership-cache")
+@Validated
+public record MembershipCacheProperties(
+        @DefaultValue("5m") @NotNull
+        Duration ttl,
+
+        @DefaultValue("10000") @Positive
+        long maxUsers,
+
+        @DefaultValue("100000") @Positive
+        long maxLookups
+) {}
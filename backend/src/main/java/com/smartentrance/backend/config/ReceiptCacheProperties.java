@@ -0,0 +1,18 @@
+package com.smartentrance.backend.config;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@ConfigurationProperties(prefix = "receipt-cache")
+@Validated
+public record ReceiptCacheProperties(
+        @DefaultValue("./backend/receipt-cache") @NotBlank
+        String dir,
+
+        @DefaultValue("512MB") @NotNull
+        DataSize maxSize
+) {}
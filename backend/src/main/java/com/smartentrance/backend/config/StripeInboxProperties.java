@@ -0,0 +1,32 @@
+package com.smartentrance.backend.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "stripe-inbox")
+@Validated
+public record StripeInboxProperties(
+        @DefaultValue("4") @Positive
+        int workers,
+
+        @DefaultValue("8") @Positive
+        int maxAttempts,
+
+        @DefaultValue("10s") @NotNull
+        Duration initialBackoff,
+
+        @DefaultValue("30m") @NotNull
+        Duration maxBackoff,
+
+        // Stripe redelivers for up to three days; a processed row must outlive that to keep redeliveries no-ops
+        @DefaultValue("30d") @NotNull
+        Duration doneRetention,
+
+        @DefaultValue("90d") @NotNull
+        Duration failedRetention
+) {}
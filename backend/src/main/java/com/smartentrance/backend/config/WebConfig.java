@@ -1,5 +1,6 @@
 package com.smartentrance.backend.config;
 
+import com.smartentrance.backend.dto.finance.TransactionCursor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -13,6 +14,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:3000", "http://localhost:8080")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH")
                 .allowedHeaders("*")
+                .exposedHeaders(TransactionCursor.NEXT_CURSOR_HEADER)
                 .allowCredentials(true);
     }
 }
\ No newline at end of file
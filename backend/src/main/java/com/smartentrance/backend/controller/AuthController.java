@@ -7,6 +7,7 @@ import com.smartentrance.backend.dto.user.UserResponse;
 import com.smartentrance.backend.security.JwtService;
 import com.smartentrance.backend.service.AuthenticationService;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
@@ -38,8 +39,8 @@ public class AuthController {
 
     @Operation(summary = "Login", description = "Authenticates a user and sets a secure HttpOnly session cookie.")
     @PostMapping("/login")
-    public ResponseEntity<UserResponse> login(@Valid @RequestBody LoginRequest request) {
-        LoginResponse loginResponse = authService.login(request);
+    public ResponseEntity<UserResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        LoginResponse loginResponse = authService.login(request, httpRequest.getRemoteAddr());
 
         ResponseCookie cookie = jwtService.generateCookie(loginResponse.getToken(), request.isRememberMe());
 
@@ -44,7 +44,7 @@ public class BuildingController {
     @PutMapping("/{buildingId}/budget")
     public ResponseEntity<Void> updateBudgets(
             @PathVariable Integer buildingId,
-            @RequestBody UpdateBudgetRequest req,
+            @Valid @RequestBody UpdateBudgetRequest req,
             @AuthenticationPrincipal UserPrincipal principal
     ) {
         buildingService.updateBuildingBudgets(buildingId, req, principal.user());
@@ -1,16 +1,34 @@
 package com.smartentrance.backend.controller;
 
+import com.smartentrance.backend.dto.enums.ExportFormat;
+import com.smartentrance.backend.dto.enums.StatementFormat;
 import com.smartentrance.backend.dto.finance.*;
 import com.smartentrance.backend.model.enums.TransactionStatus;
 import com.smartentrance.backend.model.enums.TransactionType;
 import com.smartentrance.backend.security.UserPrincipal;
+import com.smartentrance.backend.service.BankStatementImportService;
 import com.smartentrance.backend.service.FinanceService;
+import com.smartentrance.backend.service.LedgerExportService;
+import com.smartentrance.backend.service.MonthlyStatementService;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
 import java.util.List;
 
 @RestController
@@ -18,7 +36,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BuildingFinanceController {
 
+    static final Duration EXPORT_TIMEOUT = Duration.ofMinutes(10);
+
     private final FinanceService financeService;
+    private final LedgerExportService ledgerExportService;
+    private final BankStatementImportService bankStatementImportService;
+    private final MonthlyStatementService monthlyStatementService;
 
     @Operation(summary = "Get Financial Summary", description = "Returns the financial dashboard data: Total Balance, Repair/Maintenance fund breakdown, and Cash on hand.")
     @GetMapping("/summary")
@@ -26,14 +49,85 @@ public class BuildingFinanceController {
         return ResponseEntity.ok(financeService.getBuildingFinancialSummary(buildingId));
     }
 
-    @Operation(summary = "List Transactions", description = "Retrieves a list of all financial movements (fees, payments, expenses) with optional filtering by type and status.")
+    @Operation(summary = "List Transactions", description = "Retrieves the newest financial movements (fees, payments, expenses) with optional filtering by type and status. Pass the X-Next-Cursor response header back as 'cursor' to load the next page.")
     @GetMapping("/transactions")
     public ResponseEntity<List<TransactionResponse>> getAllTransactions(
             @PathVariable Integer buildingId,
             @RequestParam(required = false) TransactionType type,
-            @RequestParam(required = false) TransactionStatus status
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
     ) {
-        return ResponseEntity.ok(financeService.getBuildingTransactions(buildingId, type, status));
+        TransactionPage page = financeService.getBuildingTransactions(buildingId, type, status, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(TransactionCursor.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    @Operation(summary = "Approve Transactions", description = "Confirms several pending transactions of the building at once. Receipts are generated in the background; ids that are not pending or belong to another building are returned as skipped.")
+    @PostMapping("/transactions/approve")
+    public ResponseEntity<BatchDecisionResult> approveTransactions(
+            @PathVariable Integer buildingId,
+            @Valid @RequestBody BatchDecisionRequest req,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(financeService.approveTransactions(buildingId, req.transactionIds(), principal.user()));
+    }
+
+    @Operation(summary = "Reject Transactions", description = "Rejects several pending transactions of the building at once.")
+    @PostMapping("/transactions/reject")
+    public ResponseEntity<BatchDecisionResult> rejectTransactions(
+            @PathVariable Integer buildingId,
+            @Valid @RequestBody BatchDecisionRequest req) {
+        return ResponseEntity.ok(financeService.rejectTransactions(buildingId, req.transactionIds()));
+    }
+
+    @Operation(summary = "Export Ledger", description = "Streams all transactions and expenses of the building as CSV or NDJSON. 'from' is inclusive and 'to' exclusive.")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLedger(
+            @PathVariable Integer buildingId,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to,
+            HttpServletRequest request
+    ) {
+        // Large ledgers take longer to stream than the default async timeout allows; only this response gets more.
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(EXPORT_TIMEOUT.toMillis());
+
+        ZoneId zone = ZoneId.systemDefault();
+        Instant start = from != null ? from.atStartOfDay(zone).toInstant() : FinancialTotals.BEGINNING;
+        Instant end = to != null ? to.atStartOfDay(zone).toInstant() : FinancialTotals.END;
+
+        StreamingResponseBody body = ledgerExportService.exportLedger(buildingId, format, start, end);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"ledger-" + buildingId + "." + format.extension() + "\"")
+                .body(body);
+    }
+
+    @Operation(summary = "Generate Monthly Statements", description = "Renders the statement of every unit for the given month (yyyy-MM) with opening balance, fees, payments and closing balance. Produces one PDF per unit, or a single combined PDF when 'combined' is true, and returns the stored file names.")
+    @PostMapping("/statements")
+    public ResponseEntity<StatementRunResult> generateStatements(
+            @PathVariable Integer buildingId,
+            @RequestParam YearMonth period,
+            @RequestParam(defaultValue = "false") boolean combined) {
+        return ResponseEntity.ok(monthlyStatementService.generateStatements(buildingId, period, combined));
+    }
+
+    @Operation(summary = "Import Bank Statement", description = "Matches the credits of a bank statement (CSV or CAMT.053 XML) to pending bank transfers by reference and amount, approves the matches and reports the lines that could not be matched.")
+    @PostMapping("/bank-statements")
+    public ResponseEntity<StatementImportReport> importBankStatement(
+            @PathVariable Integer buildingId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) StatementFormat format,
+            @AuthenticationPrincipal UserPrincipal principal) throws Exception {
+        StatementFormat resolved = format != null ? format : StatementFormat.detect(file.getOriginalFilename());
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(bankStatementImportService.importStatement(buildingId, in, resolved, principal.user()));
+        }
     }
 
     @Operation(summary = "List Expenses", description = "Retrieves the history of all recorded building expenses and their proof documents.")
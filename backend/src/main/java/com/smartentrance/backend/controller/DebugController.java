@@ -2,30 +2,55 @@ package com.smartentrance.backend.controller;
 
 import com.smartentrance.backend.model.Building;
 import com.smartentrance.backend.repository.BuildingRepository;
-import com.smartentrance.backend.service.FinanceService;
+import com.smartentrance.backend.scheduler.FeeRunExecutor;
+import com.smartentrance.backend.model.PeriodClose;
+import com.smartentrance.backend.service.BalanceLedgerService;
+import com.smartentrance.backend.service.PeriodCloseService;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/debug")
 @RequiredArgsConstructor
 public class DebugController {
 
-    private final FinanceService financeService;
+    private final FeeRunExecutor feeRunExecutor;
     private final BuildingRepository buildingRepository;
+    private final BalanceLedgerService balanceLedgerService;
+    private final PeriodCloseService periodCloseService;
 
-    @Operation(summary = "Trigger Monthly Fees", description = "[DEV] Manually triggers the monthly fee generation process for the current month. Useful for testing.")
+    @Operation(summary = "Trigger Monthly Fees", description = "[DEV] Manually triggers the monthly fee generation process for the current month. Buildings already billed for the month are skipped.")
     @PostMapping("/fees/{buildingId}")
     public ResponseEntity<String> triggerFees(@PathVariable Integer buildingId) {
         Building building = buildingRepository.findById(buildingId).orElseThrow();
-        String currentMonth = LocalDate.now().getMonth().toString();
+        Long runId = feeRunExecutor.submit(YearMonth.now(), List.of(building.getId()));
 
-        financeService.processMonthlyFeesForBuilding(building, "TEST-" + currentMonth);
+        return ResponseEntity.ok("Fee run " + runId + " triggered for building " + building.getName());
+    }
+
+    @Operation(summary = "Rebuild Balance Ledger", description = "[DEV] Recomputes the materialized unit balances from the raw transaction ledger.")
+    @PostMapping("/ledger/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> rebuildLedger() {
+        int rows = balanceLedgerService.rebuild();
+
+        return ResponseEntity.ok("Balance ledger rebuilt: " + rows + " rows");
+    }
+
+    @Operation(summary = "Close Period", description = "[DEV] Writes the month-end closing balances of a building. Defaults to the previous month.")
+    @PostMapping("/period-close/{buildingId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> closePeriod(@PathVariable Integer buildingId,
+                                              @RequestParam(required = false) YearMonth period) {
+        YearMonth target = period != null ? period : YearMonth.now().minusMonths(1);
+        PeriodClose close = periodCloseService.closePeriod(buildingId, target);
 
-        return ResponseEntity.ok("Fees triggered for building " + building.getName());
+        return ResponseEntity.ok("Period " + close.getPeriod() + " closed for building " + buildingId);
     }
 }
\ No newline at end of file
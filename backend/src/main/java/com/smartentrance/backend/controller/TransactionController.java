@@ -1,15 +1,17 @@
 package com.smartentrance.backend.controller;
 
-import com.smartentrance.backend.model.Transaction;
-import com.smartentrance.backend.repository.TransactionRepository;
 import com.smartentrance.backend.security.UserPrincipal;
 import com.smartentrance.backend.service.FinanceService;
+import com.smartentrance.backend.service.ReceiptService;
 import io.swagger.v3.oas.annotations.Operation;
-import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Map;
 
@@ -19,7 +21,7 @@ import java.util.Map;
 public class TransactionController {
 
     private final FinanceService financeService;
-    private final TransactionRepository transactionRepository;
+    private final ReceiptService receiptService;
 
     @Operation(summary = "Approve Transaction", description = "Confirms a pending transaction (e.g., Bank Transfer).")
     @PostMapping("/{transactionId}/approve")
@@ -36,12 +38,25 @@ public class TransactionController {
         return ResponseEntity.ok().build();
     }
 
-    @Operation(summary = "Get Receipt URL", description = "Retrieves the proof of payment URL (image/pdf) associated with the transaction.")
+    @Operation(summary = "Get Receipt URL", description = "Retrieves the receipt URL of the transaction. Confirmed payments point at the PDF endpoint, which renders the receipt on first download.")
     @GetMapping("/{transactionId}/receipt")
     public ResponseEntity<Map<String, String>> getReceipt(@PathVariable Long transactionId) {
-        Transaction t = transactionRepository.findById(transactionId)
-                .orElseThrow(() -> new EntityNotFoundException("Transaction not found"));
+        String url = receiptService.getReceiptUrl(transactionId);
+        return ResponseEntity.ok(Map.of("proofUrl", url != null ? url : ""));
+    }
+
+    @Operation(summary = "Download Receipt", description = "Streams the PDF receipt of a confirmed payment, rendering and caching it on first request.")
+    @GetMapping("/{transactionId}/receipt/pdf")
+    public ResponseEntity<byte[]> downloadReceipt(@PathVariable Long transactionId, WebRequest request) {
+        if (request.checkNotModified(receiptService.getReceiptKey(transactionId))) return null;
+
+        ReceiptService.Receipt receipt = receiptService.getReceipt(transactionId);
 
-        return ResponseEntity.ok(Map.of("proofUrl", t.getProofUrl() != null ? t.getProofUrl() : ""));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .eTag(receipt.key())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"receipt_" + transactionId + ".pdf\"")
+                .body(receipt.content());
     }
 }
\ No newline at end of file
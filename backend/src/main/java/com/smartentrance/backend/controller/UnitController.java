@@ -58,12 +58,19 @@ public class UnitController {
         return ResponseEntity.ok(financeService.getBalance(unitId));
     }
 
-    @Operation(summary = "Get Transaction History", description = "Returns a history of all fees and payments for a unit.")
+    @Operation(summary = "Get Transaction History", description = "Returns the newest fees and payments for a unit. Pass the X-Next-Cursor response header back as 'cursor' to load older entries.")
     @GetMapping("/{unitId}/transactions")
     public ResponseEntity<List<TransactionResponse>> getHistory(
             @PathVariable Long unitId,
-            @RequestParam(required = false) TransactionType type) {
-        return ResponseEntity.ok(financeService.getTransactionHistory(unitId, type));
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        TransactionPage page = financeService.getTransactionHistory(unitId, type, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(TransactionCursor.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
     }
 
     @Operation(summary = "Pay with Stripe", description = "Initiates a card deposit via Stripe for the unit")
@@ -1,9 +1,23 @@
 package com.smartentrance.backend.dto.building;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.smartentrance.backend.model.enums.FundType;
+import com.smartentrance.backend.service.DebtSnapshot;
+import jakarta.validation.constraints.AssertTrue;
+
 import java.math.BigDecimal;
+import java.util.List;
 
 public record UpdateBudgetRequest(
         BigDecimal repairBudget,
         BigDecimal maintenanceBudget,
-        String protocolFileUrl
-) {}
\ No newline at end of file
+        String protocolFileUrl,
+        List<FundType> fundAllocationOrder
+) {
+
+    @JsonIgnore
+    @AssertTrue(message = "Fund allocation order must list REPAIR and MAINTENANCE exactly once")
+    public boolean isFundAllocationOrderValid() {
+        return fundAllocationOrder == null || DebtSnapshot.isValidOrder(fundAllocationOrder);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.smartentrance.backend.dto.enums;
+
+public enum StatementFormat {
+    CSV,
+    CAMT053;
+
+    public static StatementFormat detect(String fileName) {
+        return fileName != null && fileName.toLowerCase().endsWith(".xml") ? CAMT053 : CSV;
+    }
+}
@@ -0,0 +1,25 @@
+package com.smartentrance.backend.dto.feerun;
+
+import com.smartentrance.backend.model.enums.FeeRunItemStatus;
+import com.smartentrance.backend.model.enums.FeeRunStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+public record FeeRunResponse(
+        Long id,
+        String period,
+        FeeRunStatus status,
+        Integer totalBuildings,
+        long completed,
+        long skipped,
+        long failed,
+        long cancelled,
+        long pending,
+        int inProgress,
+        Instant startedAt,
+        Instant finishedAt,
+        List<ItemInfo> failures
+) {
+    public record ItemInfo(Integer buildingId, FeeRunItemStatus status, Long durationMs, String error) {}
+}
@@ -0,0 +1,10 @@
+package com.smartentrance.backend.dto.finance;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchDecisionRequest(
+        @NotEmpty @Size(max = 200) List<Long> transactionIds
+) {}
@@ -0,0 +1,16 @@
+package com.smartentrance.backend.dto.finance;
+
+import com.smartentrance.backend.model.enums.FundType;
+import com.smartentrance.backend.model.enums.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record ExpenseExportRow(
+        Long id,
+        Instant expenseDate,
+        FundType fundType,
+        PaymentMethod paymentMethod,
+        BigDecimal amount,
+        String description
+) {}
@@ -0,0 +1,95 @@
+package com.smartentrance.backend.dto.finance;
+
+import com.smartentrance.backend.model.enums.FundType;
+import com.smartentrance.backend.model.enums.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public record FinancialTotals(
+        Map<FundType, BigDecimal> incomeByFund,
+        Map<PaymentMethod, BigDecimal> incomeByMethod,
+        Map<FundType, BigDecimal> expenseByFund,
+        Map<PaymentMethod, BigDecimal> expenseByMethod
+) {
+    public static final String INCOME_BY_FUND = "INCOME_FUND";
+    public static final String INCOME_BY_METHOD = "INCOME_METHOD";
+    public static final String EXPENSE = "EXPENSE";
+    public static final String EXPENSE_BY_FUND = "EXPENSE_FUND";
+    public static final String EXPENSE_BY_METHOD = "EXPENSE_METHOD";
+
+    public static final Instant BEGINNING = Instant.EPOCH;
+    public static final Instant END = Instant.parse("9999-12-31T00:00:00Z");
+
+    public static FinancialTotals fromRows(List<Object[]> rows) {
+        FinancialTotals totals = new FinancialTotals(
+                new EnumMap<>(FundType.class), new EnumMap<>(PaymentMethod.class),
+                new EnumMap<>(FundType.class), new EnumMap<>(PaymentMethod.class));
+
+        for (Object[] row : rows) {
+            String source = row[0].toString().trim();
+            String fund = row[1] == null ? null : row[1].toString();
+            String method = row[2] == null ? null : row[2].toString();
+            BigDecimal amount = toBigDecimal(row[3]);
+
+            switch (source) {
+                case INCOME_BY_FUND -> {
+                    if (fund != null) totals.incomeByFund.merge(FundType.valueOf(fund), amount, BigDecimal::add);
+                }
+                case INCOME_BY_METHOD -> totals.incomeByMethod.merge(PaymentMethod.valueOf(method), amount, BigDecimal::add);
+                case EXPENSE_BY_FUND -> totals.expenseByFund.merge(FundType.valueOf(fund), amount, BigDecimal::add);
+                case EXPENSE_BY_METHOD -> totals.expenseByMethod.merge(PaymentMethod.valueOf(method), amount, BigDecimal::add);
+                case EXPENSE -> {
+                    totals.expenseByFund.merge(FundType.valueOf(fund), amount, BigDecimal::add);
+                    totals.expenseByMethod.merge(PaymentMethod.valueOf(method), amount, BigDecimal::add);
+                }
+                default -> throw new IllegalStateException("Unknown summary source " + source);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Flattens the totals back into (source, fund, method, amount) rows that {@link #fromRows} accepts.
+     */
+    public List<Object[]> toRows() {
+        List<Object[]> rows = new ArrayList<>();
+        incomeByFund.forEach((fund, amount) -> rows.add(new Object[]{INCOME_BY_FUND, fund.name(), null, amount}));
+        incomeByMethod.forEach((method, amount) -> rows.add(new Object[]{INCOME_BY_METHOD, null, method.name(), amount}));
+        expenseByFund.forEach((fund, amount) -> rows.add(new Object[]{EXPENSE_BY_FUND, fund.name(), null, amount}));
+        expenseByMethod.forEach((method, amount) -> rows.add(new Object[]{EXPENSE_BY_METHOD, null, method.name(), amount}));
+        return rows;
+    }
+
+    public FinancialTotals plus(FinancialTotals other) {
+        List<Object[]> rows = toRows();
+        rows.addAll(other.toRows());
+        return fromRows(rows);
+    }
+
+    public BigDecimal incomeOf(FundType fund) {
+        return incomeByFund.getOrDefault(fund, BigDecimal.ZERO);
+    }
+
+    public BigDecimal incomeOf(PaymentMethod method) {
+        return incomeByMethod.getOrDefault(method, BigDecimal.ZERO);
+    }
+
+    public BigDecimal expenseOf(FundType fund) {
+        return expenseByFund.getOrDefault(fund, BigDecimal.ZERO);
+    }
+
+    public BigDecimal expenseOf(PaymentMethod method) {
+        return expenseByMethod.getOrDefault(method, BigDecimal.ZERO);
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        if (value instanceof BigDecimal bd) return bd;
+        return new BigDecimal(value.toString());
+    }
+}
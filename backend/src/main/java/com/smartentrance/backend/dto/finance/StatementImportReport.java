@@ -0,0 +1,20 @@
+package com.smartentrance.backend.dto.finance;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record StatementImportReport(
+        int linesRead,
+        int matched,
+        int ignoredDebits,
+        int unmatchedCount,
+        List<Long> approvedTransactionIds,
+        List<UnmatchedLine> unmatched
+) {
+    public record UnmatchedLine(
+            int lineNumber,
+            BigDecimal amount,
+            String reference,
+            String reason
+    ) {}
+}
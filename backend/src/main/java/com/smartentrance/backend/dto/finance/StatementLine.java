@@ -0,0 +1,11 @@
+package com.smartentrance.backend.dto.finance;
+
+import java.math.BigDecimal;
+
+public record StatementLine(
+        int lineNumber,
+        BigDecimal amount,
+        boolean credit,
+        String bookingDate,
+        String reference
+) {}
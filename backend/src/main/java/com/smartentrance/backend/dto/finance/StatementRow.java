@@ -0,0 +1,24 @@
+package com.smartentrance.backend.dto.finance;
+
+import com.smartentrance.backend.model.enums.FundType;
+import com.smartentrance.backend.model.enums.PaymentMethod;
+import com.smartentrance.backend.model.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One confirmed transaction of a unit's monthly statement. Units without activity in the month
+ * appear once with a null transactionId.
+ */
+public record StatementRow(
+        Long unitId,
+        Integer unitNumber,
+        Long transactionId,
+        Instant confirmedAt,
+        TransactionType type,
+        FundType fundType,
+        PaymentMethod paymentMethod,
+        BigDecimal amount,
+        String description
+) {}
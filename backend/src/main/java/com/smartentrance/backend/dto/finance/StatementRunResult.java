@@ -0,0 +1,9 @@
+package com.smartentrance.backend.dto.finance;
+
+import java.util.List;
+
+public record StatementRunResult(
+        String period,
+        int units,
+        List<String> files
+) {}
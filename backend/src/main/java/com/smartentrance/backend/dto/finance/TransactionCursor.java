@@ -0,0 +1,45 @@
+package com.smartentrance.backend.dto.finance;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a transaction list ordered by (createdAt DESC, id DESC), passed to clients as an opaque token.
+ */
+public record TransactionCursor(Instant createdAt, Long id) {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /** Sorts before every stored transaction; lets the first page use the same query as the ones after it. */
+    public static final TransactionCursor FIRST = new TransactionCursor(FinancialTotals.END, Long.MAX_VALUE);
+
+    public String encode() {
+        String raw = createdAt.toString() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new TransactionCursor(
+                    Instant.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public static int pageSize(Integer requested) {
+        if (requested == null) return DEFAULT_PAGE_SIZE;
+        if (requested < 1 || requested > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return requested;
+    }
+}
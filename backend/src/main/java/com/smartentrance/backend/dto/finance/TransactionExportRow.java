@@ -0,0 +1,22 @@
+package com.smartentrance.backend.dto.finance;
+
+import com.smartentrance.backend.model.enums.FundType;
+import com.smartentrance.backend.model.enums.PaymentMethod;
+import com.smartentrance.backend.model.enums.TransactionStatus;
+import com.smartentrance.backend.model.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record TransactionExportRow(
+        Long id,
+        Instant createdAt,
+        Integer unitNumber,
+        TransactionType type,
+        FundType fundType,
+        PaymentMethod paymentMethod,
+        TransactionStatus status,
+        BigDecimal amount,
+        String description,
+        String referenceId
+) {}
@@ -0,0 +1,8 @@
+package com.smartentrance.backend.dto.finance;
+
+import java.util.List;
+
+public record TransactionPage(
+        List<TransactionResponse> items,
+        String nextCursor
+) {}
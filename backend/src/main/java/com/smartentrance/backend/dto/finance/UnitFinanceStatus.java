@@ -0,0 +1,9 @@
+package com.smartentrance.backend.dto.finance;
+
+import java.math.BigDecimal;
+
+public record UnitFinanceStatus(
+        Long unitId,
+        BigDecimal balance,
+        boolean hasPendingPayments
+) {}
@@ -0,0 +1,41 @@
+package com.smartentrance.backend.mapper;
+
+import com.smartentrance.backend.dto.feerun.FeeRunResponse;
+import com.smartentrance.backend.model.FeeRun;
+import com.smartentrance.backend.model.FeeRunItem;
+import com.smartentrance.backend.model.enums.FeeRunItemStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class FeeRunMapper {
+
+    public FeeRunResponse toResponse(FeeRun run, Map<FeeRunItemStatus, Long> counts, int inProgress, List<FeeRunItem> failures) {
+        return new FeeRunResponse(
+                run.getId(),
+                run.getPeriod(),
+                run.getStatus(),
+                run.getTotalBuildings(),
+                counts.getOrDefault(FeeRunItemStatus.COMPLETED, 0L),
+                counts.getOrDefault(FeeRunItemStatus.SKIPPED, 0L),
+                counts.getOrDefault(FeeRunItemStatus.FAILED, 0L),
+                counts.getOrDefault(FeeRunItemStatus.CANCELLED, 0L),
+                counts.getOrDefault(FeeRunItemStatus.PENDING, 0L),
+                inProgress,
+                run.getStartedAt(),
+                run.getFinishedAt(),
+                failures.stream().map(this::toItemInfo).toList()
+        );
+    }
+
+    private FeeRunResponse.ItemInfo toItemInfo(FeeRunItem item) {
+        return new FeeRunResponse.ItemInfo(
+                item.getBuilding().getId(),
+                item.getStatus(),
+                item.getDurationMs(),
+                item.getError()
+        );
+    }
+}
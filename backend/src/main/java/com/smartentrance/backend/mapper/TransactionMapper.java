@@ -2,6 +2,7 @@ package com.smartentrance.backend.mapper;
 
 import com.smartentrance.backend.dto.finance.TransactionResponse;
 import com.smartentrance.backend.model.Transaction;
+import com.smartentrance.backend.service.ReceiptService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -20,7 +21,7 @@ public class TransactionMapper {
                 transaction.getPaymentMethod(),
                 transaction.getDescription(),
                 transaction.getStatus(),
-                resolveDocumentUrl(transaction.getProofUrl()),
+                receiptUrl(transaction),
                 resolveDocumentUrl(transaction.getExternalProofUrl()),
                 transaction.getCreatedAt(),
                 transaction.getUnit().getId(),
@@ -28,6 +29,19 @@ public class TransactionMapper {
         );
     }
 
+    /**
+     * Receipts rendered before lazy rendering keep their stored file; other confirmed payments point at the on-demand endpoint.
+     */
+    public String receiptUrl(Transaction transaction) {
+        if (transaction.getProofUrl() != null && !transaction.getProofUrl().isBlank()) {
+            return resolveDocumentUrl(transaction.getProofUrl());
+        }
+        if (!ReceiptService.hasReceipt(transaction)) {
+            return null;
+        }
+        return baseUrl + "/api/transactions/" + transaction.getId() + "/receipt/pdf";
+    }
+
     private String resolveDocumentUrl(String rawPath) {
         if (rawPath == null || rawPath.isBlank()) {
             return null;
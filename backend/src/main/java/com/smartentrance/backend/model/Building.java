@@ -63,6 +63,9 @@ public class Building {
     @Column(length = 34)
     private String iban;
 
+    @Column(name = "fund_allocation_order", length = 64)
+    private String fundAllocationOrder;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
@@ -0,0 +1,46 @@
+package com.smartentrance.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "fee_journal", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_fee_journal_building_period", columnNames = {"building_id", "period"})
+})
+@Data
+@NoArgsConstructor
+public class FeeJournalEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "building_id", nullable = false)
+    @ToString.Exclude
+    private Building building;
+
+    @Column(nullable = false, length = 7)
+    private String period;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "fee_run_id")
+    @ToString.Exclude
+    private FeeRun feeRun;
+
+    @Column(name = "fees_created")
+    private Integer feesCreated;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    public FeeJournalEntry(Building building, String period, FeeRun feeRun) {
+        this.building = building;
+        this.period = period;
+        this.feeRun = feeRun;
+    }
+}
@@ -0,0 +1,35 @@
+package com.smartentrance.backend.model;
+
+import com.smartentrance.backend.model.enums.FeeRunStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "fee_runs")
+@Data
+@NoArgsConstructor
+public class FeeRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 7)
+    private String period;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private FeeRunStatus status = FeeRunStatus.RUNNING;
+
+    @Column(name = "total_buildings", nullable = false)
+    private Integer totalBuildings;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt = Instant.now();
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+}
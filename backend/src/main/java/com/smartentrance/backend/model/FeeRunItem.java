@@ -0,0 +1,54 @@
+package com.smartentrance.backend.model;
+
+import com.smartentrance.backend.model.enums.FeeRunItemStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "fee_run_items", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"fee_run_id", "building_id"})
+})
+@Data
+@NoArgsConstructor
+public class FeeRunItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fee_run_items_seq")
+    @SequenceGenerator(name = "fee_run_items_seq", sequenceName = "fee_run_items_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "fee_run_id", nullable = false)
+    @ToString.Exclude
+    private FeeRun feeRun;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "building_id", nullable = false)
+    @ToString.Exclude
+    private Building building;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private FeeRunItemStatus status = FeeRunItemStatus.PENDING;
+
+    @Column(name = "fees_created")
+    private Integer feesCreated;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    public FeeRunItem(FeeRun feeRun, Building building) {
+        this.feeRun = feeRun;
+        this.building = building;
+    }
+}
@@ -0,0 +1,57 @@
+package com.smartentrance.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Month-end closing of a building. Lines hold cumulative totals up to {@code periodEnd},
+ * so reads only need the confirmed activity after it.
+ */
+@Entity
+@Immutable
+@Table(name = "period_closes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_period_close_building_period", columnNames = {"building_id", "period"})
+})
+@Data
+@NoArgsConstructor
+public class PeriodClose {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "building_id", nullable = false)
+    @ToString.Exclude
+    private Building building;
+
+    @Column(nullable = false, length = 7)
+    private String period;
+
+    @Column(name = "period_end", nullable = false)
+    private Instant periodEnd;
+
+    @Column(name = "closed_at", nullable = false)
+    private Instant closedAt = Instant.now();
+
+    @OneToMany(mappedBy = "periodClose", cascade = CascadeType.PERSIST)
+    @ToString.Exclude
+    private List<PeriodCloseLine> lines = new ArrayList<>();
+
+    @OneToMany(mappedBy = "periodClose", cascade = CascadeType.PERSIST)
+    @ToString.Exclude
+    private List<UnitPeriodBalance> unitBalances = new ArrayList<>();
+
+    public PeriodClose(Building building, String period, Instant periodEnd) {
+        this.building = building;
+        this.period = period;
+        this.periodEnd = periodEnd;
+    }
+}
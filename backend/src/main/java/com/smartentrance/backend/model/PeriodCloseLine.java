@@ -0,0 +1,43 @@
+package com.smartentrance.backend.model;
+
+import com.smartentrance.backend.model.enums.FundType;
+import com.smartentrance.backend.model.enums.PaymentMethod;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+
+@Entity
+@Immutable
+@Table(name = "period_close_lines")
+@Data
+@NoArgsConstructor
+public class PeriodCloseLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "period_close_lines_seq")
+    @SequenceGenerator(name = "period_close_lines_seq", sequenceName = "period_close_lines_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "period_close_id", nullable = false)
+    @ToString.Exclude
+    private PeriodClose periodClose;
+
+    @Column(nullable = false, length = 16)
+    private String source;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "fund_type")
+    private FundType fundType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method")
+    private PaymentMethod paymentMethod;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+}
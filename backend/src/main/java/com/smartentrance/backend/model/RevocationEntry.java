@@ -2,13 +2,18 @@ package com.smartentrance.backend.model;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Entity
-@Table(name = "token_revocations")
+@Table(name = "token_revocations", indexes = {
+        @Index(name = "idx_token_revocations_changed", columnList = "changed_at")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -18,4 +23,14 @@ public class RevocationEntry {
     private Long userId;
 
     private Long revokedAt;
+
+    // Bumped whenever the user's buildings or units change; tokens carrying an older version get refreshed.
+    private Long membershipVersion;
+
+    // Last write by any node; other nodes poll rows by this column.
+    private Instant changedAt;
+
+    public RevocationEntry(Long userId) {
+        this.userId = userId;
+    }
 }
\ No newline at end of file
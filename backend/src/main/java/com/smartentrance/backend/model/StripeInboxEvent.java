@@ -0,0 +1,70 @@
+package com.smartentrance.backend.model;
+
+import com.smartentrance.backend.model.enums.InboxStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A verified Stripe webhook event, stored before it is acknowledged and processed by the inbox worker.
+ * The unique Stripe event id makes redeliveries no-ops.
+ */
+@Entity
+@Table(name = "stripe_inbox", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_stripe_inbox_event", columnNames = {"event_id"})
+}, indexes = {
+        @Index(name = "idx_stripe_inbox_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_stripe_inbox_processed", columnList = "status, processed_at")
+})
+@Data
+@NoArgsConstructor
+public class StripeInboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stripe_inbox_seq")
+    @SequenceGenerator(name = "stripe_inbox_seq", sequenceName = "stripe_inbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private InboxStatus status = InboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt = Instant.now();
+
+    @Column(name = "stripe_created_at")
+    private Instant stripeCreatedAt;
+
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt = Instant.now();
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public StripeInboxEvent(String eventId, String eventType, Instant stripeCreatedAt, String payload) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.stripeCreatedAt = stripeCreatedAt;
+        this.payload = payload;
+    }
+}
@@ -7,23 +7,37 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_transactions_idempotency_key", columnNames = {"idempotency_key"})
+}, indexes = {
+        @Index(name = "idx_transactions_building_created_id", columnList = "building_id, created_at, id"),
+        @Index(name = "idx_transactions_building_type_created_id", columnList = "building_id, type, created_at, id"),
+        @Index(name = "idx_transactions_building_status_created_id", columnList = "building_id, transaction_status, created_at, id"),
+        @Index(name = "idx_transactions_unit_user_created_id", columnList = "unit_id, billable_user_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "unit_id", nullable = false)
     private Unit unit;
 
+    // Copied from the unit on insert, so building lists are served from the transactions indexes alone.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "building_id", nullable = false, updatable = false)
+    private Building building;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "billable_user_id")
     private User responsibleUser;
@@ -56,6 +70,10 @@ public class Transaction {
     @Column(name = "reference_id")
     private String referenceId;
 
+    // Set only for payments booked from an external event (e.g. "stripe:<payment intent id>"); unique when present.
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
     @Column(name = "proof_url")
     private String proofUrl;
 
@@ -68,4 +86,27 @@ public class Transaction {
 
     @Column(nullable = false)
     private Instant createdAt = Instant.now();
+
+    @Column(name = "confirmed_at")
+    private Instant confirmedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "confirmed_by_id")
+    private User confirmedBy;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        if (building == null && unit != null) {
+            building = unit.getBuilding();
+        }
+        if (status == TransactionStatus.CONFIRMED && confirmedAt == null) {
+            confirmedAt = Instant.now();
+        }
+        // Stored at the column's microsecond precision, so a cursor built from the saved entity matches the row.
+        createdAt = createdAt.truncatedTo(ChronoUnit.MICROS);
+        if (confirmedAt != null) {
+            confirmedAt = confirmedAt.truncatedTo(ChronoUnit.MICROS);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.smartentrance.backend.model;
+
+import com.smartentrance.backend.model.enums.FundType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Running totals of the confirmed ledger per (unit, responsible user, fund).
+ * {@code balance} follows the transaction's own fund, {@code charged} sums FEE rows and {@code paid} sums splits.
+ */
+@Entity
+@Table(name = "unit_balances", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"unit_id", "responsible_user_id", "fund_type"})
+})
+@Data
+@NoArgsConstructor
+public class UnitBalance {
+
+    @Id
+    // Identity, not a pooled sequence: rows are also created by UnitBalanceRepository.insertIfAbsent.
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "unit_id", nullable = false)
+    @ToString.Exclude
+    private Unit unit;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "responsible_user_id", nullable = false)
+    @ToString.Exclude
+    private User responsibleUser;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "fund_type", nullable = false)
+    private FundType fundType;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal charged = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal paid = BigDecimal.ZERO;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt = Instant.now();
+
+    public UnitBalance(Unit unit, User responsibleUser, FundType fundType) {
+        this.unit = unit;
+        this.responsibleUser = responsibleUser;
+        this.fundType = fundType;
+    }
+}
@@ -0,0 +1,56 @@
+package com.smartentrance.backend.model;
+
+import com.smartentrance.backend.model.enums.FundType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+
+/**
+ * Closing position of a {@link UnitBalance} row at the end of a period.
+ */
+@Entity
+@Immutable
+@Table(name = "unit_period_balances", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"period_close_id", "unit_id", "responsible_user_id", "fund_type"})
+})
+@Data
+@NoArgsConstructor
+public class UnitPeriodBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "unit_period_balances_seq")
+    @SequenceGenerator(name = "unit_period_balances_seq", sequenceName = "unit_period_balances_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "period_close_id", nullable = false)
+    @ToString.Exclude
+    private PeriodClose periodClose;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "unit_id", nullable = false)
+    @ToString.Exclude
+    private Unit unit;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "responsible_user_id", nullable = false)
+    @ToString.Exclude
+    private User responsibleUser;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "fund_type", nullable = false)
+    private FundType fundType;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal charged;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal paid;
+}
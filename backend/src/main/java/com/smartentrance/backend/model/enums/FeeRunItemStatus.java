@@ -0,0 +1,9 @@
+package com.smartentrance.backend.model.enums;
+
+public enum FeeRunItemStatus {
+    PENDING,
+    COMPLETED,
+    SKIPPED,
+    FAILED,
+    CANCELLED
+}
@@ -0,0 +1,8 @@
+package com.smartentrance.backend.model.enums;
+
+public enum FeeRunStatus {
+    RUNNING,
+    COMPLETED,
+    COMPLETED_WITH_ERRORS,
+    CANCELLED
+}
@@ -0,0 +1,8 @@
+package com.smartentrance.backend.model.enums;
+
+public enum InboxStatus {
+    PENDING,
+    PROCESSING,
+    DONE,
+    FAILED
+}
@@ -14,5 +14,10 @@ public class StripeConfig {
     @PostConstruct
     public void init() {
         Stripe.apiKey = stripeProperties.apiKey();
+
+        if (stripeProperties.apiBase() != null && !stripeProperties.apiBase().isBlank()) {
+            Stripe.overrideApiBase(stripeProperties.apiBase());
+            System.out.println("Stripe API base overridden: " + stripeProperties.apiBase());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.smartentrance.backend.payment;
+
+import com.smartentrance.backend.service.FinanceService;
+import com.smartentrance.backend.service.PaymentReferences;
+import com.stripe.exception.StripeException;
+import com.stripe.model.Charge;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.stripe.net.ApiResource;
+import com.stripe.param.ChargeRetrieveParams;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Applies a stored Stripe event. Runs on the inbox worker, so the Stripe API call no longer delays the webhook reply.
+ */
+@Component
+@RequiredArgsConstructor
+public class StripeEventHandler {
+
+    private final FinanceService financeService;
+    private final PaymentReferences paymentReferences;
+
+    /**
+     * Applies the event. A failed Stripe API call is rethrown, so the inbox retries the event instead of
+     * recording the payment without its fee and receipt.
+     */
+    public void handle(String payload) throws StripeException {
+        Event event = ApiResource.GSON.fromJson(payload, Event.class);
+
+        if ("payment_intent.succeeded".equals(event.getType())) {
+            PaymentIntent intent = (PaymentIntent) event.getDataObjectDeserializer().getObject()
+                    .orElseThrow(() -> new IllegalStateException("Could not deserialize event " + event.getId()));
+            handlePaymentSuccess(intent);
+        }
+    }
+
+    private void handlePaymentSuccess(PaymentIntent intent) throws StripeException {
+        String unitIdStr = intent.getMetadata().get("unit_id");
+
+        if (unitIdStr != null) {
+            String key = PaymentReferences.stripeKey(intent.getId());
+            // Redelivered events skip the charge lookup entirely.
+            if (paymentReferences.isRecorded(key)) return;
+
+            Long unitId = Long.parseLong(unitIdStr);
+            BigDecimal grossAmount = BigDecimal.valueOf(intent.getAmount()).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+
+            String receiptUrl = null;
+            BigDecimal stripeFee = BigDecimal.ZERO;
+
+            String latestChargeId = intent.getLatestCharge();
+
+            if (latestChargeId != null) {
+                ChargeRetrieveParams params = ChargeRetrieveParams.builder()
+                        .addExpand("balance_transaction")
+                        .build();
+
+                Charge charge = Charge.retrieve(latestChargeId, params, null);
+                receiptUrl = charge.getReceiptUrl();
+
+                if (charge.getBalanceTransactionObject() != null) {
+                    long feeInCents = charge.getBalanceTransactionObject().getFee();
+                    stripeFee = BigDecimal.valueOf(feeInCents).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+                }
+            }
+
+            try {
+                financeService.recordStripeSuccess(unitId, grossAmount, stripeFee, intent.getId(), receiptUrl);
+            } catch (DataIntegrityViolationException e) {
+                if (!paymentReferences.isRecorded(key)) throw e;
+                System.out.println("Stripe payment " + intent.getId() + " was recorded concurrently, skipping duplicate");
+            }
+        }
+    }
+}
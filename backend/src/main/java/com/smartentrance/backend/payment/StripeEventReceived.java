@@ -0,0 +1,3 @@
+package com.smartentrance.backend.payment;
+
+public record StripeEventReceived(String eventId) {}
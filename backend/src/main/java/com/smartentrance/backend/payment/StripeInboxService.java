@@ -0,0 +1,163 @@
+package com.smartentrance.backend.payment;
+
+import com.smartentrance.backend.config.StripeInboxProperties;
+import com.smartentrance.backend.model.StripeInboxEvent;
+import com.smartentrance.backend.model.enums.InboxStatus;
+import com.smartentrance.backend.repository.StripeInboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable inbox for verified Stripe webhooks. Events are stored and acknowledged immediately; the
+ * {@link StripeInboxWorker} processes them with retries. Exposes inbox size and lag as metrics.
+ */
+@Service
+public class StripeInboxService {
+
+    public static final Set<String> HANDLED_TYPES = Set.of("payment_intent.succeeded");
+
+    private static final Duration STALE_AFTER = Duration.ofMinutes(5);
+    static final int PURGE_BATCH_SIZE = 500;
+
+    private final StripeInboxRepository inboxRepository;
+    private final StripeInboxProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+    private final Timer processingLag;
+    private final Counter failures;
+
+    public StripeInboxService(StripeInboxRepository inboxRepository, StripeInboxProperties properties,
+                              ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.inboxRepository = inboxRepository;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+
+        Gauge.builder("stripe.inbox.pending", pending, AtomicLong::get)
+                .description("Stripe events waiting to be processed")
+                .register(meterRegistry);
+        Gauge.builder("stripe.inbox.oldest.age", oldestAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest unprocessed Stripe event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.processingLag = Timer.builder("stripe.inbox.lag")
+                .description("Time from receiving a Stripe event to finishing its processing")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.failures = Counter.builder("stripe.inbox.failed")
+                .description("Stripe events that exhausted their retries")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stores a verified event. Returns false for redeliveries of an event that is already in the inbox.
+     */
+    public boolean receive(String eventId, String eventType, Instant stripeCreatedAt, String payload) {
+        if (inboxRepository.existsByEventId(eventId)) return false;
+
+        try {
+            inboxRepository.saveAndFlush(new StripeInboxEvent(eventId, eventType, stripeCreatedAt, payload));
+        } catch (DataIntegrityViolationException concurrentDelivery) {
+            return false;
+        }
+
+        eventPublisher.publishEvent(new StripeEventReceived(eventId));
+        return true;
+    }
+
+    @Transactional
+    public List<Long> claimDue(int limit) {
+        Instant now = Instant.now();
+        List<Long> claimed = new ArrayList<>();
+
+        for (Long id : inboxRepository.findDueIds(now, Limit.of(limit))) {
+            if (inboxRepository.claim(id, now) == 1) claimed.add(id);
+        }
+        return claimed;
+    }
+
+    @Transactional
+    public int releaseStale() {
+        return inboxRepository.releaseStale(Instant.now().minus(STALE_AFTER));
+    }
+
+    @Transactional(readOnly = true)
+    public String loadPayload(Long id) {
+        return inboxRepository.findById(id)
+                .map(StripeInboxEvent::getPayload)
+                .orElseThrow(() -> new EntityNotFoundException("Inbox event not found"));
+    }
+
+    @Transactional
+    public void complete(Long id) {
+        StripeInboxEvent event = inboxRepository.findById(id).orElseThrow();
+        event.setStatus(InboxStatus.DONE);
+        event.setProcessedAt(Instant.now());
+        event.setLastError(null);
+        processingLag.record(Duration.between(event.getReceivedAt(), event.getProcessedAt()));
+    }
+
+    @Transactional
+    public void fail(Long id, Exception error) {
+        StripeInboxEvent event = inboxRepository.findById(id).orElseThrow();
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        event.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+
+        if (event.getAttempts() >= properties.maxAttempts()) {
+            event.setStatus(InboxStatus.FAILED);
+            event.setProcessedAt(Instant.now());
+            failures.increment();
+            System.err.println("Stripe event " + event.getEventId() + " failed permanently: " + message);
+        } else {
+            event.setStatus(InboxStatus.PENDING);
+            event.setNextAttemptAt(Instant.now().plus(backoff(event.getAttempts())));
+        }
+    }
+
+    /**
+     * Deletes DONE and FAILED events older than their retention, in batches so no single delete holds locks for long.
+     */
+    public int purgeProcessed() {
+        Instant now = Instant.now();
+        return purge(InboxStatus.DONE, now.minus(properties.doneRetention()))
+                + purge(InboxStatus.FAILED, now.minus(properties.failedRetention()));
+    }
+
+    private int purge(InboxStatus status, Instant before) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = inboxRepository.deleteProcessedBefore(status.name(), before, PURGE_BATCH_SIZE);
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        return total;
+    }
+
+    @Transactional(readOnly = true)
+    public void refreshMetrics() {
+        pending.set(inboxRepository.countByStatus(InboxStatus.PENDING));
+        Instant oldest = inboxRepository.findOldestOpenReceivedAt();
+        oldestAgeSeconds.set(oldest == null ? 0 : Duration.between(oldest, Instant.now()).toSeconds());
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = properties.initialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(properties.maxBackoff()) > 0 ? properties.maxBackoff() : delay;
+    }
+}
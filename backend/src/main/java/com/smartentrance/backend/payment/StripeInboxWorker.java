@@ -0,0 +1,102 @@
+package com.smartentrance.backend.payment;
+
+import com.smartentrance.backend.config.StripeInboxProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the Stripe inbox with a bounded pool. Woken when an event is stored and by a periodic poll,
+ * which also picks up retries and events left behind by a crashed node.
+ */
+@Component
+public class StripeInboxWorker implements DisposableBean {
+
+    private final StripeInboxService inboxService;
+    private final StripeEventHandler eventHandler;
+    private final ExecutorService workers;
+    private final ExecutorService dispatcher;
+    private final Semaphore permits;
+    private final AtomicBoolean dispatchQueued = new AtomicBoolean();
+    private volatile boolean saturated;
+
+    public StripeInboxWorker(StripeInboxService inboxService, StripeEventHandler eventHandler,
+                             StripeInboxProperties properties) {
+        this.inboxService = inboxService;
+        this.eventHandler = eventHandler;
+        this.permits = new Semaphore(properties.workers());
+        this.workers = Executors.newFixedThreadPool(properties.workers(), Thread.ofPlatform().name("stripe-inbox-", 0).factory());
+        this.dispatcher = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("stripe-inbox-dispatch").factory());
+    }
+
+    @EventListener
+    public void onEventReceived(StripeEventReceived event) {
+        wakeUp();
+    }
+
+    @Scheduled(fixedDelay = 5000)
+    public void poll() {
+        int released = inboxService.releaseStale();
+        if (released > 0) System.out.println("Released " + released + " stale Stripe inbox events");
+        inboxService.refreshMetrics();
+        wakeUp();
+    }
+
+    @Scheduled(cron = "0 45 3 * * ?")
+    public void purgeProcessed() {
+        int deleted = inboxService.purgeProcessed();
+        if (deleted > 0) System.out.println("Deleted " + deleted + " processed Stripe inbox events");
+    }
+
+    public void wakeUp() {
+        if (dispatchQueued.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    private void dispatch() {
+        dispatchQueued.set(false);
+        int free = permits.availablePermits();
+        if (free == 0) {
+            saturated = true;
+            return;
+        }
+
+        List<Long> claimed = inboxService.claimDue(free);
+        saturated = claimed.size() == free;
+
+        for (Long id : claimed) {
+            permits.acquireUninterruptibly();
+            workers.execute(() -> {
+                try {
+                    process(id);
+                } finally {
+                    permits.release();
+                    if (saturated) wakeUp();
+                }
+            });
+        }
+    }
+
+    private void process(Long id) {
+        try {
+            eventHandler.handle(inboxService.loadPayload(id));
+            inboxService.complete(id);
+        } catch (Exception e) {
+            inboxService.fail(id, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdown();
+        workers.shutdown();
+    }
+}
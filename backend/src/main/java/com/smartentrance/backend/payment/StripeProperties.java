@@ -11,5 +11,8 @@ public record StripeProperties(
         String apiKey,
 
         @NotBlank(message = "Stripe Webhook Secret must not be empty")
-        String webhookSecret
+        String webhookSecret,
+
+        // Points stripe-java at another host, e.g. the local emulator (profile "stripe-emulator").
+        String apiBase
 ) {}
\ No newline at end of file
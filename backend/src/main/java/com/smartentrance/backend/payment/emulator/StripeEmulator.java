@@ -0,0 +1,192 @@
+package com.smartentrance.backend.payment.emulator;
+
+import com.google.gson.JsonObject;
+import com.smartentrance.backend.payment.StripeProperties;
+import com.stripe.Stripe;
+import com.stripe.net.Webhook;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-memory stand-in for the parts of the Stripe API the backend uses. Confirming a payment intent creates a charge
+ * and posts a signed {@code payment_intent.succeeded} webhook, so the whole payment path runs without network access.
+ * Only active with the "stripe-emulator" profile.
+ */
+@Component
+@Profile("stripe-emulator")
+public class StripeEmulator {
+
+    private static final long FEE_BASIS_POINTS = 150;
+    private static final long FEE_FIXED_CENTS = 25;
+
+    /** One webhook post: how long the backend took to acknowledge it and the HTTP status (-1 on I/O failure). */
+    public record Delivery(String paymentIntentId, long confirmedAtNanos, long ackNanos, int status) {}
+
+    private final StripeProperties stripeProperties;
+    private final Map<String, JsonObject> intents = new ConcurrentHashMap<>();
+    private final Map<String, JsonObject> charges = new ConcurrentHashMap<>();
+    private final Queue<Delivery> deliveries = new ConcurrentLinkedQueue<>();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public StripeEmulator(StripeProperties stripeProperties) {
+        this.stripeProperties = stripeProperties;
+    }
+
+    public JsonObject createPaymentIntent(Map<String, String> params) {
+        String id = newId("pi");
+
+        JsonObject metadata = new JsonObject();
+        params.forEach((key, value) -> {
+            if (key.startsWith("metadata[") && key.endsWith("]")) {
+                metadata.addProperty(key.substring("metadata[".length(), key.length() - 1), value);
+            }
+        });
+
+        JsonObject intent = new JsonObject();
+        intent.addProperty("id", id);
+        intent.addProperty("object", "payment_intent");
+        intent.addProperty("amount", Long.parseLong(params.getOrDefault("amount", "0")));
+        intent.addProperty("currency", params.getOrDefault("currency", "eur").toLowerCase());
+        intent.addProperty("description", params.get("description"));
+        intent.addProperty("client_secret", id + "_secret_" + UUID.randomUUID().toString().replace("-", ""));
+        intent.addProperty("status", "requires_payment_method");
+        intent.addProperty("created", Instant.now().getEpochSecond());
+        intent.addProperty("livemode", false);
+        intent.add("latest_charge", null);
+        intent.add("metadata", metadata);
+
+        intents.put(id, intent);
+        return intent;
+    }
+
+    public JsonObject getPaymentIntent(String id) {
+        return intents.get(id);
+    }
+
+    public JsonObject getCharge(String id) {
+        return charges.get(id);
+    }
+
+    /**
+     * Marks the intent as paid and posts the webhook to {@code webhookUrl} in the background.
+     * Confirming an already succeeded intent posts the webhook again, like a Stripe redelivery.
+     */
+    public JsonObject confirmPaymentIntent(String id, String webhookUrl) {
+        JsonObject intent = intents.get(id);
+        if (intent == null) return null;
+
+        JsonObject snapshot;
+        synchronized (intent) {
+            if (intent.get("latest_charge").isJsonNull()) {
+                JsonObject charge = createCharge(intent);
+                charges.put(charge.get("id").getAsString(), charge);
+                intent.addProperty("latest_charge", charge.get("id").getAsString());
+                intent.addProperty("status", "succeeded");
+            }
+            snapshot = intent.deepCopy();
+        }
+
+        sendWebhook(snapshot, webhookUrl);
+        return snapshot;
+    }
+
+    public List<Delivery> deliveries() {
+        return new ArrayList<>(deliveries);
+    }
+
+    public void reset() {
+        intents.clear();
+        charges.clear();
+        deliveries.clear();
+    }
+
+    private JsonObject createCharge(JsonObject intent) {
+        long amount = intent.get("amount").getAsLong();
+        long fee = amount * FEE_BASIS_POINTS / 10_000 + FEE_FIXED_CENTS;
+        String chargeId = newId("ch");
+
+        JsonObject balance = new JsonObject();
+        balance.addProperty("id", newId("txn"));
+        balance.addProperty("object", "balance_transaction");
+        balance.addProperty("amount", amount);
+        balance.addProperty("fee", fee);
+        balance.addProperty("net", amount - fee);
+        balance.addProperty("currency", intent.get("currency").getAsString());
+
+        JsonObject charge = new JsonObject();
+        charge.addProperty("id", chargeId);
+        charge.addProperty("object", "charge");
+        charge.addProperty("amount", amount);
+        charge.addProperty("currency", intent.get("currency").getAsString());
+        charge.addProperty("payment_intent", intent.get("id").getAsString());
+        charge.addProperty("status", "succeeded");
+        charge.addProperty("paid", true);
+        charge.addProperty("receipt_url", "https://pay.stripe.local/receipts/" + chargeId);
+        charge.addProperty("created", Instant.now().getEpochSecond());
+        charge.add("balance_transaction", balance);
+        return charge;
+    }
+
+    private void sendWebhook(JsonObject intent, String webhookUrl) {
+        JsonObject data = new JsonObject();
+        data.add("object", intent);
+
+        JsonObject event = new JsonObject();
+        event.addProperty("id", newId("evt"));
+        event.addProperty("object", "event");
+        event.addProperty("api_version", Stripe.API_VERSION);
+        event.addProperty("created", Instant.now().getEpochSecond());
+        event.addProperty("type", "payment_intent.succeeded");
+        event.addProperty("livemode", false);
+        event.addProperty("pending_webhooks", 1);
+        event.add("data", data);
+
+        String payload = event.toString();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(webhookUrl))
+                .header("Content-Type", "application/json")
+                .header("Stripe-Signature", sign(payload))
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build();
+
+        String intentId = intent.get("id").getAsString();
+        long sentAt = System.nanoTime();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    int status = response != null ? response.statusCode() : -1;
+                    if (error != null) {
+                        System.err.println("Emulated webhook for " + intentId + " failed: " + error.getMessage());
+                    }
+                    deliveries.add(new Delivery(intentId, sentAt, System.nanoTime() - sentAt, status));
+                });
+    }
+
+    private String sign(String payload) {
+        long timestamp = Instant.now().getEpochSecond();
+        try {
+            String signature = Webhook.Util.computeHmacSha256(stripeProperties.webhookSecret(), timestamp + "." + payload);
+            return "t=" + timestamp + ",v1=" + signature;
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not sign emulated webhook", e);
+        }
+    }
+
+    private static String newId(String prefix) {
+        return prefix + "_emu_" + UUID.randomUUID().toString().replace("-", "").substring(0, 24);
+    }
+}
@@ -0,0 +1,65 @@
+package com.smartentrance.backend.payment.emulator;
+
+import com.google.gson.JsonObject;
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.Map;
+
+/**
+ * Serves the Stripe endpoints stripe-java calls, under {@code /stripe-emulator/v1}.
+ * Point the client at it with {@code stripe.api-base: http://localhost:8080/stripe-emulator}.
+ */
+@RestController
+@RequestMapping(value = "/stripe-emulator/v1", produces = MediaType.APPLICATION_JSON_VALUE)
+@Profile("stripe-emulator")
+@RequiredArgsConstructor
+@Hidden
+public class StripeEmulatorController {
+
+    private final StripeEmulator emulator;
+
+    @Value("${stripe-emulator.webhook-url:}")
+    private String webhookUrl;
+
+    @PostMapping("/payment_intents")
+    public ResponseEntity<String> createPaymentIntent(@RequestParam Map<String, String> params) {
+        return ResponseEntity.ok(emulator.createPaymentIntent(params).toString());
+    }
+
+    @GetMapping("/payment_intents/{id}")
+    public ResponseEntity<String> getPaymentIntent(@PathVariable String id) {
+        return found(emulator.getPaymentIntent(id), id);
+    }
+
+    @PostMapping("/payment_intents/{id}/confirm")
+    public ResponseEntity<String> confirmPaymentIntent(@PathVariable String id) {
+        String target = webhookUrl.isBlank()
+                ? ServletUriComponentsBuilder.fromCurrentContextPath().path("/api/webhooks/stripe").toUriString()
+                : webhookUrl;
+        return found(emulator.confirmPaymentIntent(id, target), id);
+    }
+
+    @GetMapping("/charges/{id}")
+    public ResponseEntity<String> getCharge(@PathVariable String id) {
+        return found(emulator.getCharge(id), id);
+    }
+
+    private ResponseEntity<String> found(JsonObject body, String id) {
+        if (body != null) return ResponseEntity.ok(body.toString());
+
+        JsonObject error = new JsonObject();
+        error.addProperty("type", "invalid_request_error");
+        error.addProperty("code", "resource_missing");
+        error.addProperty("message", "No such object: '" + id + "'");
+        JsonObject wrapper = new JsonObject();
+        wrapper.add("error", error);
+        return ResponseEntity.status(404).body(wrapper.toString());
+    }
+}
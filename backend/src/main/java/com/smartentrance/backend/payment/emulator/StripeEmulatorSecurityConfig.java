@@ -0,0 +1,26 @@
+package com.smartentrance.backend.payment.emulator;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.web.SecurityFilterChain;
+
+@Configuration
+@Profile("stripe-emulator")
+public class StripeEmulatorSecurityConfig {
+
+    // stripe-java authenticates with the API key, not a session, so the emulator endpoints are open.
+    @Bean
+    @Order(0)
+    public SecurityFilterChain stripeEmulatorFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/stripe-emulator/**")
+                .csrf(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+
+        return http.build();
+    }
+}
@@ -1,12 +1,19 @@
 package com.smartentrance.backend.repository;
 
+import com.smartentrance.backend.dto.finance.ExpenseExportRow;
 import com.smartentrance.backend.model.BuildingExpense;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface BuildingExpenseRepository extends JpaRepository<BuildingExpense, Long> {
 
@@ -25,4 +32,15 @@ public interface BuildingExpenseRepository extends JpaRepository<BuildingExpense
     List<BuildingExpense> findAllByBuildingIdOrderByExpenseDateDesc(Integer buildingId);
 
     boolean existsByDocumentUrl(String documentUrl);
+
+    @QueryHints(value = @QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.smartentrance.backend.dto.finance.ExpenseExportRow(" +
+            "e.id, e.expenseDate, e.fundType, e.paymentMethod, e.amount, e.description) " +
+            "FROM BuildingExpense e " +
+            "WHERE e.building.id = :buildingId " +
+            "AND e.expenseDate >= :from AND e.expenseDate < :to " +
+            "ORDER BY e.expenseDate, e.id")
+    Stream<ExpenseExportRow> streamExportRows(@Param("buildingId") Integer buildingId,
+                                              @Param("from") Instant from,
+                                              @Param("to") Instant to);
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -21,6 +22,12 @@ public interface BuildingRepository extends JpaRepository<Building, Integer> {
 
     List<Building> findAllByManagerId(Long managerId);
 
+    @Query("SELECT b.id FROM Building b WHERE b.manager.id = :managerId")
+    List<Integer> findIdsByManagerId(@Param("managerId") Long managerId);
+
+    @Query("SELECT b.id FROM Building b ORDER BY b.id")
+    List<Integer> findAllIds();
+
     @QueryHints(value = @QueryHint(name = HINT_FETCH_SIZE, value = "50"))
     @Query("SELECT b FROM Building b")
     Stream<Building> streamAll();
@@ -3,6 +3,8 @@ package com.smartentrance.backend.repository;
 import com.smartentrance.backend.model.BuildingDocument;
 import com.smartentrance.backend.model.enums.DocumentType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,4 +20,7 @@ public interface DocumentRepository extends JpaRepository<BuildingDocument, Long
     Optional<BuildingDocument> findByFileUrl(String fileUrl);
 
     List<BuildingDocument> findAllByBuildingIdAndType(Integer buildingId, DocumentType type);
+
+    @Query("SELECT d.building.id FROM BuildingDocument d WHERE d.id = :documentId")
+    Optional<Integer> findBuildingIdById(@Param("documentId") Long documentId);
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.smartentrance.backend.repository;
+
+import com.smartentrance.backend.model.FeeJournalEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Set;
+
+@Repository
+public interface FeeJournalRepository extends JpaRepository<FeeJournalEntry, Long> {
+
+    boolean existsByBuildingIdAndPeriod(Integer buildingId, String period);
+
+    @Query("SELECT j.building.id FROM FeeJournalEntry j WHERE j.period = :period")
+    Set<Integer> findBuildingIdsByPeriod(@Param("period") String period);
+}
@@ -0,0 +1,42 @@
+package com.smartentrance.backend.repository;
+
+import com.smartentrance.backend.model.FeeRunItem;
+import com.smartentrance.backend.model.enums.FeeRunItemStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface FeeRunItemRepository extends JpaRepository<FeeRunItem, Long> {
+
+    @Query("SELECT i.id FROM FeeRunItem i " +
+            "WHERE i.feeRun.id = :runId AND i.status = com.smartentrance.backend.model.enums.FeeRunItemStatus.PENDING " +
+            "ORDER BY i.id")
+    List<Long> findPendingIds(@Param("runId") Long runId);
+
+    @Query("SELECT i.status, COUNT(i) FROM FeeRunItem i WHERE i.feeRun.id = :runId GROUP BY i.status")
+    List<Object[]> countByStatus(@Param("runId") Long runId);
+
+    List<FeeRunItem> findAllByFeeRunIdAndStatus(Long feeRunId, FeeRunItemStatus status);
+
+    @Modifying
+    @Query("UPDATE FeeRunItem i SET i.status = :to WHERE i.feeRun.id = :runId AND i.status = :from")
+    int updateStatus(@Param("runId") Long runId,
+                     @Param("from") FeeRunItemStatus from,
+                     @Param("to") FeeRunItemStatus to);
+
+    // Only a still-pending item can fail; one another worker already finished keeps its outcome.
+    @Modifying
+    @Query("UPDATE FeeRunItem i SET i.status = com.smartentrance.backend.model.enums.FeeRunItemStatus.FAILED, " +
+            "i.error = :error, i.durationMs = :durationMs, i.finishedAt = :finishedAt " +
+            "WHERE i.id = :id AND i.status = com.smartentrance.backend.model.enums.FeeRunItemStatus.PENDING")
+    int markFailedIfPending(@Param("id") Long id,
+                            @Param("error") String error,
+                            @Param("durationMs") long durationMs,
+                            @Param("finishedAt") Instant finishedAt);
+}
@@ -0,0 +1,16 @@
+package com.smartentrance.backend.repository;
+
+import com.smartentrance.backend.model.FeeRun;
+import com.smartentrance.backend.model.enums.FeeRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FeeRunRepository extends JpaRepository<FeeRun, Long> {
+
+    List<FeeRun> findTop20ByOrderByStartedAtDesc();
+
+    List<FeeRun> findAllByStatus(FeeRunStatus status);
+}
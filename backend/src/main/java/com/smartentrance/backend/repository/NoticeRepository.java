@@ -2,10 +2,13 @@ package com.smartentrance.backend.repository;
 
 import com.smartentrance.backend.model.Notice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NoticeRepository extends JpaRepository<Notice, Integer> {
@@ -14,4 +17,7 @@ public interface NoticeRepository extends JpaRepository<Notice, Integer> {
     List<Notice> findAllByBuildingIdAndEventDateTimeAfterOrderByEventDateTimeAsc(Integer buildingId, Instant now);
 
     List<Notice> findAllByBuildingIdAndEventDateTimeBeforeOrderByEventDateTimeDesc(Integer buildingId, Instant now);
+
+    @Query("SELECT n.building.id FROM Notice n WHERE n.id = :noticeId")
+    Optional<Integer> findBuildingIdById(@Param("noticeId") Integer noticeId);
 }
@@ -0,0 +1,22 @@
+package com.smartentrance.backend.repository;
+
+import com.smartentrance.backend.model.PeriodClose;
+import com.smartentrance.backend.model.PeriodCloseLine;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PeriodCloseRepository extends JpaRepository<PeriodClose, Long> {
+
+    Optional<PeriodClose> findTopByBuildingIdOrderByPeriodEndDesc(Integer buildingId);
+
+    Optional<PeriodClose> findByBuildingIdAndPeriod(Integer buildingId, String period);
+
+    @Query("SELECT l FROM PeriodCloseLine l WHERE l.periodClose.id = :periodCloseId")
+    List<PeriodCloseLine> findLines(@Param("periodCloseId") Long periodCloseId);
+}
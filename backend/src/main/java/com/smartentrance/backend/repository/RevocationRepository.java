@@ -4,13 +4,61 @@ import com.smartentrance.backend.model.RevocationEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
+
 @Repository
-public interface RevocationRepository extends JpaRepository<RevocationEntry, Integer> {
+public interface RevocationRepository extends JpaRepository<RevocationEntry, Long> {
+
+    List<RevocationEntry> findAllByChangedAtGreaterThanEqual(Instant since);
+
+    /*
+     * Single-statement writes so concurrent changes to the other column are never overwritten. They run in their
+     * own transaction: the change becomes visible to the other nodes right away, and they can be called after the
+     * caller's transaction has completed.
+     */
+
+    /** Inserts the row unless the user already has one; null values stay unset. Returns 0 if the row existed. */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = """
+            INSERT INTO token_revocations (user_id, revoked_at, membership_version, changed_at)
+            VALUES (:userId, CAST(:revokedAt AS BIGINT), CAST(:membershipVersion AS BIGINT), :now)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId,
+                       @Param("revokedAt") Long revokedAt,
+                       @Param("membershipVersion") Long membershipVersion,
+                       @Param("now") Instant now);
+
+    /** Moves the given values forward, never back; null values leave their column untouched. */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = """
+            UPDATE token_revocations
+            SET revoked_at = GREATEST(revoked_at, CAST(:revokedAt AS BIGINT)),
+                membership_version = GREATEST(membership_version, CAST(:membershipVersion AS BIGINT)),
+                changed_at = :now
+            WHERE user_id = :userId
+            """, nativeQuery = true)
+    int advance(@Param("userId") Long userId,
+                @Param("revokedAt") Long revokedAt,
+                @Param("membershipVersion") Long membershipVersion,
+                @Param("now") Instant now);
+
+    /** Deletes up to {@code batchSize} rows whose revocation and membership version are both past the threshold. */
     @Modifying
     @Transactional
-    @Query("DELETE FROM RevocationEntry r WHERE r.revokedAt < :threshold")
-    void deleteOlderThan(Long threshold);
-}
\ No newline at end of file
+    @Query(value = """
+            DELETE FROM token_revocations WHERE user_id IN (
+                SELECT user_id FROM token_revocations
+                WHERE COALESCE(revoked_at, 0) < :threshold AND COALESCE(membership_version, 0) < :threshold
+                LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteOlderThan(@Param("threshold") long threshold, @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,55 @@
+package com.smartentrance.backend.repository;
+
+import com.smartentrance.backend.model.StripeInboxEvent;
+import com.smartentrance.backend.model.enums.InboxStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface StripeInboxRepository extends JpaRepository<StripeInboxEvent, Long> {
+
+    boolean existsByEventId(String eventId);
+
+    long countByStatus(InboxStatus status);
+
+    @Query("SELECT e.id FROM StripeInboxEvent e " +
+            "WHERE e.status = com.smartentrance.backend.model.enums.InboxStatus.PENDING " +
+            "AND e.nextAttemptAt <= :now " +
+            "ORDER BY e.nextAttemptAt, e.id")
+    List<Long> findDueIds(@Param("now") Instant now, Limit limit);
+
+    @Modifying
+    @Query("UPDATE StripeInboxEvent e SET e.status = com.smartentrance.backend.model.enums.InboxStatus.PROCESSING, " +
+            "e.startedAt = :now, e.attempts = e.attempts + 1 " +
+            "WHERE e.id = :id AND e.status = com.smartentrance.backend.model.enums.InboxStatus.PENDING")
+    int claim(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE StripeInboxEvent e SET e.status = com.smartentrance.backend.model.enums.InboxStatus.PENDING " +
+            "WHERE e.status = com.smartentrance.backend.model.enums.InboxStatus.PROCESSING AND e.startedAt < :before")
+    int releaseStale(@Param("before") Instant before);
+
+    @Query("SELECT MIN(e.receivedAt) FROM StripeInboxEvent e " +
+            "WHERE e.status IN (com.smartentrance.backend.model.enums.InboxStatus.PENDING, " +
+            "com.smartentrance.backend.model.enums.InboxStatus.PROCESSING)")
+    Instant findOldestOpenReceivedAt();
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM stripe_inbox WHERE id IN (
+                SELECT id FROM stripe_inbox
+                WHERE status = :status AND processed_at < :before
+                LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteProcessedBefore(@Param("status") String status, @Param("before") Instant before,
+                              @Param("batchSize") int batchSize);
+}
@@ -1,16 +1,30 @@
 package com.smartentrance.backend.repository;
 
+import com.smartentrance.backend.dto.finance.FinancialTotals;
+import com.smartentrance.backend.dto.finance.StatementRow;
+import com.smartentrance.backend.dto.finance.TransactionExportRow;
+import com.smartentrance.backend.dto.finance.UnitFinanceStatus;
 import com.smartentrance.backend.model.Transaction;
 import com.smartentrance.backend.model.enums.FundType;
 import com.smartentrance.backend.model.enums.TransactionStatus;
 import com.smartentrance.backend.model.enums.TransactionType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
@@ -35,6 +49,125 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("status") TransactionStatus status
     );
 
+    /*
+     * Building pages, one query per filter combination so each is a range scan of its own
+     * (building_id[, type | status], created_at, id) index in cursor order. The first page starts after
+     * TransactionCursor.FIRST.
+     */
+
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.unit " +
+            "WHERE t.building.id = :buildingId " +
+            "AND (t.createdAt, t.id) < (:createdAt, :id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findBuildingPage(@Param("buildingId") Integer buildingId,
+                                       @Param("createdAt") Instant createdAt,
+                                       @Param("id") Long id,
+                                       Limit limit);
+
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.unit " +
+            "WHERE t.building.id = :buildingId AND t.type = :type " +
+            "AND (t.createdAt, t.id) < (:createdAt, :id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findBuildingPageByType(@Param("buildingId") Integer buildingId,
+                                             @Param("type") TransactionType type,
+                                             @Param("createdAt") Instant createdAt,
+                                             @Param("id") Long id,
+                                             Limit limit);
+
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.unit " +
+            "WHERE t.building.id = :buildingId AND t.status = :status " +
+            "AND (t.createdAt, t.id) < (:createdAt, :id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findBuildingPageByStatus(@Param("buildingId") Integer buildingId,
+                                               @Param("status") TransactionStatus status,
+                                               @Param("createdAt") Instant createdAt,
+                                               @Param("id") Long id,
+                                               Limit limit);
+
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.unit " +
+            "WHERE t.building.id = :buildingId AND t.status = :status AND t.type = :type " +
+            "AND (t.createdAt, t.id) < (:createdAt, :id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findBuildingPageByStatusAndType(@Param("buildingId") Integer buildingId,
+                                                      @Param("status") TransactionStatus status,
+                                                      @Param("type") TransactionType type,
+                                                      @Param("createdAt") Instant createdAt,
+                                                      @Param("id") Long id,
+                                                      Limit limit);
+
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.unit " +
+            "WHERE t.unit.id = :unitId " +
+            "AND t.responsibleUser.id = :userId " +
+            "AND (:type IS NULL OR t.type = :type) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findUnitPage(@Param("unitId") Long unitId,
+                                   @Param("userId") Long userId,
+                                   @Param("type") TransactionType type,
+                                   Limit limit);
+
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.unit " +
+            "WHERE t.unit.id = :unitId " +
+            "AND t.responsibleUser.id = :userId " +
+            "AND (:type IS NULL OR t.type = :type) " +
+            "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findUnitPageAfter(@Param("unitId") Long unitId,
+                                        @Param("userId") Long userId,
+                                        @Param("type") TransactionType type,
+                                        @Param("createdAt") Instant createdAt,
+                                        @Param("id") Long id,
+                                        Limit limit);
+
+    @QueryHints(value = @QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.smartentrance.backend.dto.finance.TransactionExportRow(" +
+            "t.id, t.createdAt, u.unitNumber, t.type, t.fundType, t.paymentMethod, t.status, " +
+            "t.amount, t.description, t.referenceId) " +
+            "FROM Transaction t JOIN t.unit u " +
+            "WHERE u.building.id = :buildingId " +
+            "AND t.createdAt >= :from AND t.createdAt < :to " +
+            "ORDER BY t.createdAt, t.id")
+    Stream<TransactionExportRow> streamExportRows(@Param("buildingId") Integer buildingId,
+                                                  @Param("from") Instant from,
+                                                  @Param("to") Instant to);
+
+    @QueryHints(value = @QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.smartentrance.backend.dto.finance.StatementRow(" +
+            "u.id, u.unitNumber, t.id, t.confirmedAt, t.type, t.fundType, t.paymentMethod, t.amount, t.description) " +
+            "FROM Unit u LEFT JOIN Transaction t ON t.unit = u " +
+            "AND t.status = com.smartentrance.backend.model.enums.TransactionStatus.CONFIRMED " +
+            "AND t.confirmedAt >= :from AND t.confirmedAt < :to " +
+            "WHERE u.building.id = :buildingId " +
+            "ORDER BY u.unitNumber, u.id, t.confirmedAt, t.id")
+    Stream<StatementRow> streamStatementRows(@Param("buildingId") Integer buildingId,
+                                             @Param("from") Instant from,
+                                             @Param("to") Instant to);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.unit u " +
+            "WHERE u.building.id = :buildingId " +
+            "AND t.status = 'PENDING' " +
+            "AND t.paymentMethod = 'BANK_TRANSFER' " +
+            "AND t.referenceId IS NOT NULL")
+    List<Transaction> findPendingBankTransfers(@Param("buildingId") Integer buildingId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id = :id")
+    Optional<Transaction> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.unit u " +
+            "WHERE u.building.id = :buildingId AND t.id IN :ids " +
+            "ORDER BY t.createdAt, t.id")
+    List<Transaction> findAllForDecision(@Param("buildingId") Integer buildingId,
+                                         @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.unit u JOIN FETCH u.building " +
+            "LEFT JOIN FETCH t.confirmedBy WHERE t.id = :id")
+    Optional<Transaction> findForReceipt(@Param("id") Long id);
+
+    @Query("SELECT t.unit.id FROM Transaction t WHERE t.id = :id")
+    Optional<Long> findUnitIdById(@Param("id") Long id);
+
     List<Transaction> findAllByUnitIdOrderByCreatedAtDesc(Long unitId);
     List<Transaction> findAllByUnitIdAndTypeOrderByCreatedAtDesc(Long unitId, TransactionType type);
 
@@ -50,6 +183,40 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             "GROUP BY ts.fundType")
     List<Object[]> sumIncomeByFundFromSplits(@Param("buildingId") Integer buildingId);
 
+    @Query(value = """
+        SELECT 'INCOME_FUND' AS source, CAST(ts.fund_type AS VARCHAR(32)) AS fund, CAST(NULL AS VARCHAR(32)) AS method, SUM(ts.amount) AS total
+        FROM transaction_splits ts
+        JOIN transactions t ON t.id = ts.transaction_id
+        JOIN units u ON u.id = t.unit_id
+        WHERE u.building_id = :buildingId AND t.transaction_status = 'CONFIRMED'
+          AND t.confirmed_at >= :from AND t.confirmed_at < :to
+        GROUP BY ts.fund_type
+        UNION ALL
+        SELECT 'INCOME_METHOD', CAST(NULL AS VARCHAR(32)), CAST(t.payment_method AS VARCHAR(32)), SUM(t.amount)
+        FROM transactions t
+        JOIN units u ON u.id = t.unit_id
+        WHERE u.building_id = :buildingId AND t.transaction_status = 'CONFIRMED'
+          AND t.confirmed_at >= :from AND t.confirmed_at < :to
+        GROUP BY t.payment_method
+        UNION ALL
+        SELECT 'EXPENSE', CAST(e.fund_type AS VARCHAR(32)), CAST(e.payment_method AS VARCHAR(32)), SUM(e.amount)
+        FROM building_expenses e
+        WHERE e.building_id = :buildingId
+          AND e.expense_date >= :from AND e.expense_date < :to
+        GROUP BY e.fund_type, e.payment_method
+        """, nativeQuery = true)
+    List<Object[]> sumBuildingTotalsRows(@Param("buildingId") Integer buildingId,
+                                         @Param("from") Instant from,
+                                         @Param("to") Instant to);
+
+    default FinancialTotals sumBuildingTotals(Integer buildingId) {
+        return sumBuildingTotals(buildingId, FinancialTotals.BEGINNING, FinancialTotals.END);
+    }
+
+    default FinancialTotals sumBuildingTotals(Integer buildingId, Instant from, Instant to) {
+        return FinancialTotals.fromRows(sumBuildingTotalsRows(buildingId, from, to));
+    }
+
     @Query("SELECT t.paymentMethod, SUM(t.amount) " +
             "FROM Transaction t " +
             "WHERE t.unit.building.id = :buildingId " +
@@ -94,9 +261,56 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
                                       @Param("fundType") FundType fundType);
 
 
+    @Query("SELECT t.unit.id, t.responsibleUser.id, t.fundType, t.type, SUM(t.amount) " +
+            "FROM Transaction t " +
+            "WHERE t.responsibleUser IS NOT NULL " +
+            "AND t.status = 'CONFIRMED' " +
+            "GROUP BY t.unit.id, t.responsibleUser.id, t.fundType, t.type")
+    List<Object[]> sumConfirmedAmountsByLedgerKey();
+
+    @Query("SELECT t.unit.id, t.responsibleUser.id, ts.fundType, SUM(ts.amount) " +
+            "FROM TransactionSplit ts " +
+            "JOIN ts.transaction t " +
+            "WHERE t.responsibleUser IS NOT NULL " +
+            "AND t.status = 'CONFIRMED' " +
+            "GROUP BY t.unit.id, t.responsibleUser.id, ts.fundType")
+    List<Object[]> sumConfirmedSplitsByLedgerKey();
+
+    @Query("SELECT t.unit.id, t.responsibleUser.id, t.fundType, t.type, SUM(t.amount) " +
+            "FROM Transaction t " +
+            "WHERE t.unit.building.id = :buildingId " +
+            "AND t.responsibleUser IS NOT NULL " +
+            "AND t.status = 'CONFIRMED' " +
+            "AND t.confirmedAt >= :from " +
+            "GROUP BY t.unit.id, t.responsibleUser.id, t.fundType, t.type")
+    List<Object[]> sumConfirmedAmountsByLedgerKeySince(@Param("buildingId") Integer buildingId,
+                                                       @Param("from") Instant from);
+
+    @Query("SELECT t.unit.id, t.responsibleUser.id, ts.fundType, SUM(ts.amount) " +
+            "FROM TransactionSplit ts " +
+            "JOIN ts.transaction t " +
+            "WHERE t.unit.building.id = :buildingId " +
+            "AND t.responsibleUser IS NOT NULL " +
+            "AND t.status = 'CONFIRMED' " +
+            "AND t.confirmedAt >= :from " +
+            "GROUP BY t.unit.id, t.responsibleUser.id, ts.fundType")
+    List<Object[]> sumConfirmedSplitsByLedgerKeySince(@Param("buildingId") Integer buildingId,
+                                                      @Param("from") Instant from);
+
     boolean existsByUnitIdAndStatus(Long unitId, TransactionStatus status);
 
+    @Query("SELECT new com.smartentrance.backend.dto.finance.UnitFinanceStatus(u.id, " +
+            "COALESCE((SELECT SUM(b.balance) FROM UnitBalance b " +
+            "WHERE b.unit.id = u.id AND b.responsibleUser.id = u.responsibleUser.id), 0), " +
+            "CASE WHEN EXISTS (SELECT 1 FROM Transaction t " +
+            "WHERE t.unit.id = u.id AND t.status = com.smartentrance.backend.model.enums.TransactionStatus.PENDING) " +
+            "THEN true ELSE false END) " +
+            "FROM Unit u WHERE u.id IN :unitIds")
+    List<UnitFinanceStatus> findFinanceStatuses(@Param("unitIds") Collection<Long> unitIds);
+
     Optional<Transaction> findByReferenceId(String referenceId);
 
+    boolean existsByIdempotencyKey(String idempotencyKey);
+
     Optional<Transaction> findByProofUrl(String url);
 }
\ No newline at end of file
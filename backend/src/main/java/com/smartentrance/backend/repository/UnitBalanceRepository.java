@@ -0,0 +1,54 @@
+package com.smartentrance.backend.repository;
+
+import com.smartentrance.backend.model.UnitBalance;
+import com.smartentrance.backend.model.enums.FundType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UnitBalanceRepository extends JpaRepository<UnitBalance, Long> {
+
+    @Query("SELECT COALESCE(SUM(b.balance), 0) FROM UnitBalance b " +
+            "WHERE b.unit.id = :unitId AND b.responsibleUser.id = :userId")
+    BigDecimal sumBalance(@Param("unitId") Long unitId, @Param("userId") Long userId);
+
+    @Query("SELECT b.charged + b.paid FROM UnitBalance b " +
+            "WHERE b.unit.id = :unitId AND b.responsibleUser.id = :userId AND b.fundType = :fundType")
+    Optional<BigDecimal> findNetFundPosition(@Param("unitId") Long unitId,
+                                             @Param("userId") Long userId,
+                                             @Param("fundType") FundType fundType);
+
+    @Query("SELECT b.fundType, b.charged + b.paid FROM UnitBalance b " +
+            "WHERE b.unit.id = :unitId AND b.responsibleUser.id = :userId")
+    List<Object[]> findNetFundPositions(@Param("unitId") Long unitId, @Param("userId") Long userId);
+
+    @Query("SELECT b FROM UnitBalance b WHERE b.unit.building.id = :buildingId")
+    List<UnitBalance> findAllByBuildingId(@Param("buildingId") Integer buildingId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM UnitBalance b WHERE b.unit.id IN :unitIds")
+    List<UnitBalance> findAllForUpdateByUnitIdIn(@Param("unitIds") Collection<Long> unitIds);
+
+    /** Creates the zero row for a ledger key unless it exists; safe against a concurrent first write of the same key. */
+    @Modifying
+    @Query(value = """
+            INSERT INTO unit_balances (unit_id, responsible_user_id, fund_type, balance, charged, paid, updated_at)
+            VALUES (:unitId, :userId, :fundType, 0, 0, 0, :now)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("unitId") Long unitId,
+                       @Param("userId") Long userId,
+                       @Param("fundType") String fundType,
+                       @Param("now") Instant now);
+}
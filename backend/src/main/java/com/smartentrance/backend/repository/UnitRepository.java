@@ -1,9 +1,15 @@
 package com.smartentrance.backend.repository;
 
 import com.smartentrance.backend.model.Unit;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,11 +20,29 @@ public interface UnitRepository extends JpaRepository<Unit, Long> {
 
     boolean existsByAccessCode(String accessCode);
 
+    @EntityGraph(attributePaths = {"building", "responsibleUser"})
     List<Unit> findAllByResponsibleUserId(Long userId);
 
     boolean existsByBuildingIdAndResponsibleUserId(Integer buildingId, Long userId);
 
+    /** Rows of (unit id, building id, verified) for the units a user is responsible for. */
+    @Query("SELECT u.id, u.building.id, u.isVerified FROM Unit u WHERE u.responsibleUser.id = :userId")
+    List<Object[]> findMembershipRows(@Param("userId") Long userId);
+
+    @Query("SELECT u.building.id FROM Unit u WHERE u.id = :unitId")
+    Optional<Integer> findBuildingIdById(@Param("unitId") Long unitId);
+
+    @EntityGraph(attributePaths = {"responsibleUser"})
     List<Unit> findAllByBuildingIdOrderByUnitNumberAsc(Integer buildingId);
 
     List<Unit> findAllByBuildingId(Integer buildingId);
-}
\ No newline at end of file
+
+    /** Shared locks on the given units, taken by ledger writers so a rebuild cannot run in between. */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT u FROM Unit u WHERE u.id IN :ids ORDER BY u.id")
+    List<Unit> lockSharedByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM Unit u ORDER BY u.id")
+    List<Unit> lockAll();
+}
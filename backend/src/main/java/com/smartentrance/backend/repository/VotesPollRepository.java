@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface VotesPollRepository extends JpaRepository<VotesPoll, Integer> {
@@ -32,4 +33,7 @@ public interface VotesPollRepository extends JpaRepository<VotesPoll, Integer> {
         ORDER BY p.endAt DESC
     """)
     List<VotesPoll> findAllHistory(@Param("buildingId") Integer buildingId, @Param("now") Instant now);
+
+    @Query("SELECT p.building.id FROM VotesPoll p WHERE p.id = :pollId")
+    Optional<Integer> findBuildingIdById(@Param("pollId") Integer pollId);
 }
\ No newline at end of file
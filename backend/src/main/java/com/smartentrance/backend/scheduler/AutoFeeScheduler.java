@@ -1,43 +1,25 @@
 package com.smartentrance.backend.scheduler;
 
-import com.smartentrance.backend.model.Building;
 import com.smartentrance.backend.repository.BuildingRepository;
-import com.smartentrance.backend.service.FinanceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
-import java.util.stream.Stream;
+import java.time.YearMonth;
 
 @Component
 @RequiredArgsConstructor
 public class AutoFeeScheduler {
 
     private final BuildingRepository buildingRepository;
-    private final FinanceService financeService;
+    private final FeeRunExecutor feeRunExecutor;
 
     @Scheduled(cron = "0 0 2 1 * ?")
-    @Transactional(readOnly = true)
     public void runMonthlyFees() {
-        System.out.println("START: Monthly fee processing...");
-        String currentMonth = LocalDate.now().getMonth().toString();
+        YearMonth period = YearMonth.now();
 
-        try (Stream<Building> buildingStream = buildingRepository.streamAll()) {
+        Long runId = feeRunExecutor.submit(period, buildingRepository.findAllIds());
 
-            buildingStream.forEach(building -> {
-                try {
-                    financeService.processMonthlyFeesForBuilding(building, currentMonth);
-                } catch (Exception e) {
-                    System.err.println("FAILED to process building ID " + building.getId() + ": " + e.getMessage());
-                }
-            });
-
-        } catch (Exception e) {
-            System.err.println("CRITICAL DB ERROR: " + e.getMessage());
-        }
-
-        System.out.println("END: Monthly fee processing finished.");
+        System.out.println("Monthly fee run " + runId + " started for " + period);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package com.smartentrance.backend.scheduler;
+
+import com.smartentrance.backend.dto.feerun.FeeRunResponse;
+import com.smartentrance.backend.service.FeeRunService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Endpoint(id = "feeruns")
+@RequiredArgsConstructor
+public class FeeRunEndpoint {
+
+    private final FeeRunService feeRunService;
+    private final FeeRunExecutor feeRunExecutor;
+
+    @ReadOperation
+    public List<FeeRunResponse> runs() {
+        return feeRunService.getRecentRunIds().stream().map(this::run).toList();
+    }
+
+    @ReadOperation
+    public FeeRunResponse run(@Selector Long runId) {
+        return feeRunService.getRun(runId, feeRunExecutor.inProgress(runId));
+    }
+
+    @DeleteOperation
+    public FeeRunResponse cancel(@Selector Long runId) {
+        feeRunExecutor.cancel(runId);
+        return run(runId);
+    }
+}
@@ -0,0 +1,127 @@
+package com.smartentrance.backend.scheduler;
+
+import com.smartentrance.backend.config.FeeRunProperties;
+import com.smartentrance.backend.model.FeeRun;
+import com.smartentrance.backend.service.FeeRunService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class FeeRunExecutor implements DisposableBean {
+
+    private final FeeRunService feeRunService;
+    private final ExecutorService workers;
+    private final Semaphore permits;
+    private final Map<Long, RunHandle> activeRuns = new ConcurrentHashMap<>();
+
+    public FeeRunExecutor(FeeRunService feeRunService, FeeRunProperties properties) {
+        this.feeRunService = feeRunService;
+        this.permits = new Semaphore(properties.parallelism());
+        this.workers = properties.virtualThreads()
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fee-run-", 0).factory())
+                : Executors.newFixedThreadPool(properties.parallelism(), Thread.ofPlatform().name("fee-run-", 0).factory());
+    }
+
+    public Long submit(YearMonth period, List<Integer> buildingIds) {
+        FeeRun run = feeRunService.createRun(period, buildingIds);
+        start(run.getId());
+        return run.getId();
+    }
+
+    public void resume(Long runId) {
+        if (activeRuns.containsKey(runId)) return;
+        start(runId);
+    }
+
+    public boolean cancel(Long runId) {
+        RunHandle handle = activeRuns.get(runId);
+        if (handle == null) return false;
+        handle.cancelled = true;
+        return true;
+    }
+
+    public int inProgress(Long runId) {
+        RunHandle handle = activeRuns.get(runId);
+        return handle != null ? handle.inFlight.get() : 0;
+    }
+
+    private void start(Long runId) {
+        RunHandle handle = new RunHandle(runId);
+        if (activeRuns.putIfAbsent(runId, handle) != null) return;
+        Thread.ofPlatform().name("fee-run-dispatch-" + runId).start(() -> dispatch(handle));
+    }
+
+    private void dispatch(RunHandle handle) {
+        try {
+            for (Long itemId : feeRunService.findPendingItemIds(handle.runId)) {
+                permits.acquire();
+                if (handle.cancelled) {
+                    permits.release();
+                    break;
+                }
+                handle.inFlight.incrementAndGet();
+                workers.execute(() -> {
+                    try {
+                        processItem(itemId);
+                    } finally {
+                        handle.inFlight.decrementAndGet();
+                        permits.release();
+                        synchronized (handle) {
+                            handle.notifyAll();
+                        }
+                    }
+                });
+            }
+            synchronized (handle) {
+                while (handle.inFlight.get() > 0) {
+                    handle.wait();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            handle.cancelled = true;
+        } finally {
+            try {
+                feeRunService.finishRun(handle.runId, handle.cancelled);
+            } finally {
+                activeRuns.remove(handle.runId);
+            }
+        }
+    }
+
+    private void processItem(Long itemId) {
+        long start = System.nanoTime();
+        try {
+            feeRunService.processItem(itemId, start);
+        } catch (Exception e) {
+            if (!feeRunService.markItemFailed(itemId, start, e)) {
+                System.out.println("Fee run item " + itemId + " was already finished elsewhere, keeping its result");
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        activeRuns.values().forEach(handle -> handle.cancelled = true);
+        workers.shutdown();
+    }
+
+    private static final class RunHandle {
+        final Long runId;
+        final AtomicInteger inFlight = new AtomicInteger();
+        volatile boolean cancelled;
+
+        RunHandle(Long runId) {
+            this.runId = runId;
+        }
+    }
+}
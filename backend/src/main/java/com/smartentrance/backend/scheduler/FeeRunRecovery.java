@@ -0,0 +1,29 @@
+package com.smartentrance.backend.scheduler;
+
+import com.smartentrance.backend.service.FeeRunService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class FeeRunRecovery implements CommandLineRunner {
+
+    private final FeeRunService feeRunService;
+    private final FeeRunExecutor feeRunExecutor;
+
+    @Override
+    public void run(String... args) {
+        List<Long> interrupted = feeRunService.findInterruptedRunIds();
+
+        for (Long runId : interrupted) {
+            feeRunExecutor.resume(runId);
+        }
+
+        if (!interrupted.isEmpty()) {
+            System.out.println("Resumed " + interrupted.size() + " interrupted fee run(s)");
+        }
+    }
+}
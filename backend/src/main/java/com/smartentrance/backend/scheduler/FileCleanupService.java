@@ -4,6 +4,7 @@ import com.smartentrance.backend.config.FileStorageProperties;
 import com.smartentrance.backend.repository.BuildingExpenseRepository;
 import com.smartentrance.backend.repository.DocumentRepository;
 import com.smartentrance.backend.repository.TransactionRepository;
+import com.smartentrance.backend.service.MonthlyStatementService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -13,6 +14,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.stream.Stream;
@@ -26,6 +28,9 @@ public class FileCleanupService {
     private final BuildingExpenseRepository expenseRepository;
     private final DocumentRepository documentRepository;
 
+    // Generated statements are not referenced from the database; keep them long enough for residents to download.
+    private static final Duration STATEMENT_RETENTION = Duration.ofDays(90);
+
     @Scheduled(cron = "0 0 3 * * ?")
     public void cleanupOrphanedFiles() {
         System.out.println("Starting orphan file cleanup...");
@@ -50,6 +55,11 @@ public class FileCleanupService {
 
             String fileName = filePath.getFileName().toString();
 
+            if (fileName.startsWith(MonthlyStatementService.FILE_PREFIX)
+                    && fileTime.isAfter(Instant.now().minus(STATEMENT_RETENTION))) {
+                return;
+            }
+
             boolean isUsed = isFileUsedInDatabase(fileName);
 
             if (!isUsed) {
@@ -0,0 +1,34 @@
+package com.smartentrance.backend.scheduler;
+
+import com.smartentrance.backend.repository.BuildingRepository;
+import com.smartentrance.backend.service.PeriodCloseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+@Component
+@RequiredArgsConstructor
+public class PeriodCloseScheduler {
+
+    private final BuildingRepository buildingRepository;
+    private final PeriodCloseService periodCloseService;
+
+    @Scheduled(cron = "0 30 1 1 * ?")
+    public void closePreviousMonth() {
+        YearMonth period = YearMonth.now().minusMonths(1);
+        int closed = 0;
+
+        for (Integer buildingId : buildingRepository.findAllIds()) {
+            try {
+                periodCloseService.closePeriod(buildingId, period);
+                closed++;
+            } catch (Exception e) {
+                System.err.println("Period close " + period + " failed for building " + buildingId + ": " + e.getMessage());
+            }
+        }
+
+        System.out.println("Closed period " + period + " for " + closed + " buildings");
+    }
+}
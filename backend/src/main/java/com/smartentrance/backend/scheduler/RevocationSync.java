@@ -0,0 +1,75 @@
+package com.smartentrance.backend.scheduler;
+
+import com.smartentrance.backend.model.RevocationEntry;
+import com.smartentrance.backend.repository.RevocationRepository;
+import com.smartentrance.backend.security.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Keeps this node's revocations in step with token_revocations. Every poll re-reads the rows changed since the
+ * newest change already seen, minus a lookback that covers slow commits and clock drift between nodes;
+ * applying a row twice is harmless. Expired rows are deleted in batches once an hour.
+ */
+@Component
+@RequiredArgsConstructor
+public class RevocationSync {
+
+    static final Duration LOOKBACK = Duration.ofSeconds(30);
+    static final int CLEANUP_BATCH_SIZE = 500;
+
+    private final RevocationRepository revocationRepository;
+    private final TokenRevocationService revocationService;
+
+    @Value("${application.security.jwt.remember-me.expiration}")
+    private long rememberMeExpiration;
+
+    private volatile Instant watermark;
+
+    /** Loads the rows still inside the remember-me horizon; called once at startup. */
+    public int loadRecent() {
+        return apply(revocationRepository.findAllByChangedAtGreaterThanEqual(horizon()));
+    }
+
+    @Scheduled(fixedDelay = 2000, initialDelay = 2000)
+    public void poll() {
+        Instant since = watermark != null ? watermark.minus(LOOKBACK) : horizon();
+        apply(revocationRepository.findAllByChangedAtGreaterThanEqual(since));
+    }
+
+    @Scheduled(cron = "0 15 * * * ?")
+    public void cleanup() {
+        long threshold = System.currentTimeMillis() - rememberMeExpiration;
+
+        int total = 0;
+        int deleted;
+        do {
+            deleted = revocationRepository.deleteOlderThan(threshold, CLEANUP_BATCH_SIZE);
+            total += deleted;
+        } while (deleted == CLEANUP_BATCH_SIZE);
+
+        if (total > 0) System.out.println("Deleted " + total + " expired token revocations");
+    }
+
+    private int apply(List<RevocationEntry> entries) {
+        Instant newest = watermark;
+        for (RevocationEntry entry : entries) {
+            revocationService.apply(entry);
+            if (entry.getChangedAt() != null && (newest == null || entry.getChangedAt().isAfter(newest))) {
+                newest = entry.getChangedAt();
+            }
+        }
+        watermark = newest;
+        return entries.size();
+    }
+
+    private Instant horizon() {
+        return Instant.now().minusMillis(rememberMeExpiration);
+    }
+}
@@ -0,0 +1,97 @@
+package com.smartentrance.backend.security;
+
+import com.smartentrance.backend.config.LoginProtectionProperties;
+import com.smartentrance.backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs every hash and verification of the delegate on a small fixed pool with a bounded queue, so a login burst
+ * can use at most {@code hashingThreads} cores. When the queue is full, or a hash is not done within
+ * {@code hashingTimeout}, the caller gets a 429 right away instead of waiting behind the burst.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor pool;
+    private final long timeoutNanos;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, LoginProtectionProperties properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.pool = new ThreadPoolExecutor(properties.hashingThreads(), properties.hashingThreads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.hashingQueue()),
+                Thread.ofPlatform().name("password-hash-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutNanos = properties.hashingTimeout().toNanos();
+
+        Gauge.builder("auth.hashing.queued", pool, p -> p.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.login.throttled")
+                .description("Login and registration requests turned away with 429")
+                .tag("reason", "hashing")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = pool.submit(task);
+        } catch (RejectedExecutionException full) {
+            throw overloaded();
+        }
+
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException slow) {
+            future.cancel(true);
+            throw overloaded();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw overloaded();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private TooManyRequestsException overloaded() {
+        rejected.increment();
+        return new TooManyRequestsException("Too many sign-in attempts, please retry shortly", RETRY_AFTER);
+    }
+}
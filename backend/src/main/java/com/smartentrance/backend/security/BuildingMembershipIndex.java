@@ -0,0 +1,165 @@
+package com.smartentrance.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartentrance.backend.config.MembershipCacheProperties;
+import com.smartentrance.backend.repository.*;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * In-memory view of who manages or lives in which building, so {@link BuildingSecurity} checks are lookups instead
+ * of entity loads. Per-user memberships expire after {@code membership-cache.ttl} and are evicted explicitly when a
+ * manager, owner or verification flag changes. Unit, poll, notice, document and transaction to building mappings
+ * never change, so those caches are only bounded by size.
+ */
+@Component
+public class BuildingMembershipIndex {
+
+    public record OwnedUnit(Integer buildingId, boolean verified) {}
+
+    public record Membership(Set<Integer> managedBuildings, Map<Long, OwnedUnit> units) {
+
+        public boolean manages(Integer buildingId) {
+            return buildingId != null && managedBuildings.contains(buildingId);
+        }
+
+        public boolean owns(Long unitId) {
+            return unitId != null && units.containsKey(unitId);
+        }
+
+        public OwnedUnit unit(Long unitId) {
+            return unitId != null ? units.get(unitId) : null;
+        }
+
+        public boolean residesIn(Integer buildingId) {
+            return units.values().stream().anyMatch(unit -> unit.buildingId().equals(buildingId));
+        }
+    }
+
+    private static final Membership NONE = new Membership(Set.of(), Map.of());
+
+    private final BuildingRepository buildingRepository;
+    private final UnitRepository unitRepository;
+    private final VotesPollRepository pollRepository;
+    private final NoticeRepository noticeRepository;
+    private final DocumentRepository documentRepository;
+    private final TransactionRepository transactionRepository;
+    private final TokenRevocationService revocationService;
+
+    private final Cache<Long, Membership> memberships;
+    private final Cache<Long, Integer> unitBuildings;
+    private final Cache<Integer, Integer> pollBuildings;
+    private final Cache<Integer, Integer> noticeBuildings;
+    private final Cache<Long, Integer> documentBuildings;
+    private final Cache<Long, Long> transactionUnits;
+
+    public BuildingMembershipIndex(BuildingRepository buildingRepository,
+                                   UnitRepository unitRepository,
+                                   VotesPollRepository pollRepository,
+                                   NoticeRepository noticeRepository,
+                                   DocumentRepository documentRepository,
+                                   TransactionRepository transactionRepository,
+                                   TokenRevocationService revocationService,
+                                   MembershipCacheProperties properties) {
+        this.buildingRepository = buildingRepository;
+        this.unitRepository = unitRepository;
+        this.pollRepository = pollRepository;
+        this.noticeRepository = noticeRepository;
+        this.documentRepository = documentRepository;
+        this.transactionRepository = transactionRepository;
+        this.revocationService = revocationService;
+
+        this.memberships = Caffeine.newBuilder()
+                .maximumSize(properties.maxUsers())
+                .expireAfterWrite(properties.ttl())
+                .build();
+        this.unitBuildings = lookupCache(properties);
+        this.pollBuildings = lookupCache(properties);
+        this.noticeBuildings = lookupCache(properties);
+        this.documentBuildings = lookupCache(properties);
+        this.transactionUnits = lookupCache(properties);
+    }
+
+    public Membership membership(Long userId) {
+        if (userId == null) return NONE;
+        return memberships.get(userId, this::loadMembership);
+    }
+
+    public Integer buildingOfUnit(Long unitId) {
+        if (unitId == null) return null;
+        return unitBuildings.get(unitId, id -> unitRepository.findBuildingIdById(id).orElse(null));
+    }
+
+    public Integer buildingOfPoll(Integer pollId) {
+        if (pollId == null) return null;
+        return pollBuildings.get(pollId, id -> pollRepository.findBuildingIdById(id).orElse(null));
+    }
+
+    public Integer buildingOfNotice(Integer noticeId) {
+        if (noticeId == null) return null;
+        return noticeBuildings.get(noticeId, id -> noticeRepository.findBuildingIdById(id).orElse(null));
+    }
+
+    public Integer buildingOfDocument(Long documentId) {
+        if (documentId == null) return null;
+        return documentBuildings.get(documentId, id -> documentRepository.findBuildingIdById(id).orElse(null));
+    }
+
+    public Long unitOfTransaction(Long transactionId) {
+        if (transactionId == null) return null;
+        return transactionUnits.get(transactionId, id -> transactionRepository.findUnitIdById(id).orElse(null));
+    }
+
+    /**
+     * Called when the given users gained or lost a building or unit. Drops their cached memberships now and again
+     * once the surrounding transaction completes, so a concurrent request cannot re-cache the old state in between,
+     * and outdates the membership claims in their tokens. Null ids are ignored.
+     */
+    public void membershipChanged(Long... userIds) {
+        List<Long> ids = Arrays.stream(userIds).filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) return;
+
+        ids.forEach(revocationService::membershipChanged);
+        memberships.invalidateAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    memberships.invalidateAll(ids);
+                }
+            });
+        }
+    }
+
+    /** A membership change made on another node reached this one through {@link TokenRevocationService#apply}. */
+    @EventListener
+    public void onMembershipVersionAdvanced(MembershipVersionAdvanced event) {
+        memberships.invalidate(event.userId());
+    }
+
+    private Membership loadMembership(Long userId) {
+        Set<Integer> managed = Set.copyOf(buildingRepository.findIdsByManagerId(userId));
+
+        Map<Long, OwnedUnit> units = new HashMap<>();
+        for (Object[] row : unitRepository.findMembershipRows(userId)) {
+            units.put((Long) row[0], new OwnedUnit((Integer) row[1], (Boolean) row[2]));
+        }
+        return new Membership(managed, Map.copyOf(units));
+    }
+
+    private static <K, V> Cache<K, V> lookupCache(MembershipCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.maxLookups())
+                .build();
+    }
+}
@@ -1,90 +1,63 @@
 package com.smartentrance.backend.security;
 
-import com.smartentrance.backend.model.Building;
-import com.smartentrance.backend.model.BuildingDocument;
-import com.smartentrance.backend.model.Transaction;
 import com.smartentrance.backend.model.User;
-import com.smartentrance.backend.repository.*;
+import com.smartentrance.backend.security.BuildingMembershipIndex.Membership;
+import com.smartentrance.backend.security.BuildingMembershipIndex.OwnedUnit;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
-import java.util.Optional;
-
 @Component("buildingSecurity")
 @RequiredArgsConstructor
 public class BuildingSecurity {
 
-    private final BuildingRepository buildingRepository;
-    private final UnitRepository unitRepository;
-    private final NoticeRepository noticeRepository;
-    private final VotesPollRepository pollRepository;
-    private final TransactionRepository transactionRepository;
-    private final DocumentRepository documentRepository;
+    private final BuildingMembershipIndex membershipIndex;
 
     public boolean canManageUnit(Long unitId, User user) {
-        return unitRepository.findById(unitId)
-                .map(unit -> unit.getBuilding().getManager().getId().equals(user.getId()))
-                .orElse(false);
+        return manages(membershipIndex.buildingOfUnit(unitId), user);
     }
 
     public boolean hasAccess(Integer buildingId, User user) {
-        return buildingRepository.existsByIdAndManagerId(buildingId, user.getId())
-                || unitRepository.existsByBuildingIdAndResponsibleUserId(buildingId, user.getId());
+        Membership membership = membershipOf(user);
+        return membership.manages(buildingId) || membership.residesIn(buildingId);
     }
 
     public boolean isManager(Integer buildingId, User user) {
-        return buildingRepository.existsByIdAndManagerId(buildingId, user.getId());
+        return manages(buildingId, user);
     }
 
     public boolean canManageDocument(Long documentId, User user) {
-        return documentRepository.findById(documentId)
-                .map(doc -> isManager(doc.getBuilding().getId(), user))
-                .orElse(false);
+        return manages(membershipIndex.buildingOfDocument(documentId), user);
     }
 
     public boolean isUnitResponsible(Long unitId, User user) {
-        return unitRepository.findById(unitId)
-                .map(unit -> unit.getResponsibleUser() != null &&
-                        unit.getResponsibleUser().getId().equals(user.getId()))
-                .orElse(false);
+        return isUnitOwner(unitId, user);
     }
 
     public boolean canManageNotice(Integer noticeId, User user) {
-        return noticeRepository.findById(noticeId)
-                .map(notice -> {
-                    Building building = notice.getBuilding();
-
-                    return building.getManager().getId().equals(user.getId());
-                })
-                .orElse(false);
+        return manages(membershipIndex.buildingOfNotice(noticeId), user);
     }
 
     public boolean canVote(Integer pollId, Long unitId, User user) {
-        return pollRepository.findById(pollId)
-                .map(poll -> unitRepository.findById(unitId)
-                        .map(unit -> {
-                            boolean isResponsible = unit.getResponsibleUser() != null
-                                    && unit.getResponsibleUser().getId().equals(user.getId());
-
-                            boolean sameBuilding = unit.getBuilding().getId().equals(poll.getBuilding().getId());
+        OwnedUnit unit = membershipOf(user).unit(unitId);
+        if (unit == null || !unit.verified()) return false;
 
-                            return isResponsible && sameBuilding && unit.isVerified();
-                        })
-                        .orElse(false))
-                .orElse(false);
+        return unit.buildingId().equals(membershipIndex.buildingOfPoll(pollId));
     }
 
     public boolean canManageUnitByTransactionId(Long transactionId, User user) {
-        return transactionRepository.findById(transactionId)
-                .map(t -> canManageUnit(t.getUnit().getId(), user))
-                .orElse(false);
+        Long unitId = membershipIndex.unitOfTransaction(transactionId);
+        return unitId != null && canManageUnit(unitId, user);
+    }
+
+    public boolean canViewTransaction(Long transactionId, User user) {
+        Long unitId = membershipIndex.unitOfTransaction(transactionId);
+        return unitId != null && canAccessUnitFinance(unitId, user);
     }
 
     public boolean isUnitOwner(Long unitId, User user) {
-        return unitRepository.findById(unitId)
-                .map(unit -> unit.getResponsibleUser() != null &&
-                        unit.getResponsibleUser().getId().equals(user.getId()))
-                .orElse(false);
+        return membershipOf(user).owns(unitId);
     }
 
     public boolean canAccessUnitFinance(Long unitId, User user) {
@@ -92,19 +65,30 @@ public class BuildingSecurity {
     }
 
     public boolean canManagePoll(Integer pollId, User user) {
-        return pollRepository.findById(pollId)
-                .map(poll -> poll.getBuilding().getManager().getId().equals(user.getId()))
-                .orElse(false);
+        return manages(membershipIndex.buildingOfPoll(pollId), user);
     }
 
     public boolean hasAccessByPollId(Integer pollId, User user) {
-        return pollRepository.findById(pollId)
-                .map(poll -> hasAccess(poll.getBuilding().getId(), user))
-                .orElse(false);
+        Integer buildingId = membershipIndex.buildingOfPoll(pollId);
+        return buildingId != null && hasAccess(buildingId, user);
     }
 
     public boolean isManagerByBuildingId(Integer buildingId, User user) {
-        return buildingRepository.existsByIdAndManagerId(buildingId, user.getId());
+        return manages(buildingId, user);
+    }
+
+    private boolean manages(Integer buildingId, User user) {
+        return membershipOf(user).manages(buildingId);
+    }
+
+    // Prefers the claims of the current token, which need no lookup; only trusted for the user they were issued to.
+    private Membership membershipOf(User user) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof UserPrincipal principal
+                && principal.user() == user && principal.membership() != null) {
+            return principal.membership();
+        }
+        return membershipIndex.membership(user.getId());
     }
 
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.smartentrance.backend.security;
 
 import com.smartentrance.backend.model.User;
 import com.smartentrance.backend.model.enums.UserRole;
+import com.smartentrance.backend.security.BuildingMembershipIndex.Membership;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
@@ -67,7 +68,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     user.setEmail(userEmail);
                     user.setRole(UserRole.valueOf(roleString));
 
-                    UserPrincipal userPrincipal = new UserPrincipal(user);
+                    // Outdated membership claims are ignored for this request and replaced in the cookie.
+                    Membership membership = null;
+                    if (revocationService.isMembershipCurrent(userId, jwtService.getMembershipVersion(claims))) {
+                        membership = jwtService.getMembership(claims);
+                    } else {
+                        String refreshed = jwtService.refreshToken(claims);
+                        response.addHeader(HttpHeaders.SET_COOKIE,
+                                jwtService.generateCookie(refreshed, claims.getExpiration()).toString());
+                    }
+
+                    UserPrincipal userPrincipal = new UserPrincipal(user, membership);
 
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userPrincipal,
@@ -1,22 +1,42 @@
 package com.smartentrance.backend.security;
 
+import com.smartentrance.backend.security.BuildingMembershipIndex.Membership;
+import com.smartentrance.backend.security.BuildingMembershipIndex.OwnedUnit;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseCookie;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+    // Above this many buildings + units the claims are left out and checks fall back to the membership index.
+    static final int MAX_MEMBERSHIP_CLAIMS = 64;
+
+    private static final String MEMBERSHIP_VERSION = "mv";
+    private static final String MANAGED_BUILDINGS = "mb";
+    private static final String OWNED_UNITS = "mu";
+
+    private final BuildingMembershipIndex membershipIndex;
+    private final TokenRevocationService revocationService;
+    private final VerifiedTokenCache verifiedTokens;
+
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
 
@@ -33,22 +53,37 @@ public class JwtService {
     private boolean secureCookie;
 
     private SecretKey cachedKey;
+    private JwtParser parser;
 
     @PostConstruct
     public void init() {
         byte[] keyBytes = Decoders.BASE64.decode(secretKey);
         this.cachedKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parser()
+                .verifyWith(cachedKey)
+                .build();
     }
 
 
     public ResponseCookie generateCookie(String token, boolean rememberMe) {
         long maxAge = rememberMe ? rememberMeExpiration : shortExpiration;
 
+        return buildCookie(token, maxAge / 1000);
+    }
+
+    /** Cookie for a token re-issued by {@link #refreshToken}, expiring together with the token. */
+    public ResponseCookie generateCookie(String token, Date expiration) {
+        long maxAge = Math.max(0, (expiration.getTime() - System.currentTimeMillis()) / 1000);
+
+        return buildCookie(token, maxAge);
+    }
+
+    private ResponseCookie buildCookie(String token, long maxAgeSeconds) {
         return ResponseCookie.from(cookieName, token)
                 .httpOnly(true)
                 .secure(secureCookie)
                 .path("/")
-                .maxAge(maxAge / 1000)
+                .maxAge(maxAgeSeconds)
                 .sameSite("Lax")
                 .build();
     }
@@ -67,28 +102,59 @@ public class JwtService {
 
         claims.put("role", userPrincipal.user().getRole().name());
         claims.put("id", userPrincipal.user().getId());
+        putMembership(claims, userPrincipal.user().getId());
 
         long expirationTime = rememberMe ? rememberMeExpiration : shortExpiration;
 
-        return buildToken(claims, userPrincipal.getUsername(), expirationTime);
+        return buildToken(claims, userPrincipal.getUsername(), new Date(System.currentTimeMillis() + expirationTime));
+    }
+
+    /**
+     * Re-issues a token whose membership claims are outdated. Identity and expiry are kept, only the
+     * membership claims and their version are replaced.
+     */
+    public String refreshToken(Claims claims) {
+        Map<String, Object> refreshed = new HashMap<>();
+
+        refreshed.put("role", getRole(claims));
+        refreshed.put("id", getUserId(claims));
+        putMembership(refreshed, getUserId(claims));
+
+        return buildToken(refreshed, getUsername(claims), claims.getExpiration());
     }
 
-    private String buildToken(Map<String, Object> extraClaims, String subject, Long expiration) {
+    private String buildToken(Map<String, Object> extraClaims, String subject, Date expiration) {
         return Jwts.builder()
                 .claims(extraClaims)
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .expiration(expiration)
                 .signWith(getSignInKey(), Jwts.SIG.HS256)
                 .compact();
     }
 
+    // The version is read before the membership, so a change landing in between leaves the token outdated, not wrong.
+    private void putMembership(Map<String, Object> claims, Long userId) {
+        claims.put(MEMBERSHIP_VERSION, revocationService.membershipVersion(userId));
+
+        Membership membership = membershipIndex.membership(userId);
+        if (membership.managedBuildings().size() + membership.units().size() > MAX_MEMBERSHIP_CLAIMS) return;
+
+        claims.put(MANAGED_BUILDINGS, List.copyOf(membership.managedBuildings()));
+
+        List<List<Object>> units = new ArrayList<>(membership.units().size());
+        membership.units().forEach((unitId, unit) ->
+                units.add(List.of(unitId, unit.buildingId(), unit.verified() ? 1 : 0)));
+        claims.put(OWNED_UNITS, units);
+    }
+
     public Claims validateAndGetClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return verifiedTokens.get(token, this::parseClaims);
+    }
+
+    // Full signature check and parse; the parser is immutable and shared across threads.
+    Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public String getUsername(Claims claims) {
@@ -107,6 +173,30 @@ public class JwtService {
         return claims.getIssuedAt();
     }
 
+    public Long getMembershipVersion(Claims claims) {
+        Number version = claims.get(MEMBERSHIP_VERSION, Number.class);
+        return version != null ? version.longValue() : null;
+    }
+
+    /** Membership embedded in the token, or null if it was left out. Does not check whether it is current. */
+    public Membership getMembership(Claims claims) {
+        if (!(claims.get(MANAGED_BUILDINGS) instanceof List<?> managed)
+                || !(claims.get(OWNED_UNITS) instanceof List<?> owned)) {
+            return null;
+        }
+
+        Set<Integer> buildings = new HashSet<>();
+        for (Object id : managed) buildings.add(((Number) id).intValue());
+
+        Map<Long, OwnedUnit> units = new HashMap<>();
+        for (Object entry : owned) {
+            List<?> unit = (List<?>) entry;
+            units.put(((Number) unit.get(0)).longValue(),
+                    new OwnedUnit(((Number) unit.get(1)).intValue(), ((Number) unit.get(2)).intValue() == 1));
+        }
+        return new Membership(Set.copyOf(buildings), Map.copyOf(units));
+    }
+
     private SecretKey getSignInKey() {
         return cachedKey;
     }
@@ -0,0 +1,121 @@
+package com.smartentrance.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartentrance.backend.config.LoginProtectionProperties;
+import com.smartentrance.backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts failed logins per account and client IP pair, per client IP and per account. Once a key reaches its failure
+ * limit, every further failure doubles the lockout (starting at {@code initialLockout}, capped at {@code maxLockout});
+ * a locked key is rejected with 429 before any password hashing happens. The pair limit is low, so one client guessing
+ * stops quickly without locking the owner out elsewhere; the per-account limit is higher and catches guesses spread
+ * over many addresses. Counters are forgotten {@code failureWindow} (or {@code maxLockout}, if longer) after the last
+ * failure.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final long MAX_TRACKED_KEYS = 100_000;
+
+    record Failures(int count, long lastFailureAt) {}
+
+    private final LoginProtectionProperties properties;
+    private final LongSupplier clock;
+    private final Cache<String, Failures> accountAddresses;
+    private final Cache<String, Failures> addresses;
+    private final Cache<String, Failures> accounts;
+    private final Counter accountRejections;
+    private final Counter ipRejections;
+    private final Counter accountTotalRejections;
+
+    @Autowired
+    public LoginThrottle(LoginProtectionProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::currentTimeMillis);
+    }
+
+    LoginThrottle(LoginProtectionProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.accountAddresses = newCache(properties);
+        this.addresses = newCache(properties);
+        this.accounts = newCache(properties);
+        this.accountRejections = rejections(meterRegistry, "account");
+        this.ipRejections = rejections(meterRegistry, "ip");
+        this.accountTotalRejections = rejections(meterRegistry, "account_total");
+    }
+
+    public void check(String email, String clientIp) {
+        long now = clock.getAsLong();
+
+        long accountWait = remainingLockout(accountAddresses.getIfPresent(accountKey(email, clientIp)), properties.accountFailures(), now);
+        if (accountWait > 0) {
+            accountRejections.increment();
+            throw new TooManyRequestsException("Too many failed logins for this account", Duration.ofMillis(accountWait));
+        }
+
+        long ipWait = clientIp == null ? 0 : remainingLockout(addresses.getIfPresent(clientIp), properties.ipFailures(), now);
+        if (ipWait > 0) {
+            ipRejections.increment();
+            throw new TooManyRequestsException("Too many failed logins from this address", Duration.ofMillis(ipWait));
+        }
+
+        long totalWait = remainingLockout(accounts.getIfPresent(accountKey(email, null)), properties.accountTotalFailures(), now);
+        if (totalWait > 0) {
+            accountTotalRejections.increment();
+            throw new TooManyRequestsException("Too many failed logins for this account", Duration.ofMillis(totalWait));
+        }
+    }
+
+    public void recordFailure(String email, String clientIp) {
+        long now = clock.getAsLong();
+        increment(accountAddresses, accountKey(email, clientIp), now);
+        if (clientIp != null) increment(addresses, clientIp, now);
+        increment(accounts, accountKey(email, null), now);
+    }
+
+    /** Clears the pair only; the per-account count keeps running, so a login by the owner gives no fresh budget. */
+    public void recordSuccess(String email, String clientIp) {
+        accountAddresses.invalidate(accountKey(email, clientIp));
+    }
+
+    private long remainingLockout(Failures failures, int limit, long now) {
+        if (failures == null || failures.count() < limit) return 0;
+
+        int doublings = Math.min(failures.count() - limit, 20);
+        long lockout = Math.min(properties.initialLockout().toMillis() << doublings, properties.maxLockout().toMillis());
+        return Math.max(0, failures.lastFailureAt() + lockout - now);
+    }
+
+    private static void increment(Cache<String, Failures> cache, String key, long now) {
+        cache.asMap().merge(key, new Failures(1, now), (old, first) -> new Failures(old.count() + 1, now));
+    }
+
+    private static String accountKey(String email, String clientIp) {
+        String account = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+        return clientIp == null ? account : account + "|" + clientIp;
+    }
+
+    private static Cache<String, Failures> newCache(LoginProtectionProperties properties) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(properties.failureWindow().compareTo(properties.maxLockout()) >= 0
+                        ? properties.failureWindow() : properties.maxLockout())
+                .maximumSize(MAX_TRACKED_KEYS)
+                .build();
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("auth.login.throttled")
+                .description("Login and registration requests turned away with 429")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
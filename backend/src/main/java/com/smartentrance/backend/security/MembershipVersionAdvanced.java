@@ -0,0 +1,3 @@
+package com.smartentrance.backend.security;
+
+public record MembershipVersionAdvanced(Long userId) {}
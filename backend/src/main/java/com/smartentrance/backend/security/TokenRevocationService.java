@@ -1,43 +1,155 @@
 package com.smartentrance.backend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.smartentrance.backend.model.RevocationEntry;
 import com.smartentrance.backend.repository.RevocationRepository;
-import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Per-user revocation timestamps and membership versions. Both are millisecond timestamps and only matter for
+ * tokens issued within the remember-me lifetime, so every entry expires that long after its own value; nothing
+ * is size-evicted, which would silently un-revoke a user. Changes are written to token_revocations and picked
+ * up by the other nodes through {@link com.smartentrance.backend.scheduler.RevocationSync}.
+ */
 @Service
-@RequiredArgsConstructor
 public class TokenRevocationService {
 
-    private final Map<Long, Long> revocationMap = new ConcurrentHashMap<>();
     private final RevocationRepository revocationRepository;
+    private final VerifiedTokenCache verifiedTokens;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long rememberMeExpiration;
 
-    @Value("${application.security.jwt.remember-me.expiration}")
-    private long rememberMeExpiration;
+    private final Cache<Long, Long> revocations;
+    private final Cache<Long, Long> membershipVersions;
+
+    public TokenRevocationService(RevocationRepository revocationRepository,
+                                  VerifiedTokenCache verifiedTokens,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${application.security.jwt.remember-me.expiration}") long rememberMeExpiration) {
+        this.revocationRepository = revocationRepository;
+        this.verifiedTokens = verifiedTokens;
+        this.eventPublisher = eventPublisher;
+        this.rememberMeExpiration = rememberMeExpiration;
+        this.revocations = untilHorizon();
+        this.membershipVersions = untilHorizon();
+    }
 
     public void revokeUser(Long userId) {
         long now = System.currentTimeMillis();
 
-        revocationMap.put(userId, now);
-
-        RevocationEntry entry = new RevocationEntry(userId, now);
-        revocationRepository.save(entry);
+        revocations.asMap().merge(userId, now, Math::max);
+        verifiedTokens.invalidateUser(userId);
 
-        long threshold = now - rememberMeExpiration;
-        revocationRepository.deleteOlderThan(threshold);
+        store(userId, now, null);
     }
 
     public boolean isTokenRevoked(Long userId, long tokenIssuedAt) {
-        Long lastRevocation = revocationMap.get(userId);
+        Long lastRevocation = revocations.getIfPresent(userId);
         if (lastRevocation == null) return false;
         return (tokenIssuedAt * 1000) < lastRevocation;
     }
 
-    public void loadRevocations(Map<Long, Long> data) {
-        revocationMap.putAll(data);
+    /**
+     * Merges a stored row, written by this or another node. Values only move forward, so rows can be applied
+     * repeatedly and in any order. A newer membership version is announced with {@link MembershipVersionAdvanced},
+     * so this node drops its cached membership for the user as well.
+     */
+    public void apply(RevocationEntry entry) {
+        Long userId = entry.getUserId();
+
+        if (entry.getRevokedAt() != null) {
+            Long previous = revocations.getIfPresent(userId);
+            if (previous == null || previous < entry.getRevokedAt()) {
+                revocations.asMap().merge(userId, entry.getRevokedAt(), Math::max);
+                verifiedTokens.invalidateUser(userId);
+            }
+        }
+        if (entry.getMembershipVersion() != null) {
+            Long previous = membershipVersions.getIfPresent(userId);
+            if (previous == null || previous < entry.getMembershipVersion()) {
+                membershipVersions.asMap().merge(userId, entry.getMembershipVersion(), Math::max);
+                eventPublisher.publishEvent(new MembershipVersionAdvanced(userId));
+            }
+        }
+    }
+
+    /**
+     * Marks the membership claims in the user's existing tokens as outdated. The version moves again, and is stored
+     * again, once the surrounding transaction completes, so a token issued while the change was still uncommitted is
+     * outdated too, on every node.
+     */
+    public void membershipChanged(Long userId) {
+        long version = bumpMembershipVersion(userId);
+
+        store(userId, null, version);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    store(userId, null, bumpMembershipVersion(userId));
+                }
+            });
+        }
+    }
+
+    public long membershipVersion(Long userId) {
+        Long version = membershipVersions.getIfPresent(userId);
+        return version != null ? version : 0L;
+    }
+
+    public boolean isMembershipCurrent(Long userId, Long tokenVersion) {
+        return tokenVersion != null && tokenVersion >= membershipVersion(userId);
+    }
+
+    long trackedUsers() {
+        revocations.cleanUp();
+        membershipVersions.cleanUp();
+        return revocations.estimatedSize() + membershipVersions.estimatedSize();
+    }
+
+    private void store(Long userId, Long revokedAt, Long membershipVersion) {
+        Instant now = Instant.now();
+        if (revocationRepository.insertIfAbsent(userId, revokedAt, membershipVersion, now) == 0
+                && revocationRepository.advance(userId, revokedAt, membershipVersion, now) == 0) {
+            // Deleted by the expiry cleanup in between.
+            revocationRepository.insertIfAbsent(userId, revokedAt, membershipVersion, now);
+        }
+    }
+
+    // Millisecond timestamps, strictly increasing per user.
+    private long bumpMembershipVersion(Long userId) {
+        return membershipVersions.asMap().merge(userId, System.currentTimeMillis(), (old, now) -> Math.max(old + 1, now));
+    }
+
+    private Cache<Long, Long> untilHorizon() {
+        return Caffeine.newBuilder()
+                .expireAfter(new Expiry<Long, Long>() {
+                    @Override
+                    public long expireAfterCreate(Long userId, Long timestamp, long currentTime) {
+                        long remaining = timestamp + rememberMeExpiration - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long userId, Long timestamp, long currentTime, long currentDuration) {
+                        return expireAfterCreate(userId, timestamp, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long userId, Long timestamp, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.smartentrance.backend.security;
 
 import com.smartentrance.backend.model.User;
+import com.smartentrance.backend.security.BuildingMembershipIndex.Membership;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -8,7 +9,14 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
 import java.util.Collections;
 
-public record UserPrincipal(User user) implements UserDetails {
+/**
+ * @param membership buildings and units taken from current token claims, or null when they have to be looked up
+ */
+public record UserPrincipal(User user, Membership membership) implements UserDetails {
+
+    public UserPrincipal(User user) {
+        this(user, null);
+    }
 
     @Override
     public String getUsername() {
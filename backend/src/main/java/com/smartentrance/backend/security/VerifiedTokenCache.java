@@ -0,0 +1,87 @@
+package com.smartentrance.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Claims of tokens whose signature has already been verified, keyed by a SHA-256 of the compact token so raw tokens
+ * are not kept in memory. A browser sends the same cookie on every request, so most requests skip the HMAC check
+ * and JSON parse. Entries expire together with the token and are dropped when the user is revoked.
+ * A size of 0 disables the cache.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, Claims> cache;
+
+    public VerifiedTokenCache(@Value("${application.security.jwt.verified-cache-size:10000}") long maximumSize) {
+        this.cache = maximumSize > 0
+                ? Caffeine.newBuilder().maximumSize(maximumSize).expireAfter(new UntilTokenExpiry()).build()
+                : null;
+    }
+
+    /**
+     * Returns the cached claims, or runs {@code verifier} and caches its result. Verification failures propagate
+     * and are never cached.
+     */
+    public Claims get(String token, Function<String, Claims> verifier) {
+        if (cache == null) return verifier.apply(token);
+
+        String key = hash(token);
+        Claims cached = cache.getIfPresent(key);
+        if (cached != null) return cached;
+
+        Claims claims = verifier.apply(token);
+        if (claims.getExpiration() != null) cache.put(key, claims);
+        return claims;
+    }
+
+    public void invalidateUser(Long userId) {
+        if (cache == null) return;
+        cache.asMap().values().removeIf(claims -> userId.equals(claims.get("id", Long.class)));
+    }
+
+    long size() {
+        return cache != null ? cache.estimatedSize() : 0;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
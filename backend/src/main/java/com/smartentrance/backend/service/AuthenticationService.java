@@ -7,6 +7,7 @@ import com.smartentrance.backend.dto.user.UserResponse;
 import com.smartentrance.backend.mapper.UserMapper;
 import com.smartentrance.backend.model.User;
 import com.smartentrance.backend.security.JwtService;
+import com.smartentrance.backend.security.LoginThrottle;
 import com.smartentrance.backend.security.UserPrincipal;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +28,7 @@ public class AuthenticationService {
     private final AuthenticationManager authenticationManager;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
+    private final LoginThrottle loginThrottle;
 
     public LoginResponse register(UserRegisterRequest request) {
         User user = userMapper.toEntity(request);
@@ -40,10 +42,19 @@ public class AuthenticationService {
         return new LoginResponse(token, userMapper.toResponse(savedUser));
     }
 
-    public LoginResponse login(LoginRequest request) {
-        Authentication auth = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
+    public LoginResponse login(LoginRequest request, String clientIp) {
+        loginThrottle.check(request.getEmail(), clientIp);
+
+        Authentication auth;
+        try {
+            auth = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
+            );
+        } catch (BadCredentialsException e) {
+            loginThrottle.recordFailure(request.getEmail(), clientIp);
+            throw e;
+        }
+        loginThrottle.recordSuccess(request.getEmail(), clientIp);
 
         if (auth.getPrincipal() instanceof UserPrincipal userPrincipal) {
             String token = jwtService.generateToken(userPrincipal, request.isRememberMe());
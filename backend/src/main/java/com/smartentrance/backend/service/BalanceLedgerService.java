@@ -0,0 +1,206 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.model.Transaction;
+import com.smartentrance.backend.model.TransactionSplit;
+import com.smartentrance.backend.model.UnitBalance;
+import com.smartentrance.backend.model.enums.FundType;
+import com.smartentrance.backend.model.enums.TransactionStatus;
+import com.smartentrance.backend.model.enums.TransactionType;
+import com.smartentrance.backend.repository.TransactionRepository;
+import com.smartentrance.backend.repository.UnitBalanceRepository;
+import com.smartentrance.backend.repository.UnitRepository;
+import com.smartentrance.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class BalanceLedgerService {
+
+    private final UnitBalanceRepository balanceRepository;
+    private final TransactionRepository transactionRepository;
+    private final UnitRepository unitRepository;
+    private final UserRepository userRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Transaction t) {
+        recordAll(List.of(t));
+    }
+
+    /**
+     * Adds the confirmed transactions to their ledger rows. The units are share-locked first (see {@link #rebuild()}),
+     * missing rows are created with an insert that tolerates a concurrent first write, and the rows are then updated
+     * under a row lock, so concurrent writers of the same key never lose an increment.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Collection<Transaction> transactions) {
+        Map<LedgerKey, Delta> deltas = new HashMap<>();
+        transactions.forEach(t -> accumulate(deltas, t));
+        deltas.values().removeIf(Delta::isZero);
+        if (deltas.isEmpty()) return;
+
+        Set<Long> unitIds = deltas.keySet().stream().map(LedgerKey::unitId).collect(Collectors.toSet());
+        unitRepository.lockSharedByIdIn(unitIds);
+
+        Map<LedgerKey, UnitBalance> rows = lockRows(unitIds);
+        Instant now = Instant.now();
+
+        List<LedgerKey> missing = deltas.keySet().stream().filter(key -> !rows.containsKey(key)).toList();
+        if (!missing.isEmpty()) {
+            missing.forEach(key -> balanceRepository.insertIfAbsent(key.unitId(), key.userId(), key.fundType().name(), now));
+            rows.putAll(lockRows(unitIds));
+        }
+
+        deltas.forEach((key, d) -> {
+            UnitBalance b = rows.get(key);
+            b.setBalance(b.getBalance().add(d.balance));
+            b.setCharged(b.getCharged().add(d.charged));
+            b.setPaid(b.getPaid().add(d.paid));
+            b.setUpdatedAt(now);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getBalance(Long unitId, Long userId) {
+        return balanceRepository.sumBalance(unitId, userId);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getFundDebt(Long unitId, Long userId, FundType fundType) {
+        BigDecimal net = balanceRepository.findNetFundPosition(unitId, userId, fundType).orElse(BigDecimal.ZERO);
+        return net.compareTo(BigDecimal.ZERO) < 0 ? net.abs() : BigDecimal.ZERO;
+    }
+
+    @Transactional(readOnly = true)
+    public DebtSnapshot snapshotDebts(Long unitId, Long userId) {
+        Map<FundType, BigDecimal> positions = new EnumMap<>(FundType.class);
+        for (Object[] row : balanceRepository.findNetFundPositions(unitId, userId)) {
+            positions.put((FundType) row[0], (BigDecimal) row[1]);
+        }
+        return new DebtSnapshot(positions);
+    }
+
+    /**
+     * Recomputes every ledger row from the confirmed transactions. All units are locked first, which waits for
+     * in-flight ledger writers and keeps new ones out until the rebuilt rows are committed.
+     */
+    @Transactional
+    public int rebuild() {
+        unitRepository.lockAll();
+        balanceRepository.deleteAllInBatch();
+
+        Map<LedgerKey, Delta> totals = new HashMap<>();
+        fold(totals, transactionRepository.sumConfirmedAmountsByLedgerKey(),
+                transactionRepository.sumConfirmedSplitsByLedgerKey());
+
+        List<UnitBalance> rows = totals.entrySet().stream().map(e -> {
+            UnitBalance b = newBalance(e.getKey());
+            b.setBalance(e.getValue().balance);
+            b.setCharged(e.getValue().charged);
+            b.setPaid(e.getValue().paid);
+            return b;
+        }).toList();
+
+        balanceRepository.saveAll(rows);
+        return rows.size();
+    }
+
+    /**
+     * Positions of a building's ledger rows as they were at {@code at}: the current totals minus
+     * everything confirmed since. The returned rows are transient copies.
+     */
+    @Transactional(readOnly = true)
+    public List<UnitBalance> balancesAsOf(Integer buildingId, Instant at) {
+        Map<LedgerKey, Delta> since = new HashMap<>();
+        fold(since, transactionRepository.sumConfirmedAmountsByLedgerKeySince(buildingId, at),
+                transactionRepository.sumConfirmedSplitsByLedgerKeySince(buildingId, at));
+
+        List<UnitBalance> result = new ArrayList<>();
+        for (UnitBalance current : balanceRepository.findAllByBuildingId(buildingId)) {
+            LedgerKey key = new LedgerKey(current.getUnit().getId(), current.getResponsibleUser().getId(), current.getFundType());
+            Delta d = since.getOrDefault(key, new Delta());
+
+            UnitBalance b = new UnitBalance(current.getUnit(), current.getResponsibleUser(), current.getFundType());
+            b.setBalance(current.getBalance().subtract(d.balance));
+            b.setCharged(current.getCharged().subtract(d.charged));
+            b.setPaid(current.getPaid().subtract(d.paid));
+            b.setUpdatedAt(at);
+            result.add(b);
+        }
+        return result;
+    }
+
+    private void fold(Map<LedgerKey, Delta> totals, List<Object[]> amounts, List<Object[]> splits) {
+        for (Object[] row : amounts) {
+            LedgerKey key = new LedgerKey((Long) row[0], (Long) row[1], fundOf((FundType) row[2]));
+            BigDecimal sum = (BigDecimal) row[4];
+            Delta d = totals.computeIfAbsent(key, k -> new Delta());
+            d.balance = d.balance.add(sum);
+            if (row[3] == TransactionType.FEE) {
+                d.charged = d.charged.add(sum);
+            }
+        }
+
+        for (Object[] row : splits) {
+            LedgerKey key = new LedgerKey((Long) row[0], (Long) row[1], (FundType) row[2]);
+            Delta d = totals.computeIfAbsent(key, k -> new Delta());
+            d.paid = d.paid.add((BigDecimal) row[3]);
+        }
+    }
+
+    private void accumulate(Map<LedgerKey, Delta> deltas, Transaction t) {
+        if (t.getStatus() != TransactionStatus.CONFIRMED || t.getResponsibleUser() == null) return;
+
+        Long unitId = t.getUnit().getId();
+        Long userId = t.getResponsibleUser().getId();
+
+        Delta own = deltas.computeIfAbsent(new LedgerKey(unitId, userId, fundOf(t.getFundType())), k -> new Delta());
+        own.balance = own.balance.add(t.getAmount());
+        if (t.getType() == TransactionType.FEE) {
+            own.charged = own.charged.add(t.getAmount());
+        }
+
+        for (TransactionSplit split : t.getSplit()) {
+            Delta d = deltas.computeIfAbsent(new LedgerKey(unitId, userId, split.getFundType()), k -> new Delta());
+            d.paid = d.paid.add(split.getAmount());
+        }
+    }
+
+    private Map<LedgerKey, UnitBalance> lockRows(Set<Long> unitIds) {
+        Map<LedgerKey, UnitBalance> rows = new HashMap<>();
+        for (UnitBalance b : balanceRepository.findAllForUpdateByUnitIdIn(unitIds)) {
+            rows.put(new LedgerKey(b.getUnit().getId(), b.getResponsibleUser().getId(), b.getFundType()), b);
+        }
+        return rows;
+    }
+
+    private UnitBalance newBalance(LedgerKey key) {
+        return new UnitBalance(
+                unitRepository.getReferenceById(key.unitId()),
+                userRepository.getReferenceById(key.userId()),
+                key.fundType());
+    }
+
+    private static FundType fundOf(FundType fundType) {
+        return fundType != null ? fundType : FundType.GENERAL;
+    }
+
+    private record LedgerKey(Long unitId, Long userId, FundType fundType) {}
+
+    private static final class Delta {
+        BigDecimal balance = BigDecimal.ZERO;
+        BigDecimal charged = BigDecimal.ZERO;
+        BigDecimal paid = BigDecimal.ZERO;
+
+        boolean isZero() {
+            return balance.signum() == 0 && charged.signum() == 0 && paid.signum() == 0;
+        }
+    }
+}
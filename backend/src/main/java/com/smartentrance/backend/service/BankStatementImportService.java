@@ -0,0 +1,116 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.dto.enums.StatementFormat;
+import com.smartentrance.backend.dto.finance.StatementImportReport;
+import com.smartentrance.backend.dto.finance.StatementLine;
+import com.smartentrance.backend.model.Transaction;
+import com.smartentrance.backend.model.User;
+import com.smartentrance.backend.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+public class BankStatementImportService {
+
+    private static final int MAX_REPORTED_UNMATCHED = 500;
+
+    private final TransactionRepository transactionRepository;
+    private final FinanceService financeService;
+    private final BankStatementParser parser;
+
+    @Transactional
+    @PreAuthorize("@buildingSecurity.isManager(#buildingId, principal.user)")
+    public StatementImportReport importStatement(Integer buildingId, InputStream in, StatementFormat format, User manager) throws IOException {
+        Map<String, List<Transaction>> pendingByReference = new HashMap<>();
+        for (Transaction t : transactionRepository.findPendingBankTransfers(buildingId)) {
+            String key = normalize(t.getReferenceId());
+            if (!key.isEmpty()) pendingByReference.computeIfAbsent(key, k -> new ArrayList<>()).add(t);
+        }
+
+        List<Transaction> matched = new ArrayList<>();
+        List<StatementImportReport.UnmatchedLine> unmatched = new ArrayList<>();
+        int[] counts = new int[3];
+
+        parser.parse(in, format, line -> {
+            counts[0]++;
+            if (line.amount() == null) {
+                counts[2]++;
+                report(unmatched, line, "Unreadable amount");
+                return;
+            }
+            if (!line.credit()) {
+                counts[1]++;
+                return;
+            }
+
+            Set<String> keys = matchingKeys(pendingByReference, line);
+            Transaction match = keys.size() == 1 ? takeMatch(pendingByReference.get(keys.iterator().next()), line) : null;
+            if (match != null) {
+                matched.add(match);
+            } else {
+                counts[2]++;
+                report(unmatched, line, keys.size() > 1
+                        ? "Reference matches more than one pending transfer"
+                        : "No pending transfer with this reference and amount");
+            }
+        });
+
+        financeService.confirmPendingBatch(matched, manager);
+
+        return new StatementImportReport(
+                counts[0],
+                matched.size(),
+                counts[1],
+                counts[2],
+                matched.stream().map(Transaction::getId).toList(),
+                unmatched);
+    }
+
+    /**
+     * The pending references the line refers to: its whole reference if that is one, otherwise every word of it
+     * that is one. Lines naming several pending references are left for the manager rather than guessed.
+     */
+    private Set<String> matchingKeys(Map<String, List<Transaction>> index, StatementLine line) {
+        if (line.reference() == null) return Set.of();
+
+        String whole = normalize(line.reference());
+        if (index.containsKey(whole)) return Set.of(whole);
+
+        Set<String> keys = new HashSet<>();
+        for (String token : line.reference().split("[\\s,;/]+")) {
+            String key = normalize(token);
+            if (index.containsKey(key)) keys.add(key);
+        }
+        return keys;
+    }
+
+    private Transaction takeMatch(List<Transaction> candidates, StatementLine line) {
+        Iterator<Transaction> it = candidates.iterator();
+        while (it.hasNext()) {
+            Transaction t = it.next();
+            if (t.getAmount().compareTo(line.amount()) == 0) {
+                it.remove();
+                return t;
+            }
+        }
+        return null;
+    }
+
+    private void report(List<StatementImportReport.UnmatchedLine> unmatched, StatementLine line, String reason) {
+        if (unmatched.size() < MAX_REPORTED_UNMATCHED) {
+            unmatched.add(new StatementImportReport.UnmatchedLine(line.lineNumber(), line.amount(), line.reference(), reason));
+        }
+    }
+
+    private static String normalize(String reference) {
+        if (reference == null) return "";
+        return reference.replaceAll("[^A-Za-z0-9]", "").toUpperCase(Locale.ROOT);
+    }
+}
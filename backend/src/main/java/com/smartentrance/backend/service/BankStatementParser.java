@@ -0,0 +1,209 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.dto.enums.StatementFormat;
+import com.smartentrance.backend.dto.finance.StatementLine;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Reads bank statements line by line and hands each booking to the consumer, so a file is never held in memory.
+ */
+@Component
+public class BankStatementParser {
+
+    private static final Set<String> AMOUNT_COLUMNS = Set.of("amount", "credit", "credit amount");
+    private static final Set<String> REFERENCE_COLUMNS = Set.of("reference", "remittance", "remittance information", "details", "description");
+    private static final Set<String> DATE_COLUMNS = Set.of("date", "booking date", "value date");
+    // "1,234" and "-12,345,678": every comma is followed by exactly three digits, so the commas group thousands
+    private static final Pattern COMMA_THOUSANDS = Pattern.compile("[+-]?\\d{1,3}(,\\d{3})+");
+
+    private final XMLInputFactory xmlInputFactory;
+
+    public BankStatementParser() {
+        this.xmlInputFactory = XMLInputFactory.newFactory();
+        this.xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    public void parse(InputStream in, StatementFormat format, Consumer<StatementLine> consumer) throws IOException {
+        if (format == StatementFormat.CAMT053) {
+            parseCamt(in, consumer);
+        } else {
+            parseCsv(in, consumer);
+        }
+    }
+
+    private void parseCsv(InputStream in, Consumer<StatementLine> consumer) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        String header = reader.readLine();
+        int lineNumber = 1;
+        while (header != null && header.isBlank()) {
+            header = reader.readLine();
+            lineNumber++;
+        }
+        if (header == null) return;
+
+        char separator = header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+        List<String> columns = splitCsv(header.replace("\uFEFF", ""), separator).stream()
+                .map(c -> c.trim().toLowerCase())
+                .toList();
+
+        int amountIdx = indexOf(columns, AMOUNT_COLUMNS);
+        int referenceIdx = indexOf(columns, REFERENCE_COLUMNS);
+        int dateIdx = indexOf(columns, DATE_COLUMNS);
+        if (amountIdx < 0 || referenceIdx < 0) {
+            throw new IllegalArgumentException("Statement CSV needs 'amount' and 'reference' columns");
+        }
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+
+            List<String> cells = splitCsv(line, separator);
+            BigDecimal amount = parseAmount(cell(cells, amountIdx));
+            consumer.accept(new StatementLine(
+                    lineNumber,
+                    amount,
+                    amount != null && amount.signum() > 0,
+                    dateIdx >= 0 ? cell(cells, dateIdx) : null,
+                    cell(cells, referenceIdx)));
+        }
+    }
+
+    private void parseCamt(InputStream in, Consumer<StatementLine> consumer) {
+        try {
+            XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(in);
+            try {
+                Deque<String> path = new ArrayDeque<>();
+                CamtEntry entry = null;
+                int entryNumber = 0;
+
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        String name = reader.getLocalName();
+                        String parent = path.peek();
+
+                        if ("Ntry".equals(name)) {
+                            entry = new CamtEntry(++entryNumber);
+                        } else if (entry != null && "Amt".equals(name) && "Ntry".equals(parent)) {
+                            entry.amount = reader.getElementText();
+                            continue;
+                        } else if (entry != null && "CdtDbtInd".equals(name) && "Ntry".equals(parent)) {
+                            entry.indicator = reader.getElementText();
+                            continue;
+                        } else if (entry != null && ("Dt".equals(name) || "DtTm".equals(name)) && "BookgDt".equals(parent)) {
+                            entry.bookingDate = reader.getElementText();
+                            continue;
+                        } else if (entry != null && ("Ustrd".equals(name)
+                                || ("Ref".equals(name) && "CdtrRefInf".equals(parent))
+                                || ("EndToEndId".equals(name) && "Refs".equals(parent)))) {
+                            String text = reader.getElementText().trim();
+                            if (!text.isEmpty() && !"NOTPROVIDED".equals(text)) entry.references.add(text);
+                            continue;
+                        }
+                        path.push(name);
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        String name = path.pop();
+                        if ("Ntry".equals(name) && entry != null) {
+                            consumer.accept(entry.toLine());
+                            entry = null;
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Invalid CAMT.053 statement: " + e.getMessage());
+        }
+    }
+
+    private static int indexOf(List<String> columns, Set<String> candidates) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (candidates.contains(columns.get(i))) return i;
+        }
+        return -1;
+    }
+
+    private static String cell(List<String> cells, int idx) {
+        return idx < cells.size() ? cells.get(idx).trim() : null;
+    }
+
+    static BigDecimal parseAmount(String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        String value = raw.replace(" ", "").replace("\u00A0", "");
+        if (value.contains(",") && value.contains(".")) {
+            value = value.lastIndexOf(',') > value.lastIndexOf('.')
+                    ? value.replace(".", "").replace(',', '.')
+                    : value.replace(",", "");
+        } else if (COMMA_THOUSANDS.matcher(value).matches()) {
+            value = value.replace(",", "");
+        } else if (value.contains(",")) {
+            value = value.replace(',', '.');
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static List<String> splitCsv(String line, char separator) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                cells.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        cells.add(current.toString());
+        return cells;
+    }
+
+    private static final class CamtEntry {
+        final int number;
+        String amount;
+        String indicator;
+        String bookingDate;
+        final List<String> references = new ArrayList<>();
+
+        CamtEntry(int number) {
+            this.number = number;
+        }
+
+        StatementLine toLine() {
+            BigDecimal value = parseAmount(amount);
+            return new StatementLine(number, value, "CRDT".equals(indicator), bookingDate, String.join(" ", references));
+        }
+    }
+}
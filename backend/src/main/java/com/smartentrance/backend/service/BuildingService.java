@@ -9,8 +9,10 @@ import com.smartentrance.backend.model.BuildingDocument;
 import com.smartentrance.backend.model.Unit;
 import com.smartentrance.backend.model.User;
 import com.smartentrance.backend.model.enums.DocumentType;
+import com.smartentrance.backend.model.enums.FundType;
 import com.smartentrance.backend.repository.BuildingRepository;
 import com.smartentrance.backend.repository.DocumentRepository;
+import com.smartentrance.backend.security.BuildingMembershipIndex;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -32,6 +34,7 @@ public class BuildingService {
     private final UnitService unitService;
     private final UserService userService;
     private final DocumentRepository documentRepository;
+    private final BuildingMembershipIndex membershipIndex;
 
     @Transactional
     @PreAuthorize("isAuthenticated()")
@@ -65,6 +68,7 @@ public class BuildingService {
                     .build());
         }
         unitService.saveAll(skeletonUnits);
+        membershipIndex.membershipChanged(manager.getId());
 
         return buildingMapper.toResponse(building, request.totalUnits());
     }
@@ -77,6 +81,10 @@ public class BuildingService {
 
         if (req.repairBudget() != null) building.setRepairBudget(req.repairBudget());
         if (req.maintenanceBudget() != null) building.setMaintenanceBudget(req.maintenanceBudget());
+        if (req.fundAllocationOrder() != null) {
+            List<FundType> order = DebtSnapshot.parseOrder(DebtSnapshot.formatOrder(req.fundAllocationOrder()));
+            building.setFundAllocationOrder(DebtSnapshot.formatOrder(order));
+        }
 
         if (req.protocolFileUrl() != null && !req.protocolFileUrl().isBlank()) {
             BuildingDocument doc = new BuildingDocument();
@@ -103,6 +111,7 @@ public class BuildingService {
         User newManager = userService.getUserReference(newManagerId);
         if (newManager == null) throw new EntityNotFoundException("New manager user not found");
 
+        membershipIndex.membershipChanged(building.getManager().getId(), newManagerId);
         building.setManager(newManager);
         buildingRepository.save(building);
     }
@@ -118,7 +127,8 @@ public class BuildingService {
         return new UpdateBudgetRequest(
                 building.getRepairBudget(),
                 building.getMaintenanceBudget(),
-                protocolUrl
+                protocolUrl,
+                DebtSnapshot.orderOf(building)
         );
     }
 
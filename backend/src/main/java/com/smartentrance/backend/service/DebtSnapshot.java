@@ -0,0 +1,80 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.model.Building;
+import com.smartentrance.backend.model.Transaction;
+import com.smartentrance.backend.model.enums.FundType;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Outstanding debt of one unit per fund, loaded once and reduced in memory as
+ * payments are allocated, so consecutive payments of the same unit see each other.
+ */
+public class DebtSnapshot {
+
+    public static final List<FundType> DEFAULT_ORDER = List.of(FundType.REPAIR, FundType.MAINTENANCE);
+
+    private final EnumMap<FundType, BigDecimal> debts = new EnumMap<>(FundType.class);
+
+    public DebtSnapshot(Map<FundType, BigDecimal> netPositions) {
+        netPositions.forEach((fund, net) -> {
+            if (net != null && net.compareTo(BigDecimal.ZERO) < 0) debts.put(fund, net.abs());
+        });
+    }
+
+    public static DebtSnapshot empty() {
+        return new DebtSnapshot(Map.of());
+    }
+
+    public BigDecimal debtOf(FundType fund) {
+        return debts.getOrDefault(fund, BigDecimal.ZERO);
+    }
+
+    public void allocate(Transaction t, List<FundType> order) {
+        BigDecimal remainingMoney = t.getAmount();
+
+        for (FundType fund : order) {
+            BigDecimal debt = debtOf(fund);
+            if (remainingMoney.compareTo(BigDecimal.ZERO) > 0 && debt.compareTo(BigDecimal.ZERO) > 0) {
+                BigDecimal toPay = remainingMoney.min(debt);
+                t.addSplit(fund, toPay);
+                debts.put(fund, debt.subtract(toPay));
+                remainingMoney = remainingMoney.subtract(toPay);
+            }
+        }
+
+        if (remainingMoney.compareTo(BigDecimal.ZERO) > 0) {
+            t.addSplit(FundType.GENERAL, remainingMoney);
+        }
+    }
+
+    public static List<FundType> orderOf(Building building) {
+        String configured = building == null ? null : building.getFundAllocationOrder();
+        if (configured == null || configured.isBlank()) return DEFAULT_ORDER;
+        return parseOrder(configured);
+    }
+
+    public static List<FundType> parseOrder(String value) {
+        List<FundType> order = new ArrayList<>();
+        for (String part : value.split(",")) {
+            if (part.isBlank()) continue;
+            order.add(FundType.valueOf(part.trim().toUpperCase()));
+        }
+        if (!isValidOrder(order)) {
+            throw new IllegalArgumentException("Fund allocation order must list REPAIR and MAINTENANCE exactly once: " + value);
+        }
+        return List.copyOf(order);
+    }
+
+    /** True when the order is a permutation of {@link #DEFAULT_ORDER}: every debt fund exactly once, nothing else. */
+    public static boolean isValidOrder(List<FundType> order) {
+        return order.size() == DEFAULT_ORDER.size()
+                && !order.contains(null)
+                && EnumSet.copyOf(order).equals(EnumSet.copyOf(DEFAULT_ORDER));
+    }
+
+    public static String formatOrder(List<FundType> order) {
+        return String.join(",", order.stream().map(Enum::name).toList());
+    }
+}
@@ -0,0 +1,150 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.dto.feerun.FeeRunResponse;
+import com.smartentrance.backend.mapper.FeeRunMapper;
+import com.smartentrance.backend.model.FeeRun;
+import com.smartentrance.backend.model.FeeRunItem;
+import com.smartentrance.backend.model.enums.FeeRunItemStatus;
+import com.smartentrance.backend.model.enums.FeeRunStatus;
+import com.smartentrance.backend.model.FeeJournalEntry;
+import com.smartentrance.backend.repository.BuildingRepository;
+import com.smartentrance.backend.repository.FeeJournalRepository;
+import com.smartentrance.backend.repository.FeeRunItemRepository;
+import com.smartentrance.backend.repository.FeeRunRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class FeeRunService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final FeeRunRepository runRepository;
+    private final FeeRunItemRepository itemRepository;
+    private final BuildingRepository buildingRepository;
+    private final FeeJournalRepository journalRepository;
+    private final MonthlyFeeService monthlyFeeService;
+    private final FeeRunMapper feeRunMapper;
+    private final FinancialSummaryCache summaryCache;
+
+    @Transactional
+    public FeeRun createRun(YearMonth period, List<Integer> buildingIds) {
+        FeeRun run = new FeeRun();
+        run.setPeriod(period.toString());
+        run.setTotalBuildings(buildingIds.size());
+        run = runRepository.save(run);
+
+        Set<Integer> alreadyBilled = journalRepository.findBuildingIdsByPeriod(run.getPeriod());
+
+        FeeRun savedRun = run;
+        itemRepository.saveAll(buildingIds.stream()
+                .map(id -> {
+                    FeeRunItem item = new FeeRunItem(savedRun, buildingRepository.getReferenceById(id));
+                    if (alreadyBilled.contains(id)) item.setStatus(FeeRunItemStatus.SKIPPED);
+                    return item;
+                })
+                .toList());
+        return run;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> findInterruptedRunIds() {
+        return runRepository.findAllByStatus(FeeRunStatus.RUNNING).stream().map(FeeRun::getId).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> findPendingItemIds(Long runId) {
+        return itemRepository.findPendingIds(runId);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void processItem(Long itemId, long startNanos) {
+        FeeRunItem item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new EntityNotFoundException("Fee run item not found"));
+        if (item.getStatus() != FeeRunItemStatus.PENDING) return;
+
+        FeeRun run = item.getFeeRun();
+        Integer buildingId = item.getBuilding().getId();
+
+        if (journalRepository.existsByBuildingIdAndPeriod(buildingId, run.getPeriod())) {
+            item.setStatus(FeeRunItemStatus.SKIPPED);
+            item.setFinishedAt(Instant.now());
+            return;
+        }
+
+        FeeJournalEntry entry = journalRepository.saveAndFlush(new FeeJournalEntry(item.getBuilding(), run.getPeriod(), run));
+
+        String month = YearMonth.parse(run.getPeriod()).getMonth().toString();
+        int created = monthlyFeeService.generateMonthlyFees(item.getBuilding(), month);
+        entry.setFeesCreated(created);
+        summaryCache.evict(buildingId);
+
+        item.setStatus(FeeRunItemStatus.COMPLETED);
+        item.setFeesCreated(created);
+        item.setDurationMs(elapsedMillis(startNanos));
+        item.setFinishedAt(Instant.now());
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean markItemFailed(Long itemId, long startNanos, Exception cause) {
+        String message = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        return itemRepository.markFailedIfPending(itemId,
+                message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message,
+                elapsedMillis(startNanos), Instant.now()) == 1;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void finishRun(Long runId, boolean cancelled) {
+        FeeRun run = runRepository.findById(runId)
+                .orElseThrow(() -> new EntityNotFoundException("Fee run not found"));
+
+        if (cancelled) {
+            itemRepository.updateStatus(runId, FeeRunItemStatus.PENDING, FeeRunItemStatus.CANCELLED);
+            run.setStatus(FeeRunStatus.CANCELLED);
+        } else {
+            boolean hasFailures = countByStatus(runId).getOrDefault(FeeRunItemStatus.FAILED, 0L) > 0;
+            run.setStatus(hasFailures ? FeeRunStatus.COMPLETED_WITH_ERRORS : FeeRunStatus.COMPLETED);
+        }
+        run.setFinishedAt(Instant.now());
+    }
+
+    @Transactional(readOnly = true)
+    public FeeRunResponse getRun(Long runId, int inProgress) {
+        FeeRun run = runRepository.findById(runId)
+                .orElseThrow(() -> new EntityNotFoundException("Fee run not found"));
+        return describe(run, inProgress);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> getRecentRunIds() {
+        return runRepository.findTop20ByOrderByStartedAtDesc().stream().map(FeeRun::getId).toList();
+    }
+
+    private FeeRunResponse describe(FeeRun run, int inProgress) {
+        List<FeeRunItem> failures = itemRepository.findAllByFeeRunIdAndStatus(run.getId(), FeeRunItemStatus.FAILED);
+        return feeRunMapper.toResponse(run, countByStatus(run.getId()), inProgress, failures);
+    }
+
+    private Map<FeeRunItemStatus, Long> countByStatus(Long runId) {
+        Map<FeeRunItemStatus, Long> counts = new EnumMap<>(FeeRunItemStatus.class);
+        for (Object[] row : itemRepository.countByStatus(runId)) {
+            counts.put((FeeRunItemStatus) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
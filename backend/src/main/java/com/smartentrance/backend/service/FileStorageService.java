@@ -11,7 +11,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.nio.file.*;
 import java.time.Instant;
@@ -58,6 +60,23 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * Opens a generated PDF for writing so large documents can be streamed to disk. The caller closes the stream.
+     */
+    @PreAuthorize("isAuthenticated()")
+    public OutputStream createPdfFile(String fileName) {
+        if (!fileName.toLowerCase().endsWith(".pdf")) {
+            throw new RuntimeException("System Error: Internal file generation must be PDF.");
+        }
+        Path targetLocation = getSecurePath(fileName);
+        try {
+            return new BufferedOutputStream(Files.newOutputStream(targetLocation,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store file " + fileName, ex);
+        }
+    }
+
     @PreAuthorize("isAuthenticated()")
     public String storeFile(MultipartFile file, User user) {
         Instant lastUpload = uploadRateLimit.get(user.getId());
@@ -1,5 +1,6 @@
 package com.smartentrance.backend.service;
 
+import com.smartentrance.backend.config.CacheConfig;
 import com.smartentrance.backend.dto.finance.*;
 import com.smartentrance.backend.mapper.BuildingExpenseMapper;
 import com.smartentrance.backend.mapper.TransactionMapper;
@@ -12,16 +13,24 @@ import com.stripe.param.PaymentIntentCreateParams;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -35,8 +44,10 @@ public class FinanceService {
 
     private final UnitService unitService;
     private final BuildingService buildingService;
-    private final PdfReceiptService pdfReceiptService;
-    private final FileStorageService fileStorageService;
+    private final BalanceLedgerService balanceLedgerService;
+    private final PeriodCloseService periodCloseService;
+    private final FinancialSummaryCache summaryCache;
+    private final PaymentReferences paymentReferences;
 
     @Value("${payment.currency:EUR}")
     private String currency;
@@ -58,10 +69,14 @@ public class FinanceService {
 
     @Transactional
     public void recordStripeSuccess(Long unitId, BigDecimal amount, BigDecimal fee, String stripeId, String receiptUrl) {
-        if (transactionRepository.findByReferenceId(stripeId).isPresent()) return;
+        String key = PaymentReferences.stripeKey(stripeId);
+        if (paymentReferences.isRecorded(key)) return;
 
         createPaymentTransaction(unitId, amount, PaymentMethod.STRIPE, null,
-                "Stripe Deposit", stripeId, receiptUrl, null);
+                "Stripe Deposit", stripeId, receiptUrl, null, key);
+        // A concurrent duplicate fails here on the unique key, before the fee is booked.
+        transactionRepository.flush();
+        paymentReferences.markRecorded(key);
 
         recordStripeFeeAsExpense(unitId, fee, stripeId);
     }
@@ -69,7 +84,7 @@ public class FinanceService {
     @Transactional
     @PreAuthorize("@buildingSecurity.canManageUnit(#unitId, principal.user)")
     public void recordCashDeposit(Long unitId, BigDecimal amount, FundType fund, String note, User principal) {
-        createPaymentTransaction(unitId, amount, PaymentMethod.CASH, fund, note, null, null, principal);
+        createPaymentTransaction(unitId, amount, PaymentMethod.CASH, fund, note, null, null, principal, null);
     }
 
     @Transactional
@@ -82,66 +97,113 @@ public class FinanceService {
     @Transactional
     @PreAuthorize("@buildingSecurity.canManageUnitByTransactionId(#transactionId, principal.user)")
     public void approveTransaction(Long transactionId, User manager) {
-        Transaction t = transactionRepository.findById(transactionId)
+        // Locked so a concurrent approve, batch decision or statement import cannot confirm it a second time.
+        Transaction t = transactionRepository.findByIdForUpdate(transactionId)
                 .orElseThrow(() -> new EntityNotFoundException("Transaction not found"));
 
         if (t.getStatus() == TransactionStatus.CONFIRMED) return;
 
-        applyWaterfallLogic(t);
+        applyWaterfallLogic(t, new HashMap<>());
 
         t.setStatus(TransactionStatus.CONFIRMED);
+        t.setConfirmedBy(manager);
         transactionRepository.save(t);
+        balanceLedgerService.record(t);
+        summaryCache.evict(t.getUnit().getBuilding().getId());
+    }
+
+    @Transactional
+    @PreAuthorize("@buildingSecurity.isManager(#buildingId, principal.user)")
+    public BatchDecisionResult approveTransactions(Integer buildingId, List<Long> transactionIds, User manager) {
+        List<Transaction> loaded = transactionRepository.findAllForDecision(buildingId, transactionIds);
+        List<Transaction> confirmed = confirmPendingBatch(loaded, manager);
+
+        return decisionResult(transactionIds, confirmed);
+    }
+
+    @Transactional
+    @PreAuthorize("@buildingSecurity.isManager(#buildingId, principal.user)")
+    public BatchDecisionResult rejectTransactions(Integer buildingId, List<Long> transactionIds) {
+        List<Transaction> rejected = transactionRepository.findAllForDecision(buildingId, transactionIds).stream()
+                .filter(t -> t.getStatus() == TransactionStatus.PENDING)
+                .toList();
+
+        rejected.forEach(t -> t.setStatus(TransactionStatus.REJECTED));
+        transactionRepository.saveAll(rejected);
+
+        return decisionResult(transactionIds, rejected);
+    }
+
+    private BatchDecisionResult decisionResult(List<Long> requested, List<Transaction> processed) {
+        Set<Long> processedIds = processed.stream().map(Transaction::getId).collect(Collectors.toSet());
+        List<Long> skipped = requested.stream().distinct().filter(id -> !processedIds.contains(id)).toList();
+
+        return new BatchDecisionResult(processed.stream().map(Transaction::getId).toList(), skipped);
+    }
 
-        generateAndAttachPdf(t, manager);
+    /**
+     * Confirms already authorized PENDING transactions in one go. Payments of the same unit share a debt snapshot.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Transaction> confirmPendingBatch(List<Transaction> transactions, User manager) {
+        Map<Long, DebtSnapshot> snapshots = new HashMap<>();
+        List<Transaction> confirmed = new ArrayList<>();
+
+        for (Transaction t : transactions) {
+            if (t.getStatus() != TransactionStatus.PENDING) continue;
+
+            applyWaterfallLogic(t, snapshots);
+            t.setStatus(TransactionStatus.CONFIRMED);
+            t.setConfirmedBy(manager);
+            confirmed.add(t);
+        }
+        if (confirmed.isEmpty()) return confirmed;
+
+        transactionRepository.saveAll(confirmed);
+        balanceLedgerService.recordAll(confirmed);
+        confirmed.stream().map(t -> t.getUnit().getBuilding().getId()).distinct().forEach(summaryCache::evict);
+        return confirmed;
     }
 
     @Transactional
     @PreAuthorize("@buildingSecurity.canManageUnitByTransactionId(#transactionId, principal.user)")
     public void rejectTransaction(Long transactionId) {
-        Transaction t = transactionRepository.findById(transactionId)
+        Transaction t = transactionRepository.findByIdForUpdate(transactionId)
                 .orElseThrow(() -> new EntityNotFoundException("Transaction not found"));
+        if (t.getStatus() == TransactionStatus.CONFIRMED) {
+            throw new IllegalStateException("Confirmed transactions cannot be rejected");
+        }
         t.setStatus(TransactionStatus.REJECTED);
         transactionRepository.save(t);
     }
 
     private void createPaymentTransaction(Long unitId, BigDecimal amount, PaymentMethod method,
                                           FundType targetFund, String desc, String refId,
-                                          String proofUrl, User issuer) {
+                                          String proofUrl, User issuer, String idempotencyKey) {
 
         Transaction t = createBaseTransaction(unitId, amount, TransactionType.PAYMENT, method,
                 FundType.GENERAL, desc, refId, proofUrl, TransactionStatus.CONFIRMED);
 
+        t.setConfirmedBy(issuer);
+        t.setIdempotencyKey(idempotencyKey);
         if (targetFund != null) {
             t.addSplit(targetFund, amount);
         } else {
-            applyWaterfallLogic(t);
+            applyWaterfallLogic(t, new HashMap<>());
         }
 
         transactionRepository.save(t);
-        generateAndAttachPdf(t, issuer);
+        balanceLedgerService.record(t);
+        summaryCache.evict(t.getUnit().getBuilding().getId());
     }
 
-    private void applyWaterfallLogic(Transaction t) {
-        BigDecimal remainingMoney = t.getAmount();
-        Long unitId = t.getUnit().getId();
-
-        BigDecimal repairDebt = getFundDebt(unitId, FundType.REPAIR);
-        if (remainingMoney.compareTo(BigDecimal.ZERO) > 0 && repairDebt.compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal toPay = remainingMoney.min(repairDebt);
-            t.addSplit(FundType.REPAIR, toPay);
-            remainingMoney = remainingMoney.subtract(toPay);
-        }
-
-        BigDecimal maintDebt = getFundDebt(unitId, FundType.MAINTENANCE);
-        if (remainingMoney.compareTo(BigDecimal.ZERO) > 0 && maintDebt.compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal toPay = remainingMoney.min(maintDebt);
-            t.addSplit(FundType.MAINTENANCE, toPay);
-            remainingMoney = remainingMoney.subtract(toPay);
-        }
+    private void applyWaterfallLogic(Transaction t, Map<Long, DebtSnapshot> snapshots) {
+        Unit unit = t.getUnit();
+        DebtSnapshot snapshot = snapshots.computeIfAbsent(unit.getId(), unitId -> unit.getResponsibleUser() == null
+                ? DebtSnapshot.empty()
+                : balanceLedgerService.snapshotDebts(unitId, unit.getResponsibleUser().getId()));
 
-        if (remainingMoney.compareTo(BigDecimal.ZERO) > 0) {
-            t.addSplit(FundType.GENERAL, remainingMoney);
-        }
+        snapshot.allocate(t, DebtSnapshot.orderOf(unit.getBuilding()));
     }
 
     @Transactional
@@ -161,66 +223,32 @@ public class FinanceService {
         expense.setPaymentMethod(req.paymentMethod());
 
         expenseRepository.save(expense);
-    }
-
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void processMonthlyFeesForBuilding(Building building, String month) {
-        if (building.getRepairBudget() == null || building.getMaintenanceBudget() == null) return;
-        List<Unit> units = unitService.findAllByBuildingId(building.getId())
-                .stream().filter(Unit::isVerified).toList();
-        if (units.isEmpty()) return;
-
-        BigDecimal totalArea = units.stream().map(Unit::getArea).reduce(BigDecimal.ZERO, BigDecimal::add);
-        int totalResidents = units.stream().mapToInt(u -> u.getResidentsCount() != null ? u.getResidentsCount() : 0).sum();
-
-        for (Unit unit : units) {
-            try {
-                if (totalArea.compareTo(BigDecimal.ZERO) > 0) {
-                    BigDecimal myRepairFee = building.getRepairBudget()
-                            .multiply(unit.getArea())
-                            .divide(totalArea, 2, RoundingMode.HALF_UP);
-                    chargeFeeInternal(unit, myRepairFee, FundType.REPAIR, "Monthly Repair " + month);
-                }
-                if (totalResidents > 0 && unit.getResidentsCount() > 0) {
-                    BigDecimal myMaintenanceFee = building.getMaintenanceBudget()
-                            .multiply(new BigDecimal(unit.getResidentsCount()))
-                            .divide(new BigDecimal(totalResidents), 2, RoundingMode.HALF_UP);
-                    chargeFeeInternal(unit, myMaintenanceFee, FundType.MAINTENANCE, "Monthly Maint " + month);
-                }
-            } catch (Exception e) {
-                System.out.println("Error fee unit " + unit.getId() + ": " + e.getMessage());
-            }
-        }
+        summaryCache.evict(buildingId);
     }
 
     @PreAuthorize("@buildingSecurity.isManager(#buildingId, principal.user)")
+    @Cacheable(cacheNames = CacheConfig.FINANCIAL_SUMMARIES, key = "#buildingId")
     public FinancialSummary getBuildingFinancialSummary(Integer buildingId) {
-        List<Object[]> incomeByFund = transactionRepository.sumIncomeByFundFromSplits(buildingId);
-        List<Object[]> expenseByFund = expenseRepository.sumExpensesByFund(buildingId);
-        List<Object[]> incomeByMethod = transactionRepository.sumIncomeByMethod(buildingId);
-        List<Object[]> expenseByMethod = expenseRepository.sumExpensesByMethod(buildingId);
+        FinancialTotals totals = periodCloseService.currentTotals(buildingId);
 
-        BigDecimal repairIncome = getSumFromList(incomeByFund, FundType.REPAIR.name());
-        BigDecimal repairExpense = getSumFromList(expenseByFund, FundType.REPAIR.name());
+        BigDecimal repairIncome = totals.incomeOf(FundType.REPAIR);
+        BigDecimal repairExpense = totals.expenseOf(FundType.REPAIR);
         FinancialSummary.FundBreakdown repairBreakdown = new FinancialSummary.FundBreakdown(
                 repairIncome, repairExpense, repairIncome.subtract(repairExpense));
 
-        BigDecimal maintIncome = getSumFromList(incomeByFund, FundType.MAINTENANCE.name())
-                .add(getSumFromList(incomeByFund, FundType.GENERAL.name()));
-        BigDecimal maintExpense = getSumFromList(expenseByFund, FundType.MAINTENANCE.name())
-                .add(getSumFromList(expenseByFund, FundType.GENERAL.name()));
+        BigDecimal maintIncome = totals.incomeOf(FundType.MAINTENANCE).add(totals.incomeOf(FundType.GENERAL));
+        BigDecimal maintExpense = totals.expenseOf(FundType.MAINTENANCE).add(totals.expenseOf(FundType.GENERAL));
         FinancialSummary.FundBreakdown maintBreakdown = new FinancialSummary.FundBreakdown(
                 maintIncome, maintExpense, maintIncome.subtract(maintExpense));
 
-        BigDecimal cashIn = getSumFromList(incomeByMethod, PaymentMethod.CASH.name());
-        BigDecimal cashOut = getSumFromList(expenseByMethod, PaymentMethod.CASH.name());
+        BigDecimal cashIn = totals.incomeOf(PaymentMethod.CASH);
+        BigDecimal cashOut = totals.expenseOf(PaymentMethod.CASH);
         BigDecimal cashOnHand = cashIn.subtract(cashOut);
 
-        BigDecimal stripeIn = getSumFromList(incomeByMethod, PaymentMethod.STRIPE.name());
-        BigDecimal bankIn = getSumFromList(incomeByMethod, PaymentMethod.BANK_TRANSFER.name());
+        BigDecimal stripeIn = totals.incomeOf(PaymentMethod.STRIPE);
+        BigDecimal bankIn = totals.incomeOf(PaymentMethod.BANK_TRANSFER);
         BigDecimal totalBankIn = stripeIn.add(bankIn);
-        BigDecimal bankOut = getSumFromList(expenseByMethod, PaymentMethod.BANK_TRANSFER.name());
+        BigDecimal bankOut = totals.expenseOf(PaymentMethod.BANK_TRANSFER);
         BigDecimal bankAccount = totalBankIn.subtract(bankOut);
 
         BigDecimal totalBalance = repairBreakdown.balance().add(maintBreakdown.balance());
@@ -235,7 +263,7 @@ public class FinanceService {
             return BigDecimal.ZERO;
         }
 
-        return transactionRepository.calculateUserBalance(unitId, unit.getResponsibleUser().getId());
+        return balanceLedgerService.getBalance(unitId, unit.getResponsibleUser().getId());
     }
 
     @Transactional(readOnly = true)
@@ -244,20 +272,64 @@ public class FinanceService {
         return transactionRepository.existsByUnitIdAndStatus(unitId, TransactionStatus.PENDING);
     }
 
+    @Transactional(readOnly = true)
+    public Map<Long, UnitFinanceStatus> getFinanceStatuses(Collection<Long> unitIds) {
+        if (unitIds.isEmpty()) return Map.of();
+
+        return transactionRepository.findFinanceStatuses(unitIds).stream()
+                .collect(Collectors.toMap(UnitFinanceStatus::unitId, Function.identity()));
+    }
+
+    @Transactional(readOnly = true)
     @PreAuthorize("@buildingSecurity.isManager(#buildingId, principal.user)")
-    public List<TransactionResponse> getBuildingTransactions(Integer buildingId, TransactionType type, TransactionStatus status) {
-        return transactionRepository.searchTransactions(buildingId, type, status).stream().map(transactionMapper::toResponse).toList();
+    public TransactionPage getBuildingTransactions(Integer buildingId, TransactionType type, TransactionStatus status,
+                                                   String cursor, Integer size) {
+        TransactionCursor after = Objects.requireNonNullElse(TransactionCursor.decode(cursor), TransactionCursor.FIRST);
+        int pageSize = TransactionCursor.pageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Transaction> transactions;
+        if (type != null && status != null) {
+            transactions = transactionRepository.findBuildingPageByStatusAndType(buildingId, status, type, after.createdAt(), after.id(), limit);
+        } else if (type != null) {
+            transactions = transactionRepository.findBuildingPageByType(buildingId, type, after.createdAt(), after.id(), limit);
+        } else if (status != null) {
+            transactions = transactionRepository.findBuildingPageByStatus(buildingId, status, after.createdAt(), after.id(), limit);
+        } else {
+            transactions = transactionRepository.findBuildingPage(buildingId, after.createdAt(), after.id(), limit);
+        }
+
+        return toPage(transactions, pageSize);
     }
 
+    @Transactional(readOnly = true)
     @PreAuthorize("@buildingSecurity.canAccessUnitFinance(#unitId, principal.user)")
-    public List<TransactionResponse> getTransactionHistory(Long unitId, TransactionType type) {
+    public TransactionPage getTransactionHistory(Long unitId, TransactionType type, String cursor, Integer size) {
         Unit unit = unitService.findById(unitId).orElseThrow();
+        Long userId = unit.getResponsibleUser().getId();
 
-        List<Transaction> transactions = (type != null)
-                ? transactionRepository.findAllByUnitIdAndTypeAndResponsibleUserIdOrderByCreatedAtDesc(unitId, type, unit.getResponsibleUser().getId())
-                : transactionRepository.findAllByUnitIdAndResponsibleUserIdOrderByCreatedAtDesc(unitId, unit.getResponsibleUser().getId());
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        int pageSize = TransactionCursor.pageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
 
-        return transactions.stream().map(transactionMapper::toResponse).toList();
+        List<Transaction> transactions = (after == null)
+                ? transactionRepository.findUnitPage(unitId, userId, type, limit)
+                : transactionRepository.findUnitPageAfter(unitId, userId, type, after.createdAt(), after.id(), limit);
+
+        return toPage(transactions, pageSize);
+    }
+
+    private TransactionPage toPage(List<Transaction> transactions, int pageSize) {
+        boolean hasMore = transactions.size() > pageSize;
+        List<Transaction> page = hasMore ? transactions.subList(0, pageSize) : transactions;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Transaction last = page.getLast();
+            nextCursor = new TransactionCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new TransactionPage(page.stream().map(transactionMapper::toResponse).toList(), nextCursor);
     }
 
     @PreAuthorize("@buildingSecurity.hasAccess(#buildingId, principal.user)")
@@ -278,17 +350,10 @@ public class FinanceService {
         t.setReferenceId(refId);
         t.setExternalProofUrl(externalProof);
         t.setStatus(status);
-        t.setCreatedAt(Instant.now());
         t.setResponsibleUser(unit.getResponsibleUser());
         return transactionRepository.save(t);
     }
 
-    private void chargeFeeInternal(Unit unit, BigDecimal amount, FundType fundType, String description) {
-        BigDecimal negativeAmount = amount.abs().negate();
-        createBaseTransaction(unit.getId(), negativeAmount, TransactionType.FEE, PaymentMethod.SYSTEM,
-                fundType, description, null, null, TransactionStatus.CONFIRMED);
-    }
-
     private void recordStripeFeeAsExpense(Long unitId, BigDecimal fee, String stripeId) {
         Unit unit = unitService.findById(unitId).orElseThrow();
         BuildingExpense feeExpense = new BuildingExpense();
@@ -299,42 +364,7 @@ public class FinanceService {
         feeExpense.setExpenseDate(Instant.now());
         feeExpense.setPaymentMethod(PaymentMethod.SYSTEM);
         expenseRepository.save(feeExpense);
-    }
-
-    private void generateAndAttachPdf(Transaction transaction, User issuer) {
-        try {
-            byte[] pdfBytes = pdfReceiptService.generateReceipt(transaction, issuer);
-            String fileName = "receipt_" + transaction.getId() + "_" + System.currentTimeMillis() + ".pdf";
-            fileStorageService.storeFile(pdfBytes, fileName);
-            transaction.setProofUrl(fileName);
-            transactionRepository.save(transaction);
-        } catch (Exception e) {
-            System.err.println("FAILED TO GENERATE PDF: " + e.getMessage());
-        }
-    }
-
-    private BigDecimal getFundDebt(Long unitId, FundType fundType) {
-        Unit unit = unitService.findById(unitId).orElseThrow();
-        if (unit.getResponsibleUser() == null) return BigDecimal.ZERO;
-
-        Long userId = unit.getResponsibleUser().getId();
-
-        BigDecimal totalFees = transactionRepository.sumFeesByUserAndFund(unitId, userId, fundType);
-        if (totalFees == null) totalFees = BigDecimal.ZERO;
-
-        BigDecimal totalPaid = transactionRepository.sumSplitsByUserAndFund(unitId, userId, fundType);
-        if (totalPaid == null) totalPaid = BigDecimal.ZERO;
-
-        BigDecimal netBalance = totalFees.add(totalPaid);
-        return netBalance.compareTo(BigDecimal.ZERO) < 0 ? netBalance.abs() : BigDecimal.ZERO;
-    }
-
-    private BigDecimal getSumFromList(List<Object[]> list, String keyName) {
-        if (list == null || list.isEmpty()) return BigDecimal.ZERO;
-        for (Object[] row : list) {
-            if (row[0].toString().equals(keyName)) return (BigDecimal) row[1];
-        }
-        return BigDecimal.ZERO;
+        summaryCache.evict(unit.getBuilding().getId());
     }
 
     @Transactional
@@ -358,7 +388,7 @@ public class FinanceService {
         Unit unit = unitService.findById(unitId).orElseThrow();
         if (unit.getResponsibleUser() == null) return;
 
-        BigDecimal currentBalance = transactionRepository.calculateUserBalance(unitId, unit.getResponsibleUser().getId());
+        BigDecimal currentBalance = balanceLedgerService.getBalance(unitId, unit.getResponsibleUser().getId());
 
         if (currentBalance == null || currentBalance.compareTo(BigDecimal.ZERO) == 0) {
             return;
@@ -375,10 +405,11 @@ public class FinanceService {
                     "Ownership Transfer: Debt Write-off",
                     null,
                     null,
+                    null,
                     null
             );
         } else {
-            createBaseTransaction(
+            Transaction refund = createBaseTransaction(
                     unitId,
                     adjustment,
                     TransactionType.PAYMENT,
@@ -389,6 +420,8 @@ public class FinanceService {
                     null,
                     TransactionStatus.CONFIRMED
             );
+            balanceLedgerService.record(refund);
+            summaryCache.evict(unit.getBuilding().getId());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+@RequiredArgsConstructor
+public class FinancialSummaryCache {
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Drops the building's summary now and again once the surrounding transaction completes, so a concurrent
+     * read cannot re-cache totals that are about to change.
+     */
+    public void evict(Integer buildingId) {
+        Cache cache = cacheManager.getCache(CacheConfig.FINANCIAL_SUMMARIES);
+        if (cache == null) return;
+
+        cache.evict(buildingId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(buildingId);
+                }
+            });
+        }
+    }
+}
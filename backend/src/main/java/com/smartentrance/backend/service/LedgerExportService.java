@@ -0,0 +1,110 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.dto.enums.ExportFormat;
+import com.smartentrance.backend.dto.finance.ExpenseExportRow;
+import com.smartentrance.backend.dto.finance.TransactionExportRow;
+import com.smartentrance.backend.repository.BuildingExpenseRepository;
+import com.smartentrance.backend.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class LedgerExportService {
+
+    private static final List<String> COLUMNS = List.of(
+            "kind", "id", "date", "unitNumber", "type", "fundType",
+            "paymentMethod", "status", "amount", "description", "reference");
+
+    private final TransactionRepository transactionRepository;
+    private final BuildingExpenseRepository expenseRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final JsonMapper jsonMapper;
+
+    @PreAuthorize("@buildingSecurity.isManager(#buildingId, principal.user)")
+    public StreamingResponseBody exportLedger(Integer buildingId, ExportFormat format, Instant from, Instant to) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        return out -> readOnly.executeWithoutResult(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try {
+                write(buildingId, format, from, to, writer);
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void write(Integer buildingId, ExportFormat format, Instant from, Instant to, Writer writer) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+            writeRows(buildingId, from, to, values -> {
+                try {
+                    writer.write(toCsv(values));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return;
+        }
+
+        // One object per line; the generator must not close the response stream.
+        try (JsonGenerator json = jsonMapper.writer()
+                .with(StreamWriteFeature.WRITE_BIGDECIMAL_AS_PLAIN)
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator((String) null)
+                .createGenerator(writer)) {
+            writeRows(buildingId, from, to, values -> {
+                json.writeStartObject();
+                for (int i = 0; i < values.length; i++) {
+                    json.writePOJOProperty(COLUMNS.get(i), values[i]);
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+            });
+        }
+    }
+
+    private void writeRows(Integer buildingId, Instant from, Instant to, Consumer<Object[]> row) {
+        try (Stream<TransactionExportRow> rows = transactionRepository.streamExportRows(buildingId, from, to)) {
+            rows.forEach(r -> row.accept(new Object[]{"TRANSACTION", r.id(), r.createdAt(), r.unitNumber(),
+                    r.type(), r.fundType(), r.paymentMethod(), r.status(), r.amount(), r.description(), r.referenceId()}));
+        }
+
+        try (Stream<ExpenseExportRow> rows = expenseRepository.streamExportRows(buildingId, from, to)) {
+            rows.forEach(r -> row.accept(new Object[]{"EXPENSE", r.id(), r.expenseDate(), null,
+                    null, r.fundType(), r.paymentMethod(), null, r.amount(), r.description(), null}));
+        }
+    }
+
+    private String toCsv(Object[] values) {
+        return String.join(",", Arrays.stream(values).map(v -> {
+            if (v == null) return "";
+            if (v instanceof BigDecimal bd) return bd.toPlainString();
+            String s = v.toString();
+            if (v instanceof String && !s.isEmpty() && "=+-@".indexOf(s.charAt(0)) >= 0) s = "'" + s;
+            if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+            return "\"" + s.replace("\"", "\"\"") + "\"";
+        }).toList());
+    }
+}
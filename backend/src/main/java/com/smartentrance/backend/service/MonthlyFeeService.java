@@ -0,0 +1,92 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.model.Building;
+import com.smartentrance.backend.model.Transaction;
+import com.smartentrance.backend.model.Unit;
+import com.smartentrance.backend.model.enums.FundType;
+import com.smartentrance.backend.model.enums.PaymentMethod;
+import com.smartentrance.backend.model.enums.TransactionStatus;
+import com.smartentrance.backend.model.enums.TransactionType;
+import com.smartentrance.backend.repository.TransactionRepository;
+import com.smartentrance.backend.repository.UnitRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class MonthlyFeeService {
+
+    private final UnitRepository unitRepository;
+    private final TransactionRepository transactionRepository;
+    private final BalanceLedgerService balanceLedgerService;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int generateMonthlyFees(Building building, String month) {
+        List<Transaction> fees = calculateMonthlyFees(building, month);
+        if (fees.isEmpty()) return 0;
+
+        transactionRepository.saveAll(fees);
+        balanceLedgerService.recordAll(fees);
+        return fees.size();
+    }
+
+    public List<Transaction> calculateMonthlyFees(Building building, String month) {
+        if (building.getRepairBudget() == null || building.getMaintenanceBudget() == null) return List.of();
+
+        List<Unit> units = unitRepository.findAllByBuildingId(building.getId())
+                .stream().filter(Unit::isVerified).toList();
+        if (units.isEmpty()) return List.of();
+
+        BigDecimal totalArea = units.stream().map(this::areaOf).reduce(BigDecimal.ZERO, BigDecimal::add);
+        int totalResidents = units.stream().mapToInt(this::residentsOf).sum();
+
+        Instant now = Instant.now();
+        List<Transaction> fees = new ArrayList<>(units.size() * 2);
+
+        for (Unit unit : units) {
+            if (totalArea.compareTo(BigDecimal.ZERO) > 0) {
+                BigDecimal repairFee = building.getRepairBudget()
+                        .multiply(areaOf(unit))
+                        .divide(totalArea, 2, RoundingMode.HALF_UP);
+                fees.add(buildFee(unit, repairFee, FundType.REPAIR, "Monthly Repair " + month, now));
+            }
+            if (totalResidents > 0 && residentsOf(unit) > 0) {
+                BigDecimal maintenanceFee = building.getMaintenanceBudget()
+                        .multiply(new BigDecimal(residentsOf(unit)))
+                        .divide(new BigDecimal(totalResidents), 2, RoundingMode.HALF_UP);
+                fees.add(buildFee(unit, maintenanceFee, FundType.MAINTENANCE, "Monthly Maint " + month, now));
+            }
+        }
+        return fees;
+    }
+
+    private Transaction buildFee(Unit unit, BigDecimal amount, FundType fundType, String description, Instant createdAt) {
+        Transaction t = new Transaction();
+        t.setUnit(unit);
+        t.setResponsibleUser(unit.getResponsibleUser());
+        t.setAmount(amount.abs().negate());
+        t.setType(TransactionType.FEE);
+        t.setPaymentMethod(PaymentMethod.SYSTEM);
+        t.setFundType(fundType);
+        t.setDescription(description);
+        t.setStatus(TransactionStatus.CONFIRMED);
+        t.setCreatedAt(createdAt);
+        return t;
+    }
+
+    private BigDecimal areaOf(Unit unit) {
+        return unit.getArea() != null ? unit.getArea() : BigDecimal.ZERO;
+    }
+
+    private int residentsOf(Unit unit) {
+        return unit.getResidentsCount() != null ? unit.getResidentsCount() : 0;
+    }
+}
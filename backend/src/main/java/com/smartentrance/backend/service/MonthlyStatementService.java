@@ -0,0 +1,296 @@
+package com.smartentrance.backend.service;
+
+import com.lowagie.text.*;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import com.smartentrance.backend.dto.finance.StatementRow;
+import com.smartentrance.backend.dto.finance.StatementRunResult;
+import com.smartentrance.backend.model.Building;
+import com.smartentrance.backend.model.UnitBalance;
+import com.smartentrance.backend.model.enums.TransactionType;
+import com.smartentrance.backend.repository.BuildingRepository;
+import com.smartentrance.backend.repository.TransactionRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Renders the monthly statements of a building from one ordered, streamed query. Per-unit PDFs are rendered
+ * on a pool sized to the CPU count with a bounded number in flight; the combined document is written in one pass.
+ */
+@Service
+public class MonthlyStatementService implements DisposableBean {
+
+    public static final String FILE_PREFIX = "statement-";
+
+    private final TransactionRepository transactionRepository;
+    private final BuildingRepository buildingRepository;
+    private final BalanceLedgerService balanceLedgerService;
+    private final FileStorageService fileStorageService;
+    private final PdfStyles styles;
+    private final String currency;
+    private final TransactionTemplate readOnly;
+    private final ExecutorService renderers;
+    private final int parallelism;
+
+    public MonthlyStatementService(TransactionRepository transactionRepository,
+                                   BuildingRepository buildingRepository,
+                                   BalanceLedgerService balanceLedgerService,
+                                   FileStorageService fileStorageService,
+                                   PdfStyles styles,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${payment.currency:EUR}") String currency) {
+        this.transactionRepository = transactionRepository;
+        this.buildingRepository = buildingRepository;
+        this.balanceLedgerService = balanceLedgerService;
+        this.fileStorageService = fileStorageService;
+        this.styles = styles;
+        this.currency = currency;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.renderers = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().name("statement-", 0).factory());
+    }
+
+    @PreAuthorize("@buildingSecurity.isManager(#buildingId, principal.user)")
+    public StatementRunResult generateStatements(Integer buildingId, YearMonth period, boolean combined) {
+        if (period.isAfter(YearMonth.now())) {
+            throw new IllegalArgumentException("Statements can only be generated for past or current months");
+        }
+
+        Instant from = PeriodCloseService.endOf(period.minusMonths(1));
+        Instant to = PeriodCloseService.endOf(period);
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+
+        return readOnly.execute(status -> {
+            Building building = buildingRepository.findById(buildingId)
+                    .orElseThrow(() -> new EntityNotFoundException("Building not found"));
+            StatementHeader header = new StatementHeader(building.getName(), building.getAddress(), period);
+            Map<Long, BigDecimal> opening = openingBalances(buildingId, from);
+            String baseName = FILE_PREFIX + buildingId + "-" + period + "-" + runId;
+
+            try (Stream<StatementRow> rows = transactionRepository.streamStatementRows(buildingId, from, to)) {
+                return combined
+                        ? renderCombined(rows, opening, header, baseName + ".pdf")
+                        : renderPerUnit(rows, opening, header, baseName);
+            }
+        });
+    }
+
+    private StatementRunResult renderPerUnit(Stream<StatementRow> rows, Map<Long, BigDecimal> opening,
+                                             StatementHeader header, String baseName) {
+        // Caps how many unit statements are buffered ahead of the renderers.
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        Executor executor = new DelegatingSecurityContextExecutor(renderers, SecurityContextHolder.getContext());
+        List<CompletableFuture<String>> files = new ArrayList<>();
+
+        forEachUnit(rows, opening, statement -> {
+            inFlight.acquireUninterruptibly();
+            String fileName = baseName + "-unit-" + statement.unitNumber() + ".pdf";
+            files.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    writeDocument(fileName, document -> renderUnit(document, header, statement));
+                    return fileName;
+                } finally {
+                    inFlight.release();
+                }
+            }, executor));
+        });
+
+        try {
+            CompletableFuture.allOf(files.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Statement generation failed", e.getCause());
+        }
+        return new StatementRunResult(header.period().toString(), files.size(), files.stream().map(CompletableFuture::join).toList());
+    }
+
+    private StatementRunResult renderCombined(Stream<StatementRow> rows, Map<Long, BigDecimal> opening,
+                                              StatementHeader header, String fileName) {
+        int[] units = {0};
+        writeDocument(fileName, document -> {
+            forEachUnit(rows, opening, statement -> {
+                if (units[0]++ > 0) document.newPage();
+                renderUnit(document, header, statement);
+            });
+            if (units[0] == 0) addParagraph(document, "The building has no units.");
+        });
+        return new StatementRunResult(header.period().toString(), units[0], List.of(fileName));
+    }
+
+    private void writeDocument(String fileName, Consumer<Document> body) {
+        try (OutputStream out = fileStorageService.createPdfFile(fileName)) {
+            Document document = new Document(PageSize.A4);
+            PdfWriter.getInstance(document, out);
+            document.open();
+            body.accept(document);
+            document.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write statement " + fileName, e);
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Could not write statement " + fileName, e);
+        }
+    }
+
+    private void addParagraph(Document document, String text) {
+        try {
+            document.add(new Paragraph(text, styles.getNormalFont()));
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Could not render statement", e);
+        }
+    }
+
+    /**
+     * Groups the ordered rows into one statement per unit, holding only the current unit's lines.
+     */
+    private void forEachUnit(Stream<StatementRow> rows, Map<Long, BigDecimal> opening, Consumer<UnitStatement> action) {
+        Iterator<StatementRow> it = rows.iterator();
+        UnitStatement current = null;
+
+        while (it.hasNext()) {
+            StatementRow row = it.next();
+            if (current == null || !current.unitId().equals(row.unitId())) {
+                if (current != null) action.accept(current);
+                current = new UnitStatement(row.unitId(), row.unitNumber(),
+                        opening.getOrDefault(row.unitId(), BigDecimal.ZERO), new ArrayList<>());
+            }
+            if (row.transactionId() != null) current.lines().add(row);
+        }
+        if (current != null) action.accept(current);
+    }
+
+    private Map<Long, BigDecimal> openingBalances(Integer buildingId, Instant from) {
+        Map<Long, BigDecimal> opening = new HashMap<>();
+        for (UnitBalance b : balanceLedgerService.balancesAsOf(buildingId, from)) {
+            opening.merge(b.getUnit().getId(), b.getBalance(), BigDecimal::add);
+        }
+        return opening;
+    }
+
+    private void renderUnit(Document document, StatementHeader header, UnitStatement statement) {
+        Font boldFont = styles.getBoldFont();
+        Font normalFont = styles.getNormalFont();
+        Font smallFont = styles.getSmallFont();
+
+        try {
+            document.add(styles.headerTable("MONTHLY STATEMENT\nМЕСЕЧНО ИЗВЛЕЧЕНИЕ"));
+            styles.drawDivider(document, PdfStyles.BRAND_COLOR);
+
+            PdfPTable infoTable = new PdfPTable(2);
+            infoTable.setWidthPercentage(100);
+            infoTable.setSpacingAfter(20f);
+
+            PdfPCell unitCell = new PdfPCell();
+            unitCell.setBorder(Rectangle.NO_BORDER);
+            unitCell.addElement(new Phrase("UNIT / АПАРТАМЕНТ:", boldFont));
+            unitCell.addElement(new Phrase("Unit " + statement.unitNumber(), normalFont));
+            unitCell.addElement(new Phrase(header.buildingName(), normalFont));
+            unitCell.addElement(new Phrase(header.buildingAddress(), normalFont));
+            infoTable.addCell(unitCell);
+
+            PdfPCell periodCell = new PdfPCell();
+            periodCell.setBorder(Rectangle.NO_BORDER);
+            periodCell.addElement(new Phrase("PERIOD / ПЕРИОД:", boldFont));
+            periodCell.addElement(new Phrase(String.format("%02d.%d", header.period().getMonthValue(), header.period().getYear()), normalFont));
+            periodCell.addElement(new Phrase("Generated: " + styles.formatDateTime(Instant.now()), normalFont));
+            infoTable.addCell(periodCell);
+
+            document.add(infoTable);
+
+            PdfPTable summary = new PdfPTable(2);
+            summary.setWidthPercentage(100);
+            summary.setSpacingAfter(20f);
+            styles.addStyledRow(summary, "Opening Balance", formatAmount(statement.opening()));
+            styles.addStyledRow(summary, "Charges", formatAmount(statement.charges()));
+            styles.addStyledRow(summary, "Payments", formatAmount(statement.payments()));
+            styles.addStyledRow(summary, "Closing Balance", formatAmount(statement.closing()));
+            document.add(summary);
+
+            if (statement.lines().isEmpty()) {
+                document.add(new Paragraph("No transactions in this period. / Няма движения за периода.", normalFont));
+                return;
+            }
+
+            PdfPTable lines = new PdfPTable(new float[]{2.2f, 4.5f, 2f, 2.2f, 2.2f});
+            lines.setWidthPercentage(100);
+            lines.setHeaderRows(1);
+            for (String title : List.of("Date", "Description", "Fund", "Method", "Amount")) {
+                PdfPCell cell = new PdfPCell(new Phrase(title, boldFont));
+                cell.setBackgroundColor(PdfStyles.TABLE_HEADER_COLOR);
+                cell.setBorderColor(Color.LIGHT_GRAY);
+                cell.setPadding(6f);
+                lines.addCell(cell);
+            }
+
+            for (StatementRow row : statement.lines()) {
+                addLineCell(lines, styles.formatDate(row.confirmedAt()), smallFont, Element.ALIGN_LEFT);
+                addLineCell(lines, row.description() != null ? row.description() : row.type().toString(), smallFont, Element.ALIGN_LEFT);
+                addLineCell(lines, row.fundType() != null ? row.fundType().toString() : "-", smallFont, Element.ALIGN_LEFT);
+                addLineCell(lines, row.paymentMethod() != null ? row.paymentMethod().toString() : "-", smallFont, Element.ALIGN_LEFT);
+                addLineCell(lines, formatAmount(row.amount()), smallFont, Element.ALIGN_RIGHT);
+            }
+            document.add(lines);
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Could not render statement for unit " + statement.unitNumber(), e);
+        }
+    }
+
+    private void addLineCell(PdfPTable table, String text, Font font, int alignment) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, font));
+        cell.setBorderColor(Color.LIGHT_GRAY);
+        cell.setPadding(5f);
+        cell.setHorizontalAlignment(alignment);
+        table.addCell(cell);
+    }
+
+    private String formatAmount(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).toPlainString() + " " + currency;
+    }
+
+    @Override
+    public void destroy() {
+        renderers.shutdownNow();
+    }
+
+    private record StatementHeader(String buildingName, String buildingAddress, YearMonth period) {}
+
+    private record UnitStatement(Long unitId, Integer unitNumber, BigDecimal opening, List<StatementRow> lines) {
+
+        BigDecimal charges() {
+            return sumOf(TransactionType.FEE);
+        }
+
+        BigDecimal payments() {
+            return sumOf(TransactionType.PAYMENT);
+        }
+
+        private BigDecimal sumOf(TransactionType type) {
+            return lines.stream().filter(l -> l.type() == type).map(StatementRow::amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+
+        BigDecimal closing() {
+            return opening.add(charges()).add(payments());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.smartentrance.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartentrance.backend.repository.TransactionRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Idempotency check for externally triggered payments. Keys that are known to be booked are remembered in memory,
+ * so redelivered webhooks are rejected without a query; unknown keys fall back to an indexed exists check. The
+ * unique constraint on transactions.idempotency_key is what stops concurrent duplicates.
+ */
+@Component
+public class PaymentReferences {
+
+    private final TransactionRepository transactionRepository;
+    private final Cache<String, Boolean> recent = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .expireAfterWrite(Duration.ofHours(72))
+            .build();
+
+    public PaymentReferences(TransactionRepository transactionRepository) {
+        this.transactionRepository = transactionRepository;
+    }
+
+    public static String stripeKey(String paymentIntentId) {
+        return "stripe:" + paymentIntentId;
+    }
+
+    public boolean isRecorded(String key) {
+        if (recent.getIfPresent(key) != null) return true;
+
+        boolean exists = transactionRepository.existsByIdempotencyKey(key);
+        if (exists) recent.put(key, Boolean.TRUE);
+        return exists;
+    }
+
+    /**
+     * Remembers the key once the surrounding transaction commits, so a rolled back booking is never cached.
+     */
+    public void markRecorded(String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recent.put(key, Boolean.TRUE);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recent.put(key, Boolean.TRUE);
+            }
+        });
+    }
+}
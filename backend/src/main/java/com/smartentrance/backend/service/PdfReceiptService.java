@@ -5,55 +5,75 @@ import com.lowagie.text.pdf.*;
 import com.smartentrance.backend.model.Transaction;
 import com.smartentrance.backend.model.User;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
 
 @Service
 public class PdfReceiptService {
 
-    private final String currency;
+    // Part of the cache key: bump it when the layout changes so cached receipts are rendered again.
+    private static final String LAYOUT_VERSION = "2";
 
-    private static final Color BRAND_COLOR = new Color(41, 128, 185); // Nice Blue
-    private static final Color TABLE_HEADER_COLOR = new Color(236, 240, 241); // Light Gray
-    private static final Color TEXT_COLOR = new Color(44, 62, 80); // Dark Blue/Grey
+    private final String currency;
+    private final PdfStyles styles;
 
-    public PdfReceiptService(@Value("${payment.currency:EUR}") String currency) {
+    public PdfReceiptService(@Value("${payment.currency:EUR}") String currency, PdfStyles styles) {
         this.currency = currency;
+        this.styles = styles;
+    }
+
+    /**
+     * SHA-256 over every field printed on the receipt, so equal keys always render the same document.
+     */
+    public String cacheKey(Transaction transaction, User issuer) {
+        String fields = String.join("\u001F",
+                LAYOUT_VERSION,
+                currency,
+                String.valueOf(transaction.getId()),
+                String.valueOf(transaction.getAmount()),
+                String.valueOf(transaction.getPaymentMethod()),
+                String.valueOf(transaction.getFundType()),
+                String.valueOf(transaction.getStatus()),
+                String.valueOf(transaction.getDescription()),
+                String.valueOf(transaction.getReferenceId()),
+                String.valueOf(transaction.getExternalProofUrl()),
+                String.valueOf(transaction.getCreatedAt()),
+                String.valueOf(issuedAt(transaction)),
+                String.valueOf(transaction.getUnit().getUnitNumber()),
+                String.valueOf(transaction.getUnit().getBuilding().getName()),
+                String.valueOf(transaction.getUnit().getBuilding().getAddress()),
+                issuer != null ? issuer.getFirstName() + " " + issuer.getLastName() + " " + issuer.getEmail() : "-");
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(fields.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public byte[] generateReceipt(Transaction transaction, User issuer) {
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024)) {
             Document document = new Document(PageSize.A4);
             PdfWriter writer = PdfWriter.getInstance(document, out);
 
             document.open();
 
-            BaseFont baseFont;
-            try {
-                ClassPathResource fontResource = new ClassPathResource("fonts/arial.ttf");
-                baseFont = BaseFont.createFont(fontResource.getPath(), BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
-            } catch (IOException e) {
-                baseFont = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
-            }
-
-            Font titleFont = new Font(baseFont, 22, Font.BOLD, BRAND_COLOR);
-            Font headerFont = new Font(baseFont, 22, Font.BOLD, BRAND_COLOR);
-            Font boldFont = new Font(baseFont, 11, Font.BOLD, TEXT_COLOR);
-            Font normalFont = new Font(baseFont, 11, Font.NORMAL, TEXT_COLOR);
-            Font linkFont = new Font(baseFont, 11, Font.UNDERLINE, new Color(0, 0, 255));
-            Font footerFont = new Font(baseFont, 9, Font.ITALIC, Color.GRAY);
+            Font boldFont = styles.getBoldFont();
+            Font normalFont = styles.getNormalFont();
 
-            PdfPTable headerTable = getPdfPTable(titleFont, boldFont);
+            PdfPTable headerTable = styles.headerTable("OFFICIAL RECEIPT\nПЛАТЕЖЕН ДОКУМЕНТ");
 
             document.add(headerTable);
 
-            drawDivider(document, BRAND_COLOR);
+            styles.drawDivider(document, PdfStyles.BRAND_COLOR);
 
             PdfPTable infoTable = new PdfPTable(2);
             infoTable.setWidthPercentage(100);
@@ -67,7 +87,7 @@ public class PdfReceiptService {
             issuerCell.addElement(new Phrase("ISSUED BY / ИЗДАТЕЛ:", boldFont));
             issuerCell.addElement(new Phrase(issuerName, normalFont));
             issuerCell.addElement(new Phrase(issuerEmail, normalFont));
-            issuerCell.addElement(new Phrase("Date: " + formatDate(new Date()), normalFont));
+            issuerCell.addElement(new Phrase("Date: " + styles.formatDateTime(issuedAt(transaction)), normalFont));
             infoTable.addCell(issuerCell);
 
             String unitInfo = "Unit " + transaction.getUnit().getUnitNumber();
@@ -89,42 +109,41 @@ public class PdfReceiptService {
             table.setSpacingBefore(10f);
             table.setSpacingAfter(20f);
 
-            PdfPCell headerCell = new PdfPCell(new Phrase("PAYMENT DETAILS / ДЕТАЙЛИ", headerFont));
+            PdfPCell headerCell = new PdfPCell(new Phrase("PAYMENT DETAILS / ДЕТАЙЛИ", styles.getHeaderFont()));
             headerCell.setColspan(2);
-            headerCell.setBackgroundColor(BRAND_COLOR);
+            headerCell.setBackgroundColor(PdfStyles.BRAND_COLOR);
             headerCell.setPadding(8f);
             headerCell.setHorizontalAlignment(Element.ALIGN_CENTER);
             table.addCell(headerCell);
 
-            addStyledRow(table, "Transaction ID", "#" + transaction.getId(), boldFont, normalFont);
-            addStyledRow(table, "Payment Date", formatDate(transaction.getCreatedAt()), boldFont, normalFont);
-            addStyledRow(table, "Payment Method", transaction.getPaymentMethod().toString(), boldFont, normalFont);
-            addStyledRow(table, "Fund Type", transaction.getFundType().toString(), boldFont, normalFont);
-            addStyledRow(table, "Description", transaction.getDescription(), boldFont, normalFont);
-            addStyledRow(table, "Reference / Note", transaction.getReferenceId() != null ? transaction.getReferenceId() : "-", boldFont, normalFont);
+            styles.addStyledRow(table, "Transaction ID", "#" + transaction.getId());
+            styles.addStyledRow(table, "Payment Date", styles.formatDateTime(transaction.getCreatedAt()));
+            styles.addStyledRow(table, "Payment Method", transaction.getPaymentMethod().toString());
+            styles.addStyledRow(table, "Fund Type", Objects.toString(transaction.getFundType(), "-"));
+            styles.addStyledRow(table, "Description", Objects.toString(transaction.getDescription(), "-"));
+            styles.addStyledRow(table, "Reference / Note", transaction.getReferenceId() != null ? transaction.getReferenceId() : "-");
 
             String externalProof = transaction.getExternalProofUrl();
 
             if (externalProof != null && !externalProof.isBlank()) {
-                Anchor link = new Anchor("View Original Proof / Виж Оригинал", linkFont);
+                Anchor link = new Anchor("View Original Proof / Виж Оригинал", styles.getLinkFont());
                 link.setReference(externalProof);
 
-                addCellElement(table, "External Proof", link, boldFont);
+                addCellElement(table, "External Proof", link);
             }
 
-            addStyledRow(table, "Status", transaction.getStatus().toString(), boldFont, normalFont);
+            styles.addStyledRow(table, "Status", transaction.getStatus().toString());
 
             PdfPCell totalLabel = new PdfPCell(new Phrase("TOTAL AMOUNT / СУМА:", boldFont));
             totalLabel.setPadding(10f);
-            totalLabel.setBorderColor(BRAND_COLOR);
+            totalLabel.setBorderColor(PdfStyles.BRAND_COLOR);
             table.addCell(totalLabel);
 
-            Font amountFont = new Font(baseFont, 14, Font.BOLD, BRAND_COLOR);
             String formattedAmount = String.format("%.2f", transaction.getAmount());
-            PdfPCell totalValue = new PdfPCell(new Phrase(formattedAmount + " " + currency, amountFont));
+            PdfPCell totalValue = new PdfPCell(new Phrase(formattedAmount + " " + currency, styles.getAmountFont()));
             totalValue.setPadding(10f);
             totalValue.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            totalValue.setBorderColor(BRAND_COLOR);
+            totalValue.setBorderColor(PdfStyles.BRAND_COLOR);
             table.addCell(totalValue);
 
             document.add(table);
@@ -135,7 +154,7 @@ public class PdfReceiptService {
             PdfPCell footerCell = new PdfPCell(new Phrase(
                     "Thank you for your timely payment! This is a computer-generated receipt.\n" +
                             "Благодарим за плащането! Това е автоматично генериран документ.",
-                    footerFont));
+                    styles.getFooterFont()));
             footerCell.setHorizontalAlignment(Element.ALIGN_CENTER);
             footerCell.setBorder(Rectangle.TOP);
             footerCell.setBorderColor(Color.LIGHT_GRAY);
@@ -153,40 +172,14 @@ public class PdfReceiptService {
         }
     }
 
-    private static PdfPTable getPdfPTable(Font titleFont, Font boldFont) {
-        PdfPTable headerTable = new PdfPTable(2);
-        headerTable.setWidthPercentage(100);
-
-        PdfPCell logoCell = new PdfPCell(new Phrase("SMART ENTRANCE", titleFont));
-        logoCell.setBorder(Rectangle.NO_BORDER);
-        logoCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
-        headerTable.addCell(logoCell);
-
-        PdfPCell receiptTitleCell = new PdfPCell(new Phrase("OFFICIAL RECEIPT\nПЛАТЕЖЕН ДОКУМЕНТ", boldFont));
-        receiptTitleCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        receiptTitleCell.setBorder(Rectangle.NO_BORDER);
-        headerTable.addCell(receiptTitleCell);
-        return headerTable;
-    }
-
-    private void addStyledRow(PdfPTable table, String label, String value, Font labelFont, Font valueFont) {
-        PdfPCell cellLabel = new PdfPCell(new Phrase(label, labelFont));
-        cellLabel.setPadding(8f);
-        cellLabel.setBorderColor(Color.LIGHT_GRAY);
-        cellLabel.setBackgroundColor(new Color(250, 250, 250)); // Very light gray
-        table.addCell(cellLabel);
-
-        PdfPCell cellValue = new PdfPCell(new Phrase(value, valueFont));
-        cellValue.setPadding(8f);
-        cellValue.setBorderColor(Color.LIGHT_GRAY);
-        cellValue.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        table.addCell(cellValue);
+    private Instant issuedAt(Transaction transaction) {
+        return transaction.getConfirmedAt() != null ? transaction.getConfirmedAt() : transaction.getCreatedAt();
     }
 
-    private void addCellElement(PdfPTable table, String label, Element element, Font labelFont) {
-        PdfPCell cellLabel = new PdfPCell(new Phrase(label, labelFont));
+    private void addCellElement(PdfPTable table, String label, Element element) {
+        PdfPCell cellLabel = new PdfPCell(new Phrase(label, styles.getBoldFont()));
         cellLabel.setPadding(6f);
-        cellLabel.setBackgroundColor(new Color(240, 240, 240));
+        cellLabel.setBackgroundColor(PdfStyles.ELEMENT_LABEL_BACKGROUND);
         cellLabel.setBorderColor(Color.LIGHT_GRAY);
         table.addCell(cellLabel);
 
@@ -202,28 +195,4 @@ public class PdfReceiptService {
         cellValue.setBorderColor(Color.LIGHT_GRAY);
         table.addCell(cellValue);
     }
-
-    private void drawDivider(Document document, Color color) throws DocumentException {
-        Paragraph p = new Paragraph(" ");
-        p.setSpacingAfter(5f);
-        document.add(p);
-
-        com.lowagie.text.pdf.draw.LineSeparator line = new com.lowagie.text.pdf.draw.LineSeparator();
-        line.setLineColor(color);
-        line.setLineWidth(2f);
-        document.add(line);
-
-        Paragraph p2 = new Paragraph(" ");
-        p2.setSpacingAfter(10f);
-        document.add(p2);
-    }
-
-    private String formatDate(java.time.Instant instant) {
-        if (instant == null) return "-";
-        return new SimpleDateFormat("dd.MM.yyyy HH:mm").format(Date.from(instant));
-    }
-
-    private String formatDate(Date date) {
-        return new SimpleDateFormat("dd.MM.yyyy HH:mm").format(date);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,127 @@
+package com.smartentrance.backend.service;
+
+import com.lowagie.text.*;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import lombok.Getter;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Fonts, colours and building blocks shared by the receipt and statement PDFs.
+ * The font is parsed once; the Font objects are never mutated and are safe to share between threads.
+ */
+@Component
+@Getter
+public class PdfStyles {
+
+    private static final String FONT_PATH = "fonts/arial.ttf";
+
+    public static final Color BRAND_COLOR = new Color(41, 128, 185); // Nice Blue
+    public static final Color TABLE_HEADER_COLOR = new Color(236, 240, 241); // Light Gray
+    public static final Color TEXT_COLOR = new Color(44, 62, 80); // Dark Blue/Grey
+    public static final Color LABEL_BACKGROUND = new Color(250, 250, 250); // Very light gray
+    public static final Color ELEMENT_LABEL_BACKGROUND = new Color(240, 240, 240);
+    public static final Color LINK_COLOR = new Color(0, 0, 255);
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT =
+            DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm").withZone(ZoneId.systemDefault());
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("dd.MM.yyyy").withZone(ZoneId.systemDefault());
+
+    private final Font titleFont;
+    private final Font headerFont;
+    private final Font boldFont;
+    private final Font normalFont;
+    private final Font smallFont;
+    private final Font linkFont;
+    private final Font footerFont;
+    private final Font amountFont;
+
+    public PdfStyles() {
+        BaseFont baseFont = loadBaseFont();
+        this.titleFont = new Font(baseFont, 22, Font.BOLD, BRAND_COLOR);
+        this.headerFont = new Font(baseFont, 22, Font.BOLD, BRAND_COLOR);
+        this.boldFont = new Font(baseFont, 11, Font.BOLD, TEXT_COLOR);
+        this.normalFont = new Font(baseFont, 11, Font.NORMAL, TEXT_COLOR);
+        this.smallFont = new Font(baseFont, 9, Font.NORMAL, TEXT_COLOR);
+        this.linkFont = new Font(baseFont, 11, Font.UNDERLINE, LINK_COLOR);
+        this.footerFont = new Font(baseFont, 9, Font.ITALIC, Color.GRAY);
+        this.amountFont = new Font(baseFont, 14, Font.BOLD, BRAND_COLOR);
+    }
+
+    private static BaseFont loadBaseFont() {
+        try {
+            try (InputStream in = new ClassPathResource(FONT_PATH).getInputStream()) {
+                return BaseFont.createFont(FONT_PATH, BaseFont.IDENTITY_H, BaseFont.EMBEDDED,
+                        BaseFont.NOT_CACHED, in.readAllBytes(), null);
+            } catch (IOException e) {
+                System.err.println("PDF font " + FONT_PATH + " not available, falling back to Helvetica: " + e.getMessage());
+                return BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+            }
+        } catch (IOException | DocumentException e) {
+            throw new IllegalStateException("Could not load PDF font", e);
+        }
+    }
+
+    public String formatDateTime(Instant instant) {
+        return instant == null ? "-" : DATE_TIME_FORMAT.format(instant);
+    }
+
+    public String formatDate(Instant instant) {
+        return instant == null ? "-" : DATE_FORMAT.format(instant);
+    }
+
+    public PdfPTable headerTable(String title) {
+        PdfPTable headerTable = new PdfPTable(2);
+        headerTable.setWidthPercentage(100);
+
+        PdfPCell logoCell = new PdfPCell(new Phrase("SMART ENTRANCE", titleFont));
+        logoCell.setBorder(Rectangle.NO_BORDER);
+        logoCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        headerTable.addCell(logoCell);
+
+        PdfPCell titleCell = new PdfPCell(new Phrase(title, boldFont));
+        titleCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        titleCell.setBorder(Rectangle.NO_BORDER);
+        headerTable.addCell(titleCell);
+        return headerTable;
+    }
+
+    public void drawDivider(Document document, Color color) throws DocumentException {
+        Paragraph p = new Paragraph(" ");
+        p.setSpacingAfter(5f);
+        document.add(p);
+
+        com.lowagie.text.pdf.draw.LineSeparator line = new com.lowagie.text.pdf.draw.LineSeparator();
+        line.setLineColor(color);
+        line.setLineWidth(2f);
+        document.add(line);
+
+        Paragraph p2 = new Paragraph(" ");
+        p2.setSpacingAfter(10f);
+        document.add(p2);
+    }
+
+    public void addStyledRow(PdfPTable table, String label, String value) {
+        PdfPCell cellLabel = new PdfPCell(new Phrase(label, boldFont));
+        cellLabel.setPadding(8f);
+        cellLabel.setBorderColor(Color.LIGHT_GRAY);
+        cellLabel.setBackgroundColor(LABEL_BACKGROUND);
+        table.addCell(cellLabel);
+
+        PdfPCell cellValue = new PdfPCell(new Phrase(value, normalFont));
+        cellValue.setPadding(8f);
+        cellValue.setBorderColor(Color.LIGHT_GRAY);
+        cellValue.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        table.addCell(cellValue);
+    }
+}
@@ -0,0 +1,103 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.dto.finance.FinancialTotals;
+import com.smartentrance.backend.model.*;
+import com.smartentrance.backend.model.enums.FundType;
+import com.smartentrance.backend.model.enums.PaymentMethod;
+import com.smartentrance.backend.repository.BuildingRepository;
+import com.smartentrance.backend.repository.PeriodCloseRepository;
+import com.smartentrance.backend.repository.TransactionRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class PeriodCloseService {
+
+    private final PeriodCloseRepository periodCloseRepository;
+    private final TransactionRepository transactionRepository;
+    private final BuildingRepository buildingRepository;
+    private final BalanceLedgerService balanceLedgerService;
+
+    @Transactional
+    public PeriodClose closePeriod(Integer buildingId, YearMonth period) {
+        String label = period.toString();
+        Optional<PeriodClose> existing = periodCloseRepository.findByBuildingIdAndPeriod(buildingId, label);
+        if (existing.isPresent()) return existing.get();
+
+        Instant periodEnd = endOf(period);
+        if (Instant.now().isBefore(periodEnd)) {
+            throw new IllegalStateException("Period " + label + " has not ended yet");
+        }
+
+        Optional<PeriodClose> previous = periodCloseRepository.findTopByBuildingIdOrderByPeriodEndDesc(buildingId);
+        if (previous.isPresent() && !previous.get().getPeriodEnd().isBefore(periodEnd)) {
+            throw new IllegalStateException("Building " + buildingId + " is already closed after " + label);
+        }
+
+        Building building = buildingRepository.findById(buildingId)
+                .orElseThrow(() -> new EntityNotFoundException("Building not found"));
+
+        Instant from = previous.map(PeriodClose::getPeriodEnd).orElse(FinancialTotals.BEGINNING);
+        FinancialTotals activity = transactionRepository.sumBuildingTotals(buildingId, from, periodEnd);
+        FinancialTotals closing = previous.map(p -> totalsOf(p).plus(activity)).orElse(activity);
+
+        PeriodClose close = new PeriodClose(building, label, periodEnd);
+
+        for (Object[] row : closing.toRows()) {
+            PeriodCloseLine line = new PeriodCloseLine();
+            line.setPeriodClose(close);
+            line.setSource((String) row[0]);
+            line.setFundType(row[1] == null ? null : FundType.valueOf((String) row[1]));
+            line.setPaymentMethod(row[2] == null ? null : PaymentMethod.valueOf((String) row[2]));
+            line.setAmount((BigDecimal) row[3]);
+            close.getLines().add(line);
+        }
+
+        for (UnitBalance b : balanceLedgerService.balancesAsOf(buildingId, periodEnd)) {
+            UnitPeriodBalance unitBalance = new UnitPeriodBalance();
+            unitBalance.setPeriodClose(close);
+            unitBalance.setUnit(b.getUnit());
+            unitBalance.setResponsibleUser(b.getResponsibleUser());
+            unitBalance.setFundType(b.getFundType());
+            unitBalance.setBalance(b.getBalance());
+            unitBalance.setCharged(b.getCharged());
+            unitBalance.setPaid(b.getPaid());
+            close.getUnitBalances().add(unitBalance);
+        }
+
+        return periodCloseRepository.save(close);
+    }
+
+    @Transactional(readOnly = true)
+    public FinancialTotals currentTotals(Integer buildingId) {
+        return periodCloseRepository.findTopByBuildingIdOrderByPeriodEndDesc(buildingId)
+                .map(close -> totalsOf(close).plus(
+                        transactionRepository.sumBuildingTotals(buildingId, close.getPeriodEnd(), FinancialTotals.END)))
+                .orElseGet(() -> transactionRepository.sumBuildingTotals(buildingId));
+    }
+
+    public static Instant endOf(YearMonth period) {
+        return period.plusMonths(1).atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+    }
+
+    private FinancialTotals totalsOf(PeriodClose close) {
+        List<Object[]> rows = periodCloseRepository.findLines(close.getId()).stream()
+                .map(l -> new Object[]{
+                        l.getSource(),
+                        l.getFundType() == null ? null : l.getFundType().name(),
+                        l.getPaymentMethod() == null ? null : l.getPaymentMethod().name(),
+                        l.getAmount()})
+                .toList();
+        return FinancialTotals.fromRows(rows);
+    }
+}
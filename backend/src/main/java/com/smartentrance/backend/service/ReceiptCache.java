@@ -0,0 +1,164 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.config.ReceiptCacheProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed disk cache for rendered receipts. Files are named after their cache key, so a changed
+ * transaction simply gets a new file and the old one ages out. Concurrent requests for the same key render once;
+ * when the directory grows past the configured size the least recently used files are deleted. Callers get the
+ * bytes rather than the path, so eviction can never delete a file that is still being served.
+ */
+@Component
+public class ReceiptCache {
+
+    private static final String SUFFIX = ".pdf";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final AtomicLong currentBytes = new AtomicLong();
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> rendering = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public ReceiptCache(ReceiptCacheProperties properties) {
+        this.directory = Paths.get(properties.dir()).toAbsolutePath().normalize();
+        this.maxBytes = properties.maxSize().toBytes();
+        try {
+            Files.createDirectories(directory);
+            currentBytes.set(scan(true).stream().mapToLong(CachedFile::size).sum());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not initialize receipt cache in " + directory, e);
+        }
+    }
+
+    public byte[] getOrRender(String key, Supplier<byte[]> renderer) {
+        Path target = directory.resolve(key + SUFFIX);
+        byte[] cached = read(target);
+        if (cached != null) return cached;
+
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        CompletableFuture<byte[]> inProgress = rendering.putIfAbsent(key, mine);
+        if (inProgress != null) return await(inProgress);
+
+        try {
+            byte[] content = read(target);
+            if (content == null) {
+                content = renderer.get();
+                write(target, content);
+            }
+            mine.complete(content);
+            return content;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(key);
+        }
+    }
+
+    long currentBytes() {
+        return currentBytes.get();
+    }
+
+    /** The cached file's content, or null if it is not cached (or was evicted while being read). */
+    private byte[] read(Path target) {
+        try {
+            byte[] content = Files.readAllBytes(target);
+            touch(target);
+            return content;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read cached receipt " + target.getFileName(), e);
+        }
+    }
+
+    private void write(Path target, byte[] content) {
+        try {
+            Path temp = Files.createTempFile(directory, "render-", ".tmp");
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write cached receipt " + target.getFileName(), e);
+        }
+
+        if (currentBytes.addAndGet(content.length) > maxBytes) evict();
+    }
+
+    /**
+     * Deletes the oldest files until the cache is back under 90% of its limit. Skipped if another thread is already evicting.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) return;
+        try {
+            List<CachedFile> files = scan(false);
+            long total = files.stream().mapToLong(CachedFile::size).sum();
+            long target = maxBytes / 10 * 9;
+
+            files.sort(Comparator.comparing(CachedFile::lastUsed));
+            for (CachedFile file : files) {
+                if (total <= target) break;
+                if (Files.deleteIfExists(file.path())) total -= file.size();
+            }
+            currentBytes.set(total);
+        } catch (IOException e) {
+            System.err.println("Receipt cache eviction failed: " + e.getMessage());
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private List<CachedFile> scan(boolean removeLeftovers) throws IOException {
+        List<CachedFile> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : paths.toList()) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    // Renders interrupted by a restart; at runtime they may belong to a writer in progress.
+                    if (removeLeftovers) Files.deleteIfExists(path);
+                } else if (name.endsWith(SUFFIX)) {
+                    try {
+                        files.add(new CachedFile(path, Files.size(path), Files.getLastModifiedTime(path)));
+                    } catch (NoSuchFileException ignored) {
+                        // Evicted concurrently.
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    private void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // Only affects eviction order.
+        }
+    }
+
+    private byte[] await(CompletableFuture<byte[]> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    private record CachedFile(Path path, long size, FileTime lastUsed) {}
+}
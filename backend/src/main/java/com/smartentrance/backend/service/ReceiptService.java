@@ -0,0 +1,64 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.mapper.TransactionMapper;
+import com.smartentrance.backend.model.Transaction;
+import com.smartentrance.backend.model.enums.TransactionStatus;
+import com.smartentrance.backend.model.enums.TransactionType;
+import com.smartentrance.backend.repository.TransactionRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves payment receipts. Receipts are rendered on first download and kept in the {@link ReceiptCache};
+ * nothing is rendered when a payment is confirmed.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReceiptService {
+
+    private final TransactionRepository transactionRepository;
+    private final PdfReceiptService pdfReceiptService;
+    private final ReceiptCache receiptCache;
+    private final TransactionMapper transactionMapper;
+
+    public record Receipt(String key, byte[] content) {}
+
+    @PreAuthorize("@buildingSecurity.canViewTransaction(#transactionId, principal.user)")
+    public String getReceiptUrl(Long transactionId) {
+        Transaction t = transactionRepository.findById(transactionId)
+                .orElseThrow(() -> new EntityNotFoundException("Transaction not found"));
+        return transactionMapper.receiptUrl(t);
+    }
+
+    /** The receipt's cache key, which doubles as its ETag; cheap enough to check before anything is rendered. */
+    @PreAuthorize("@buildingSecurity.canViewTransaction(#transactionId, principal.user)")
+    public String getReceiptKey(Long transactionId) {
+        Transaction t = loadReceiptTransaction(transactionId);
+        return pdfReceiptService.cacheKey(t, t.getConfirmedBy());
+    }
+
+    @PreAuthorize("@buildingSecurity.canViewTransaction(#transactionId, principal.user)")
+    public Receipt getReceipt(Long transactionId) {
+        Transaction t = loadReceiptTransaction(transactionId);
+
+        String key = pdfReceiptService.cacheKey(t, t.getConfirmedBy());
+        byte[] content = receiptCache.getOrRender(key, () -> pdfReceiptService.generateReceipt(t, t.getConfirmedBy()));
+        return new Receipt(key, content);
+    }
+
+    private Transaction loadReceiptTransaction(Long transactionId) {
+        Transaction t = transactionRepository.findForReceipt(transactionId)
+                .orElseThrow(() -> new EntityNotFoundException("Transaction not found"));
+
+        if (!hasReceipt(t)) {
+            throw new IllegalStateException("Receipts are only issued for confirmed payments");
+        }
+        return t;
+    }
+
+    public static boolean hasReceipt(Transaction t) {
+        return t.getType() == TransactionType.PAYMENT && t.getStatus() == TransactionStatus.CONFIRMED;
+    }
+}
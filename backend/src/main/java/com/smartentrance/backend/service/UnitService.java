@@ -1,5 +1,6 @@
 package com.smartentrance.backend.service;
 
+import com.smartentrance.backend.dto.finance.UnitFinanceStatus;
 import com.smartentrance.backend.dto.unit.UnitJoinRequest;
 import com.smartentrance.backend.dto.unit.UnitResponse;
 import com.smartentrance.backend.dto.unit.UnitUpdateRequest;
@@ -7,6 +8,7 @@ import com.smartentrance.backend.mapper.UnitMapper;
 import com.smartentrance.backend.model.Unit;
 import com.smartentrance.backend.model.User;
 import com.smartentrance.backend.repository.UnitRepository;
+import com.smartentrance.backend.security.BuildingMembershipIndex;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.context.annotation.Lazy;
@@ -17,6 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.security.SecureRandom;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -25,13 +28,16 @@ public class UnitService {
     private final UnitRepository unitRepository;
     private final UnitMapper unitMapper;
     private final FinanceService financeService;
+    private final BuildingMembershipIndex membershipIndex;
 
     public UnitService(UnitRepository unitRepository,
                        UnitMapper unitMapper,
-                       @Lazy FinanceService financeService) {
+                       @Lazy FinanceService financeService,
+                       BuildingMembershipIndex membershipIndex) {
         this.unitRepository = unitRepository;
         this.unitMapper = unitMapper;
         this.financeService = financeService;
+        this.membershipIndex = membershipIndex;
     }
 
     @Transactional
@@ -40,6 +46,7 @@ public class UnitService {
         Unit unit = unitRepository.findByAccessCode(request.accessCode())
                 .orElseThrow(() -> new EntityNotFoundException("Invalid access code."));
 
+        membershipIndex.membershipChanged(ownerId(unit), currentUser.getId());
         unit.setResponsibleUser(currentUser);
         unit.setResidentsCount(request.residentsCount());
         unit.setArea(request.area());
@@ -65,6 +72,7 @@ public class UnitService {
 
         boolean isManager = unit.getBuilding().getManager().getId().equals(user.getId());
         unit.setVerified(isManager);
+        membershipIndex.membershipChanged(ownerId(unit));
 
         Unit savedUnit = unitRepository.save(unit);
 
@@ -88,6 +96,7 @@ public class UnitService {
             financeService.createSystemNote(unitId, "Ownership Transfer", protocolUrl);
         }
 
+        membershipIndex.membershipChanged(ownerId(unit));
         unit.setResponsibleUser(null);
         unit.setVerified(false);
         unit.setResidentsCount(0);
@@ -104,29 +113,33 @@ public class UnitService {
         Unit unit = unitRepository.findById(unitId)
                 .orElseThrow(() -> new EntityNotFoundException("Unit not found"));
         unit.setVerified(true);
+        membershipIndex.membershipChanged(ownerId(unit));
     }
 
     @Transactional(readOnly = true)
     @PreAuthorize("@buildingSecurity.isManager(#buildingId, principal.user)")
     public List<UnitResponse> getUnitsByBuilding(Integer buildingId) {
-        return unitRepository.findAllByBuildingIdOrderByUnitNumberAsc(buildingId)
-                .stream()
+        List<Unit> units = unitRepository.findAllByBuildingIdOrderByUnitNumberAsc(buildingId);
+        Map<Long, UnitFinanceStatus> statuses = financeService.getFinanceStatuses(units.stream().map(Unit::getId).toList());
+
+        return units.stream()
                 .map(unit -> {
-                    BigDecimal balance = financeService.getBalance(unit.getId());
-                    boolean hasPending = financeService.hasPendingPayments(unit.getId());
-                    return unitMapper.toManagementResponse(unit, balance, hasPending);
+                    UnitFinanceStatus status = statuses.get(unit.getId());
+                    return unitMapper.toManagementResponse(unit, status.balance(), status.hasPendingPayments());
                 })
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     @PreAuthorize("isAuthenticated()")
     public List<UnitResponse> getMyUnits(User user) {
-        return unitRepository.findAllByResponsibleUserId(user.getId())
-                .stream()
+        List<Unit> units = unitRepository.findAllByResponsibleUserId(user.getId());
+        Map<Long, UnitFinanceStatus> statuses = financeService.getFinanceStatuses(units.stream().map(Unit::getId).toList());
+
+        return units.stream()
                 .map(unit -> {
-                    BigDecimal balance = financeService.getBalance(unit.getId());
-                    boolean hasPending = financeService.hasPendingPayments(unit.getId());
-                    return unitMapper.toResidentResponse(unit, balance, hasPending);
+                    UnitFinanceStatus status = statuses.get(unit.getId());
+                    return unitMapper.toResidentResponse(unit, status.balance(), status.hasPendingPayments());
                 })
                 .toList();
     }
@@ -147,6 +160,10 @@ public class UnitService {
         return sb.toString();
     }
 
+    private static Long ownerId(Unit unit) {
+        return unit.getResponsibleUser() != null ? unit.getResponsibleUser().getId() : null;
+    }
+
     public void saveAll(List<Unit> units){ unitRepository.saveAll(units); }
     public Optional<Unit> findById(Long id) { return unitRepository.findById(id); }
     public List<Unit> findAllByBuildingId(Integer buildingId) { return unitRepository.findAllByBuildingId(buildingId); }
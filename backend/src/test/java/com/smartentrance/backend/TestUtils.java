@@ -8,9 +8,11 @@ import com.smartentrance.backend.model.enums.TransactionType;
 import com.smartentrance.backend.model.enums.UserRole;
 import com.smartentrance.backend.repository.*;
 import com.smartentrance.backend.security.UserPrincipal;
+import com.smartentrance.backend.service.BalanceLedgerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 import org.springframework.stereotype.Component;
 import org.springframework.test.web.servlet.request.RequestPostProcessor;
@@ -19,16 +21,20 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 public class TestUtils {
 
+    private static final AtomicInteger READY_UNITS = new AtomicInteger();
+
     @Autowired UserRepository userRepository;
     @Autowired BuildingRepository buildingRepository;
     @Autowired UnitRepository unitRepository;
     @Autowired TransactionRepository transactionRepository;
     @Autowired VotesPollRepository pollRepository;
     @Autowired UserVoteRepository voteRepository;
+    @Autowired BalanceLedgerService balanceLedgerService;
 
     public static RequestPostProcessor mockUser(Long id, UserRole role) {
         return SecurityMockMvcRequestPostProcessors.authentication(
@@ -36,6 +42,10 @@ public class TestUtils {
         );
     }
 
+    public static void authenticate(Long id, UserRole role) {
+        SecurityContextHolder.getContext().setAuthentication(createAuth(id, role));
+    }
+
     private static UsernamePasswordAuthenticationToken createAuth(Long id, UserRole role) {
         User user = new User();
         user.setId(id);
@@ -56,6 +66,8 @@ public class TestUtils {
     }
 
     public Unit createReadyUnit() {
+        int seq = READY_UNITS.incrementAndGet();
+
         User user = new User();
         user.setEmail("test-" + System.nanoTime() + "@mail.com");
         user.setHashedPassword("pass");
@@ -70,7 +82,7 @@ public class TestUtils {
         building.setTotalUnits(1);
         building.setEntrance("A");
         building.setManager(user);
-        building.setGooglePlaceId("mock-place-id");
+        building.setGooglePlaceId("mock-place-id-" + seq);
         buildingRepository.save(building);
 
         Unit unit = new Unit();
@@ -79,7 +91,7 @@ public class TestUtils {
         unit.setUnitNumber(1);
         unit.setResidentsCount(1);
         unit.setArea(new BigDecimal(50.0));
-        unit.setAccessCode("CODE1234");
+        unit.setAccessCode(String.format("C%07d", seq));
         unit.setVerified(true);
         return unitRepository.save(unit);
     }
@@ -97,6 +109,7 @@ public class TestUtils {
         tx.setPaymentMethod(PaymentMethod.SYSTEM);
         tx.setResponsibleUser(unit.getResponsibleUser());
         transactionRepository.save(tx);
+        balanceLedgerService.record(tx);
     }
 
     public VotesPoll createPoll(Building building) {
@@ -0,0 +1,88 @@
+package com.smartentrance.backend.benchmark;
+
+import com.smartentrance.backend.TestUtils;
+import com.smartentrance.backend.model.Unit;
+import com.smartentrance.backend.repository.BuildingExpenseRepository;
+import com.smartentrance.backend.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the four per-dimension summary queries with the single-pass one.
+ * Run with {@code mvn test -Dtest=FinancialSummaryBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FinancialSummaryBenchmarkTest {
+
+    private static final int TRANSACTIONS = 100_000;
+    private static final int ROUNDS = 20;
+    private static final long ID_OFFSET = 10_000_000L;
+
+    @Autowired TestUtils helper;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired TransactionRepository transactionRepository;
+    @Autowired BuildingExpenseRepository expenseRepository;
+
+    @Test
+    void compareSummaryQueries() {
+        Unit unit = helper.createReadyUnit();
+        Integer buildingId = unit.getBuilding().getId();
+        seed(unit);
+
+        for (int i = 0; i < 3; i++) {
+            runSeparate(buildingId);
+            transactionRepository.sumBuildingTotals(buildingId);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) runSeparate(buildingId);
+        long separateMs = (System.nanoTime() - start) / 1_000_000 / ROUNDS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) transactionRepository.sumBuildingTotals(buildingId);
+        long singlePassMs = (System.nanoTime() - start) / 1_000_000 / ROUNDS;
+
+        System.out.println("Financial summary over " + TRANSACTIONS + " transactions: four queries "
+                + separateMs + " ms, single pass " + singlePassMs + " ms");
+    }
+
+    private void runSeparate(Integer buildingId) {
+        transactionRepository.sumIncomeByFundFromSplits(buildingId);
+        transactionRepository.sumIncomeByMethod(buildingId);
+        expenseRepository.sumExpensesByFund(buildingId);
+        expenseRepository.sumExpensesByMethod(buildingId);
+    }
+
+    private void seed(Unit unit) {
+        String[] methods = {"CASH", "STRIPE", "BANK_TRANSFER"};
+        String[] funds = {"REPAIR", "MAINTENANCE"};
+        Timestamp now = Timestamp.from(Instant.now());
+
+        List<Object[]> transactions = new ArrayList<>(TRANSACTIONS);
+        List<Object[]> splits = new ArrayList<>(TRANSACTIONS);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            long id = ID_OFFSET + i;
+            transactions.add(new Object[]{id, unit.getId(), unit.getBuilding().getId(), unit.getResponsibleUser().getId(), -10,
+                    "PAYMENT", methods[i % methods.length], "CONFIRMED", now, now});
+            splits.add(new Object[]{id, id, funds[i % funds.length], -10});
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (id, unit_id, building_id, billable_user_id, amount, type, " +
+                "payment_method, transaction_status, created_at, confirmed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", transactions);
+        jdbcTemplate.batchUpdate("INSERT INTO transaction_splits (id, transaction_id, fund_type, amount) " +
+                "VALUES (?, ?, ?, ?)", splits);
+    }
+}
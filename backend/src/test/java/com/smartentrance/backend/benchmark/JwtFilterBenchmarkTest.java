@@ -0,0 +1,118 @@
+package com.smartentrance.backend.benchmark;
+
+import com.smartentrance.backend.model.User;
+import com.smartentrance.backend.model.enums.UserRole;
+import com.smartentrance.backend.repository.RevocationRepository;
+import com.smartentrance.backend.security.BuildingMembershipIndex;
+import com.smartentrance.backend.security.BuildingMembershipIndex.Membership;
+import com.smartentrance.backend.security.BuildingMembershipIndex.OwnedUnit;
+import com.smartentrance.backend.security.JwtAuthenticationFilter;
+import com.smartentrance.backend.security.JwtService;
+import com.smartentrance.backend.security.TokenRevocationService;
+import com.smartentrance.backend.security.UserPrincipal;
+import com.smartentrance.backend.security.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-request cost of JwtAuthenticationFilter for a repeated cookie, with and without the verified-token cache,
+ * plus the raw verification cost of building a parser per request (the old behaviour) versus a shared one.
+ * Run with {@code mvn test -Dtest=JwtFilterBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JwtFilterBenchmarkTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final int WARMUP = 20_000;
+    private static final int REQUESTS = 200_000;
+
+    @Test
+    void compareFilterOverhead() throws Exception {
+        String token = newJwtService(new VerifiedTokenCache(0)).generateToken(principal(), true);
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+
+        measure("verify, parser per request", () -> Jwts.parser().verifyWith(key).build().parseSignedClaims(token));
+        var parser = Jwts.parser().verifyWith(key).build();
+        measure("verify, shared parser", () -> parser.parseSignedClaims(token));
+
+        measure("filter, no token cache", filterRun(new VerifiedTokenCache(0), token));
+        measure("filter, verified-token cache", filterRun(new VerifiedTokenCache(10_000), token));
+    }
+
+    private Runnable filterRun(VerifiedTokenCache cache, String token) {
+        TokenRevocationService revocationService = new TokenRevocationService(Mockito.mock(RevocationRepository.class), cache, event -> {}, 604800000L);
+        JwtService jwtService = newJwtService(cache, revocationService);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, revocationService);
+        ReflectionTestUtils.setField(filter, "cookieName", "accessToken");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/buildings/1/notices");
+        request.setCookies(new Cookie("accessToken", token));
+        FilterChain chain = (req, res) -> {};
+
+        return () -> {
+            try {
+                filter.doFilter(request, new MockHttpServletResponse(), chain);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    private void measure(String label, Runnable request) {
+        for (int i = 0; i < WARMUP; i++) request.run();
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < REQUESTS; i++) request.run();
+
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        System.out.printf("JWT (%s): %.2f us/request, %d bytes allocated per request%n",
+                label, elapsedNanos / 1e3 / REQUESTS, allocated / REQUESTS);
+    }
+
+    private JwtService newJwtService(VerifiedTokenCache cache) {
+        return newJwtService(cache, new TokenRevocationService(Mockito.mock(RevocationRepository.class), cache, event -> {}, 604800000L));
+    }
+
+    private JwtService newJwtService(VerifiedTokenCache cache, TokenRevocationService revocationService) {
+        BuildingMembershipIndex index = Mockito.mock(BuildingMembershipIndex.class);
+        Mockito.when(index.membership(7L)).thenReturn(new Membership(Set.of(1), Map.of(20L, new OwnedUnit(1, true))));
+
+        JwtService jwtService = new JwtService(index, revocationService, cache);
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "shortExpiration", 3600000L);
+        ReflectionTestUtils.setField(jwtService, "rememberMeExpiration", 604800000L);
+        ReflectionTestUtils.setField(jwtService, "cookieName", "accessToken");
+        jwtService.init();
+        return jwtService;
+    }
+
+    private UserPrincipal principal() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("bench@example.com");
+        user.setRole(UserRole.USER);
+        return new UserPrincipal(user);
+    }
+}
@@ -0,0 +1,143 @@
+package com.smartentrance.backend.benchmark;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the latency of a cheap authenticated endpoint (GET /api/auth/me) on its own, then again while a pool of
+ * clients floods POST /api/auth/login with valid credentials. With the bounded hashing pool the probe's p99 should
+ * stay close to the baseline and the surplus logins should come back as 429. To see the unprotected behaviour,
+ * rerun with {@code -Dlogin-protection.hashing-threads=64 -Dlogin-protection.hashing-queue=10000}.
+ * Run with {@code mvn test -Dtest=LoginFloodLoadTest -Dbenchmark=true [-DfloodClients=64 -DphaseSeconds=10]}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties =
+        "spring.datasource.url=jdbc:h2:mem:login-flood;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoginFloodLoadTest {
+
+    private static final int FLOOD_CLIENTS = Integer.getInteger("floodClients", 64);
+    private static final long PHASE_MS = Integer.getInteger("phaseSeconds", 10) * 1000L;
+    private static final int ACCOUNTS = 20;
+    private static final long PROBE_INTERVAL_MS = 5;
+    private static final String PASSWORD = "flood-password";
+
+    @Value("${local.server.port}") int port;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @Test
+    void probeLatencyDuringLoginFlood() throws Exception {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            HttpResponse<String> created = post("/api/auth/register", """
+                    {"firstName":"Flood","lastName":"User%d","email":"%s","password":"%s","rememberMe":false}"""
+                    .formatted(i, email(i), PASSWORD));
+            Assertions.assertEquals(201, created.statusCode(), created.body());
+        }
+        String cookie = login(0).headers().firstValue("Set-Cookie").orElseThrow().split(";", 2)[0];
+
+        long[] baseline = probe(cookie, PHASE_MS, new AtomicLong());
+
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        Map<Integer, AtomicLong> loginStatuses = new ConcurrentHashMap<>();
+        List<Long> loginMs = new ArrayList<>();
+        ExecutorService flood = Executors.newFixedThreadPool(FLOOD_CLIENTS, Thread.ofPlatform().name("flood-", 0).factory());
+        for (int c = 0; c < FLOOD_CLIENTS; c++) {
+            int account = c % ACCOUNTS;
+            flood.submit(() -> {
+                List<Long> local = new ArrayList<>();
+                while (flooding.get()) {
+                    long start = System.nanoTime();
+                    int status = login(account).statusCode();
+                    local.add((System.nanoTime() - start) / 1_000_000);
+                    loginStatuses.computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+                }
+                synchronized (loginMs) {
+                    loginMs.addAll(local);
+                }
+                return null;
+            });
+        }
+
+        Thread.sleep(1000);
+        AtomicLong probeFailures = new AtomicLong();
+        long[] underFlood = probe(cookie, PHASE_MS, probeFailures);
+        flooding.set(false);
+        flood.shutdown();
+        Assertions.assertTrue(flood.awaitTermination(60, TimeUnit.SECONDS));
+
+        System.out.println("Login flood: " + FLOOD_CLIENTS + " clients, " + ACCOUNTS + " accounts, "
+                + (PHASE_MS / 1000) + " s per phase, login statuses " + loginStatuses);
+        System.out.println("  GET /api/auth/me baseline ms: " + percentiles(baseline));
+        System.out.println("  GET /api/auth/me under flood ms: " + percentiles(underFlood));
+        System.out.println("  POST /api/auth/login ms: " + percentiles(loginMs.stream().mapToLong(Long::longValue).sorted().toArray()));
+
+        Assertions.assertEquals(0, probeFailures.get());
+    }
+
+    private long[] probe(String cookie, long durationMs, AtomicLong failures) throws Exception {
+        HttpRequest me = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/me"))
+                .header("Cookie", cookie)
+                .GET().build();
+
+        List<Long> samples = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + durationMs;
+        while (System.currentTimeMillis() < deadline) {
+            long start = System.nanoTime();
+            int status = client.send(me, HttpResponse.BodyHandlers.discarding()).statusCode();
+            samples.add((System.nanoTime() - start) / 1_000_000);
+            if (status != 200) failures.incrementAndGet();
+            Thread.sleep(PROBE_INTERVAL_MS);
+        }
+        return samples.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private HttpResponse<String> login(int account) throws Exception {
+        return post("/api/auth/login", """
+                {"email":"%s","password":"%s","rememberMe":false}""".formatted(email(account), PASSWORD));
+    }
+
+    private HttpResponse<String> post(String path, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String email(int account) {
+        return "flood" + account + "@load.test";
+    }
+
+    private static String percentiles(long[] sorted) {
+        if (sorted.length == 0) return "n/a";
+        return "p50 " + percentile(sorted, 50) + ", p95 " + percentile(sorted, 95)
+                + ", p99 " + percentile(sorted, 99) + ", max " + sorted[sorted.length - 1]
+                + " (n=" + sorted.length + ", mean " + (long) Arrays.stream(sorted).average().orElse(0) + ")";
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,78 @@
+package com.smartentrance.backend.benchmark;
+
+import com.smartentrance.backend.model.Building;
+import com.smartentrance.backend.model.Transaction;
+import com.smartentrance.backend.model.Unit;
+import com.smartentrance.backend.model.User;
+import com.smartentrance.backend.model.enums.FundType;
+import com.smartentrance.backend.model.enums.PaymentMethod;
+import com.smartentrance.backend.model.enums.TransactionStatus;
+import com.smartentrance.backend.model.enums.TransactionType;
+import com.smartentrance.backend.service.PdfReceiptService;
+import com.smartentrance.backend.service.PdfStyles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+/**
+ * Compares rendering with a freshly loaded font per receipt (the old behaviour) against the shared renderer.
+ * Run with {@code mvn test -Dtest=PdfReceiptBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PdfReceiptBenchmarkTest {
+
+    private static final int WARMUP = 200;
+    private static final int RECEIPTS = 1_000;
+
+    @Test
+    void compareReceiptRendering() {
+        Transaction transaction = sampleTransaction();
+        PdfReceiptService shared = new PdfReceiptService("EUR", new PdfStyles());
+
+        measure("font per receipt", () -> new PdfReceiptService("EUR", new PdfStyles()), transaction);
+        measure("shared resources", () -> shared, transaction);
+    }
+
+    private void measure(String label, Supplier<PdfReceiptService> renderer, Transaction transaction) {
+        for (int i = 0; i < WARMUP; i++) renderer.get().generateReceipt(transaction, null);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        long bytes = 0;
+        for (int i = 0; i < RECEIPTS; i++) bytes += renderer.get().generateReceipt(transaction, null).length;
+
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        System.out.printf("Receipts (%s): %.0f receipts/s, %d KB allocated per receipt, %d bytes per PDF%n",
+                label, RECEIPTS * 1e9 / elapsedNanos, allocated / RECEIPTS / 1024, bytes / RECEIPTS);
+    }
+
+    private Transaction sampleTransaction() {
+        Building building = new Building();
+        building.setName("Benchmark Residence");
+        building.setAddress("1 Vitosha Blvd, Sofia");
+
+        Unit unit = new Unit();
+        unit.setUnitNumber(12);
+        unit.setBuilding(building);
+
+        Transaction transaction = new Transaction();
+        transaction.setId(42L);
+        transaction.setUnit(unit);
+        transaction.setResponsibleUser(new User());
+        transaction.setAmount(new BigDecimal("125.50"));
+        transaction.setType(TransactionType.PAYMENT);
+        transaction.setPaymentMethod(PaymentMethod.BANK_TRANSFER);
+        transaction.setFundType(FundType.MAINTENANCE);
+        transaction.setDescription("Monthly fee / Месечна такса");
+        transaction.setReferenceId("AP-12");
+        transaction.setStatus(TransactionStatus.CONFIRMED);
+        return transaction;
+    }
+}
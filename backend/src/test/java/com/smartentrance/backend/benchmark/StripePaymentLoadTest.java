@@ -0,0 +1,138 @@
+package com.smartentrance.backend.benchmark;
+
+import com.smartentrance.backend.TestUtils;
+import com.smartentrance.backend.model.Unit;
+import com.smartentrance.backend.model.enums.UserRole;
+import com.smartentrance.backend.payment.emulator.StripeEmulator;
+import com.smartentrance.backend.service.FinanceService;
+import com.stripe.Stripe;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * Replays card payments against the local Stripe emulator at a fixed rate: create intent, confirm, signed webhook,
+ * inbox worker, booked transaction. Reports webhook acknowledgement and end-to-end booking latency percentiles.
+ * Run with {@code mvn test -Dtest=StripePaymentLoadTest -Dbenchmark=true [-Dpayments=5000 -DpaymentsPerMinute=6000]}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:stripe-load;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "stripe-emulator.webhook-url="
+})
+@ActiveProfiles({"test", "stripe-emulator"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StripePaymentLoadTest {
+
+    private static final int PAYMENTS = Integer.getInteger("payments", 3000);
+    private static final int PAYMENTS_PER_MINUTE = Integer.getInteger("paymentsPerMinute", 6000);
+    private static final int UNITS = 50;
+    private static final long TIMEOUT_MS = 300_000;
+
+    @Value("${local.server.port}") int port;
+    @Autowired TestUtils helper;
+    @Autowired FinanceService financeService;
+    @Autowired StripeEmulator emulator;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void replayPayments() throws Exception {
+        Stripe.overrideApiBase("http://localhost:" + port + "/stripe-emulator");
+        emulator.reset();
+        List<Unit> units = IntStream.range(0, UNITS).mapToObj(i -> helper.createReadyUnit()).toList();
+
+        Map<String, Long> confirmedAt = new ConcurrentHashMap<>();
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(16);
+        long intervalNanos = TimeUnit.MINUTES.toNanos(1) / PAYMENTS_PER_MINUTE;
+
+        long start = System.nanoTime();
+        List<Future<?>> submitted = new ArrayList<>(PAYMENTS);
+        for (int i = 0; i < PAYMENTS; i++) {
+            Unit unit = units.get(i % UNITS);
+            submitted.add(scheduler.schedule(() -> pay(unit, confirmedAt), i * intervalNanos, TimeUnit.NANOSECONDS));
+        }
+        for (Future<?> f : submitted) f.get();
+        scheduler.shutdown();
+
+        await(() -> emulator.deliveries().size() >= PAYMENTS);
+        await(() -> bookedCount() >= PAYMENTS);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        List<StripeEmulator.Delivery> deliveries = emulator.deliveries();
+        long[] ackMs = deliveries.stream().mapToLong(d -> d.ackNanos() / 1_000_000).sorted().toArray();
+        long failed = deliveries.stream().filter(d -> d.status() != 200).count();
+
+        long[] bookedMs = jdbcTemplate.query(
+                        "SELECT reference_id, created_at FROM transactions WHERE payment_method = 'STRIPE' AND type = 'PAYMENT'",
+                        (rs, row) -> rs.getTimestamp("created_at").getTime() - confirmedAt.get(rs.getString("reference_id")))
+                .stream().mapToLong(Long::longValue).sorted().toArray();
+
+        System.out.println("Stripe load: " + PAYMENTS + " payments in " + elapsedMs + " ms ("
+                + (PAYMENTS * 60_000L / Math.max(elapsedMs, 1)) + "/min, target " + PAYMENTS_PER_MINUTE + "/min), "
+                + failed + " webhook failures");
+        System.out.println("  webhook ack ms: " + percentiles(ackMs));
+        System.out.println("  confirm to booked ms: " + percentiles(bookedMs));
+
+        Assertions.assertEquals(0, failed);
+        Assertions.assertEquals(PAYMENTS, bookedMs.length);
+    }
+
+    private Void pay(Unit unit, Map<String, Long> confirmedAt) throws StripeException {
+        TestUtils.authenticate(unit.getResponsibleUser().getId(), UserRole.USER);
+        try {
+            String secret = financeService.initiateStripeDeposit(unit.getId(), new BigDecimal("25.00"), null);
+            String intentId = secret.substring(0, secret.indexOf("_secret_"));
+
+            confirmedAt.put(intentId, System.currentTimeMillis());
+            PaymentIntent.retrieve(intentId).confirm();
+            return null;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private long bookedCount() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE payment_method = 'STRIPE' AND type = 'PAYMENT'", Long.class);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) Assertions.fail("Timed out waiting for the payment pipeline");
+            Thread.sleep(100);
+        }
+    }
+
+    private static String percentiles(long[] sorted) {
+        if (sorted.length == 0) return "n/a";
+        return "p50 " + percentile(sorted, 50) + ", p95 " + percentile(sorted, 95)
+                + ", p99 " + percentile(sorted, 99) + ", max " + sorted[sorted.length - 1]
+                + " (n=" + sorted.length + ", mean " + (long) Arrays.stream(sorted).average().orElse(0) + ")";
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
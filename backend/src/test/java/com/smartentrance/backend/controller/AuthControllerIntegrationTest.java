@@ -41,4 +41,38 @@ class AuthControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(cookie().exists("accessToken"));
     }
+
+    @Test
+    void testLogin_RepeatedFailuresAreThrottledPerAddress() throws Exception {
+        UserRegisterRequest reg = new UserRegisterRequest("Brute", "Force", "brute@test.com", "123456", false);
+
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reg)))
+                .andExpect(status().isCreated());
+
+        LoginRequest wrong = new LoginRequest("brute@test.com", "wrong-password", false);
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(wrong)))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        LoginRequest correct = new LoginRequest("brute@test.com", "123456", false);
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(correct)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.2");
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(correct)))
+                .andExpect(status().isOk());
+    }
 }
@@ -8,11 +8,13 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.mockito.ArgumentMatchers.any;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -41,4 +43,15 @@ class BuildingControllerTest {
                         .with(TestUtils.mockUser(11L, UserRole.USER)))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    void testUpdateBudget_RejectsPartialAllocationOrder() throws Exception {
+        mockMvc.perform(put("/api/buildings/1/budget")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fundAllocationOrder\": [\"REPAIR\"]}")
+                        .with(TestUtils.mockUser(10L, UserRole.USER)))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(buildingService, Mockito.never()).updateBuildingBudgets(any(), any(), any());
+    }
 }
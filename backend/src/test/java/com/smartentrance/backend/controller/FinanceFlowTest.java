@@ -1,23 +1,65 @@
 package com.smartentrance.backend.controller;
 
 import com.smartentrance.backend.TestUtils;
+import com.smartentrance.backend.dto.enums.ExportFormat;
+import com.smartentrance.backend.dto.enums.StatementFormat;
+import com.smartentrance.backend.dto.finance.StatementImportReport;
+import com.smartentrance.backend.dto.finance.StatementRunResult;
+import com.smartentrance.backend.dto.finance.BatchDecisionResult;
+import com.smartentrance.backend.dto.finance.FinancialTotals;
+import com.smartentrance.backend.dto.finance.TransactionCursor;
+import com.smartentrance.backend.model.StripeInboxEvent;
+import com.smartentrance.backend.model.Transaction;
+import com.smartentrance.backend.model.enums.InboxStatus;
+import com.smartentrance.backend.payment.StripeEventHandler;
+import com.smartentrance.backend.payment.StripeInboxService;
+import com.stripe.Stripe;
+import com.stripe.exception.StripeException;
 import com.smartentrance.backend.model.Unit;
+import com.smartentrance.backend.model.enums.FundType;
+import com.smartentrance.backend.model.enums.PaymentMethod;
+import com.smartentrance.backend.model.enums.TransactionStatus;
 import com.smartentrance.backend.model.enums.UserRole;
 import com.smartentrance.backend.model.enums.TransactionType;
+import com.smartentrance.backend.repository.StripeInboxRepository;
+import com.smartentrance.backend.repository.TransactionRepository;
+import com.smartentrance.backend.model.PeriodClose;
+import com.smartentrance.backend.model.UnitPeriodBalance;
+import com.smartentrance.backend.service.BalanceLedgerService;
+import com.smartentrance.backend.service.BankStatementImportService;
+import com.smartentrance.backend.service.FinanceService;
+import com.smartentrance.backend.service.FileStorageService;
+import com.smartentrance.backend.service.LedgerExportService;
+import com.smartentrance.backend.service.MonthlyStatementService;
+import com.smartentrance.backend.service.PeriodCloseService;
+import com.smartentrance.backend.service.PaymentReferences;
+import com.smartentrance.backend.service.ReceiptService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
 
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -28,6 +70,19 @@ class FinanceFlowTest {
 
     @Autowired MockMvc mockMvc;
     @Autowired TestUtils helper;
+    @Autowired BalanceLedgerService balanceLedgerService;
+    @Autowired TransactionRepository transactionRepository;
+    @Autowired PeriodCloseService periodCloseService;
+    @Autowired LedgerExportService ledgerExportService;
+    @Autowired BankStatementImportService bankStatementImportService;
+    @Autowired FinanceService financeService;
+    @Autowired ReceiptService receiptService;
+    @Autowired MonthlyStatementService monthlyStatementService;
+    @Autowired StripeInboxService stripeInboxService;
+    @Autowired StripeEventHandler stripeEventHandler;
+    @Autowired StripeInboxRepository stripeInboxRepository;
+    @Autowired FileStorageService fileStorageService;
+    @Autowired JsonMapper jsonMapper;
 
     @Test
     void testGetBalance_CalculatesCorrectly() throws Exception {
@@ -46,4 +101,457 @@ class FinanceFlowTest {
                     Assertions.assertEquals(0, new BigDecimal("60").compareTo(new BigDecimal(content)));
                 });
     }
+
+    @Test
+    void testRebuildLedger_MatchesRecordedBalance() {
+        Unit unit = helper.createReadyUnit();
+
+        helper.addTx(unit, 100.00, TransactionType.FEE);
+        helper.addTx(unit, 40.00, TransactionType.PAYMENT);
+
+        Long userId = unit.getResponsibleUser().getId();
+        BigDecimal recorded = balanceLedgerService.getBalance(unit.getId(), userId);
+
+        balanceLedgerService.rebuild();
+
+        Assertions.assertEquals(0, recorded.compareTo(balanceLedgerService.getBalance(unit.getId(), userId)));
+        Assertions.assertEquals(0, new BigDecimal("60").compareTo(recorded));
+    }
+
+    @Test
+    void testBuildingTotals_MatchPerDimensionQueries() {
+        Unit unit = helper.createReadyUnit();
+        helper.addTx(unit, 100.00, TransactionType.FEE);
+
+        Transaction payment = new Transaction();
+        payment.setUnit(unit);
+        payment.setResponsibleUser(unit.getResponsibleUser());
+        payment.setAmount(new BigDecimal("-70.00"));
+        payment.setType(TransactionType.PAYMENT);
+        payment.setPaymentMethod(PaymentMethod.CASH);
+        payment.setStatus(TransactionStatus.CONFIRMED);
+        payment.addSplit(FundType.REPAIR, new BigDecimal("-30.00"));
+        payment.addSplit(FundType.MAINTENANCE, new BigDecimal("-40.00"));
+        transactionRepository.saveAndFlush(payment);
+
+        Integer buildingId = unit.getBuilding().getId();
+        FinancialTotals totals = transactionRepository.sumBuildingTotals(buildingId);
+
+        for (Object[] row : transactionRepository.sumIncomeByFundFromSplits(buildingId)) {
+            Assertions.assertEquals(0, ((BigDecimal) row[1]).compareTo(totals.incomeOf((FundType) row[0])));
+        }
+        for (Object[] row : transactionRepository.sumIncomeByMethod(buildingId)) {
+            Assertions.assertEquals(0, ((BigDecimal) row[1]).compareTo(totals.incomeOf((PaymentMethod) row[0])));
+        }
+        Assertions.assertEquals(0, new BigDecimal("-70.00").compareTo(totals.incomeOf(PaymentMethod.CASH)));
+        Assertions.assertEquals(0, new BigDecimal("-30.00").compareTo(totals.incomeOf(FundType.REPAIR)));
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(totals.expenseOf(FundType.REPAIR)));
+    }
+
+    @Test
+    void testPeriodClose_SnapshotPlusDeltasMatchesFullHistory() {
+        Unit unit = helper.createReadyUnit();
+        Integer buildingId = unit.getBuilding().getId();
+        YearMonth lastMonth = YearMonth.now().minusMonths(1);
+
+        Transaction old = new Transaction();
+        old.setUnit(unit);
+        old.setResponsibleUser(unit.getResponsibleUser());
+        old.setAmount(new BigDecimal("50.00"));
+        old.setType(TransactionType.PAYMENT);
+        old.setPaymentMethod(PaymentMethod.CASH);
+        old.setStatus(TransactionStatus.CONFIRMED);
+        old.setConfirmedAt(PeriodCloseService.endOf(lastMonth).minusSeconds(60));
+        old.addSplit(FundType.REPAIR, new BigDecimal("50.00"));
+        transactionRepository.saveAndFlush(old);
+        balanceLedgerService.record(old);
+
+        PeriodClose close = periodCloseService.closePeriod(buildingId, lastMonth);
+        helper.addTx(unit, 20.00, TransactionType.FEE);
+
+        FinancialTotals current = periodCloseService.currentTotals(buildingId);
+        FinancialTotals full = transactionRepository.sumBuildingTotals(buildingId);
+
+        Assertions.assertEquals(0, full.incomeOf(PaymentMethod.CASH).compareTo(current.incomeOf(PaymentMethod.CASH)));
+        Assertions.assertEquals(0, full.incomeOf(FundType.REPAIR).compareTo(current.incomeOf(FundType.REPAIR)));
+        Assertions.assertEquals(0, full.incomeOf(PaymentMethod.SYSTEM).compareTo(current.incomeOf(PaymentMethod.SYSTEM)));
+
+        UnitPeriodBalance closing = close.getUnitBalances().stream()
+                .filter(b -> b.getFundType() == FundType.GENERAL)
+                .findFirst().orElseThrow();
+        Assertions.assertEquals(0, new BigDecimal("50.00").compareTo(closing.getBalance()));
+        Assertions.assertSame(close, periodCloseService.closePeriod(buildingId, lastMonth));
+    }
+
+    @Test
+    void testTransactionHistory_PagesWithCursor() throws Exception {
+        Unit unit = helper.createReadyUnit();
+        helper.addTx(unit, 10.00, TransactionType.FEE);
+        helper.addTx(unit, 20.00, TransactionType.FEE);
+        helper.addTx(unit, 30.00, TransactionType.FEE);
+
+        Long userId = unit.getResponsibleUser().getId();
+        String url = "/api/units/" + unit.getId() + "/transactions";
+
+        String cursor = mockMvc.perform(get(url).param("size", "2")
+                        .with(TestUtils.mockUser(userId, UserRole.USER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().exists(TransactionCursor.NEXT_CURSOR_HEADER))
+                .andReturn().getResponse().getHeader(TransactionCursor.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get(url).param("size", "2").param("cursor", cursor)
+                        .with(TestUtils.mockUser(userId, UserRole.USER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().doesNotExist(TransactionCursor.NEXT_CURSOR_HEADER));
+
+        mockMvc.perform(get(url).param("size", "500")
+                        .with(TestUtils.mockUser(userId, UserRole.USER)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSave_TruncatesTimestampsToStoredPrecision() {
+        Unit unit = helper.createReadyUnit();
+        Transaction t = pendingTransfer(unit, "5.00");
+        t.setCreatedAt(Instant.parse("2026-01-01T10:00:00.123456789Z"));
+        t.setStatus(TransactionStatus.CONFIRMED);
+        transactionRepository.saveAndFlush(t);
+
+        Assertions.assertEquals(Instant.parse("2026-01-01T10:00:00.123456Z"), t.getCreatedAt());
+        Assertions.assertEquals(0, t.getConfirmedAt().getNano() % 1000);
+    }
+
+    @Test
+    void testBuildingTransactions_PagesWithCursorPerFilter() throws Exception {
+        Unit unit = helper.createReadyUnit();
+        helper.addTx(unit, 10.00, TransactionType.FEE);
+        helper.addTx(unit, 20.00, TransactionType.FEE);
+        helper.addTx(unit, 30.00, TransactionType.PAYMENT);
+        pendingTransfer(unit, "15.00");
+
+        Long managerId = unit.getBuilding().getManager().getId();
+        String url = "/api/buildings/" + unit.getBuilding().getId() + "/finance/transactions";
+
+        String cursor = mockMvc.perform(get(url).param("size", "3")
+                        .with(TestUtils.mockUser(managerId, UserRole.USER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andReturn().getResponse().getHeader(TransactionCursor.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get(url).param("size", "3").param("cursor", cursor)
+                        .with(TestUtils.mockUser(managerId, UserRole.USER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().doesNotExist(TransactionCursor.NEXT_CURSOR_HEADER));
+
+        mockMvc.perform(get(url).param("type", "FEE")
+                        .with(TestUtils.mockUser(managerId, UserRole.USER)))
+                .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(get(url).param("status", "PENDING")
+                        .with(TestUtils.mockUser(managerId, UserRole.USER)))
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get(url).param("type", "PAYMENT").param("status", "CONFIRMED")
+                        .with(TestUtils.mockUser(managerId, UserRole.USER)))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void testExportLedger_StreamsCsvRows() throws Exception {
+        Unit unit = helper.createReadyUnit();
+        helper.addTx(unit, 12.50, TransactionType.FEE);
+        helper.addTx(unit, 7.50, TransactionType.PAYMENT);
+
+        TestUtils.authenticate(unit.getResponsibleUser().getId(), UserRole.USER);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ledgerExportService.exportLedger(unit.getBuilding().getId(), ExportFormat.CSV,
+                    FinancialTotals.BEGINNING, FinancialTotals.END).writeTo(out);
+
+            String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+            Assertions.assertEquals(3, lines.length);
+            Assertions.assertTrue(lines[0].startsWith("kind,id,date"));
+            Assertions.assertTrue(lines[1].startsWith("TRANSACTION,"));
+            Assertions.assertTrue(lines[1].contains(",12.50,") || lines[1].contains(",12.5,"));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void testExportLedger_StreamsEscapedJsonLines() throws Exception {
+        Unit unit = helper.createReadyUnit();
+        Transaction pending = pendingTransfer(unit, "0.10");
+        pending.setDescription("Rent \"May\"\nsecond line");
+        transactionRepository.flush();
+
+        TestUtils.authenticate(unit.getResponsibleUser().getId(), UserRole.USER);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ledgerExportService.exportLedger(unit.getBuilding().getId(), ExportFormat.NDJSON,
+                    FinancialTotals.BEGINNING, FinancialTotals.END).writeTo(out);
+
+            String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+            Assertions.assertEquals(1, lines.length);
+            JsonNode row = jsonMapper.readTree(lines[0]);
+            Assertions.assertEquals("Rent \"May\"\nsecond line", row.get("description").asString());
+            Assertions.assertTrue(lines[0].contains("\"amount\":0.10,"));
+            Assertions.assertTrue(row.get("reference").isNull());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void testExportLedger_GetsItsOwnAsyncTimeout() throws Exception {
+        Unit unit = helper.createReadyUnit();
+
+        mockMvc.perform(get("/api/buildings/" + unit.getBuilding().getId() + "/finance/export")
+                        .with(TestUtils.mockUser(unit.getResponsibleUser().getId(), UserRole.USER)))
+                .andExpect(request().asyncStarted())
+                .andExpect(result -> Assertions.assertEquals(BuildingFinanceController.EXPORT_TIMEOUT.toMillis(),
+                        result.getRequest().getAsyncContext().getTimeout()));
+    }
+
+    @Test
+    void testMonthlyStatements_RendersOnePdfPerUnitOrCombined() throws Exception {
+        Unit unit = helper.createReadyUnit();
+        helper.addTx(unit, 12.50, TransactionType.FEE);
+        helper.addTx(unit, 7.50, TransactionType.PAYMENT);
+
+        TestUtils.authenticate(unit.getResponsibleUser().getId(), UserRole.USER);
+        try {
+            Integer buildingId = unit.getBuilding().getId();
+
+            StatementRunResult perUnit = monthlyStatementService.generateStatements(buildingId, YearMonth.now(), false);
+            Assertions.assertEquals(1, perUnit.units());
+            Assertions.assertEquals(1, perUnit.files().size());
+            Assertions.assertTrue(perUnit.files().getFirst().endsWith("-unit-" + unit.getUnitNumber() + ".pdf"));
+            Assertions.assertTrue(fileStorageService.loadFileAsResource(perUnit.files().getFirst()).contentLength() > 1000);
+
+            StatementRunResult combined = monthlyStatementService.generateStatements(buildingId, YearMonth.now(), true);
+            Assertions.assertEquals(1, combined.units());
+            Assertions.assertEquals(1, combined.files().size());
+            Assertions.assertTrue(fileStorageService.loadFileAsResource(combined.files().getFirst()).contentLength() > 1000);
+
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> monthlyStatementService.generateStatements(buildingId, YearMonth.now().plusMonths(1), false));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void testImportBankStatement_ApprovesMatchesAndReportsTheRest() throws Exception {
+        Unit unit = helper.createReadyUnit();
+        helper.addTx(unit, 30.00, TransactionType.FEE);
+
+        Transaction pending = new Transaction();
+        pending.setUnit(unit);
+        pending.setResponsibleUser(unit.getResponsibleUser());
+        pending.setAmount(new BigDecimal("30.00"));
+        pending.setType(TransactionType.PAYMENT);
+        pending.setPaymentMethod(PaymentMethod.BANK_TRANSFER);
+        pending.setStatus(TransactionStatus.PENDING);
+        pending.setReferenceId("AP-12");
+        transactionRepository.saveAndFlush(pending);
+
+        String csv = "reference,amount\nPayment AP-12,30.00\nAP-12,99.00\n";
+
+        TestUtils.authenticate(unit.getResponsibleUser().getId(), UserRole.USER);
+        try {
+            StatementImportReport report = bankStatementImportService.importStatement(unit.getBuilding().getId(),
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), StatementFormat.CSV,
+                    unit.getResponsibleUser());
+
+            Assertions.assertEquals(2, report.linesRead());
+            Assertions.assertEquals(1, report.matched());
+            Assertions.assertEquals(1, report.unmatchedCount());
+            Assertions.assertEquals(3, report.unmatched().getFirst().lineNumber());
+            Assertions.assertEquals(TransactionStatus.CONFIRMED, pending.getStatus());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void testImportBankStatement_LeavesAmbiguousReferencesPending() throws Exception {
+        Unit unit = helper.createReadyUnit();
+        Transaction first = pendingTransfer(unit, "20.00");
+        first.setReferenceId("AP-21");
+        Transaction second = pendingTransfer(unit, "20.00");
+        second.setReferenceId("AP-22");
+        transactionRepository.flush();
+
+        String csv = "reference,amount\nAP-21 / AP-22,20.00\n";
+
+        TestUtils.authenticate(unit.getResponsibleUser().getId(), UserRole.USER);
+        try {
+            StatementImportReport report = bankStatementImportService.importStatement(unit.getBuilding().getId(),
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), StatementFormat.CSV,
+                    unit.getResponsibleUser());
+
+            Assertions.assertEquals(0, report.matched());
+            Assertions.assertEquals("Reference matches more than one pending transfer", report.unmatched().getFirst().reason());
+            Assertions.assertEquals(TransactionStatus.PENDING, first.getStatus());
+            Assertions.assertEquals(TransactionStatus.PENDING, second.getStatus());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void testBatchApprove_ConfirmsPendingAndSkipsOthers() {
+        Unit unit = helper.createReadyUnit();
+        Unit otherBuildingUnit = helper.createReadyUnit();
+        helper.addTx(unit, 50.00, TransactionType.FEE);
+
+        Transaction first = pendingTransfer(unit, "25.00");
+        Transaction second = pendingTransfer(unit, "25.00");
+        Transaction foreign = pendingTransfer(otherBuildingUnit, "10.00");
+
+        Long userId = unit.getResponsibleUser().getId();
+        TestUtils.authenticate(userId, UserRole.USER);
+        try {
+            BatchDecisionResult result = financeService.approveTransactions(unit.getBuilding().getId(),
+                    List.of(first.getId(), second.getId(), foreign.getId()), unit.getResponsibleUser());
+
+            Assertions.assertEquals(List.of(first.getId(), second.getId()), result.processed());
+            Assertions.assertEquals(List.of(foreign.getId()), result.skipped());
+            Assertions.assertEquals(TransactionStatus.CONFIRMED, second.getStatus());
+            Assertions.assertEquals(TransactionStatus.PENDING, foreign.getStatus());
+            Assertions.assertEquals(userId, first.getConfirmedBy().getId());
+            Assertions.assertNull(foreign.getConfirmedBy());
+            Assertions.assertEquals(0, new BigDecimal("100.00").compareTo(balanceLedgerService.getBalance(unit.getId(), userId)));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void testReceipt_RenderedOnFirstDownloadAndCached() throws Exception {
+        Unit unit = helper.createReadyUnit();
+        Transaction pending = pendingTransfer(unit, "40.00");
+
+        TestUtils.authenticate(unit.getResponsibleUser().getId(), UserRole.USER);
+        try {
+            Assertions.assertThrows(IllegalStateException.class, () -> receiptService.getReceipt(pending.getId()));
+
+            financeService.approveTransaction(pending.getId(), unit.getResponsibleUser());
+            transactionRepository.flush();
+
+            ReceiptService.Receipt first = receiptService.getReceipt(pending.getId());
+            Assertions.assertTrue(first.content().length > 1000);
+            Assertions.assertEquals(first.key(), receiptService.getReceiptKey(pending.getId()));
+
+            ReceiptService.Receipt second = receiptService.getReceipt(pending.getId());
+            Assertions.assertEquals(first.key(), second.key());
+            Assertions.assertArrayEquals(first.content(), second.content());
+            Assertions.assertTrue(receiptService.getReceiptUrl(pending.getId()).endsWith("/api/transactions/" + pending.getId() + "/receipt/pdf"));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void testDownloadReceipt_NotModifiedWhenETagMatches() throws Exception {
+        Unit unit = helper.createReadyUnit();
+        Transaction pending = pendingTransfer(unit, "15.00");
+        Long userId = unit.getResponsibleUser().getId();
+
+        TestUtils.authenticate(userId, UserRole.USER);
+        String key;
+        try {
+            financeService.approveTransaction(pending.getId(), unit.getResponsibleUser());
+            transactionRepository.flush();
+            key = receiptService.getReceiptKey(pending.getId());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        mockMvc.perform(get("/api/transactions/" + pending.getId() + "/receipt/pdf")
+                        .header("If-None-Match", "\"" + key + "\"")
+                        .with(TestUtils.mockUser(userId, UserRole.USER)))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/transactions/" + pending.getId() + "/receipt/pdf")
+                        .with(TestUtils.mockUser(userId, UserRole.USER)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + key + "\""));
+    }
+
+    @Test
+    void testStripeInbox_DeduplicatesAndRecordsPaymentOnce() throws Exception {
+        Unit unit = helper.createReadyUnit();
+        String payload = """
+                {"id": "evt_test_1", "object": "event", "api_version": "%s", "created": 1700000000,
+                 "type": "payment_intent.succeeded",
+                 "data": {"object": {"id": "pi_test_1", "object": "payment_intent", "amount": 2500,
+                                     "currency": "eur", "metadata": {"unit_id": "%d"}}}}
+                """.formatted(Stripe.API_VERSION, unit.getId());
+
+        Assertions.assertTrue(stripeInboxService.receive("evt_test_1", "payment_intent.succeeded", null, payload));
+        Assertions.assertFalse(stripeInboxService.receive("evt_test_1", "payment_intent.succeeded", null, payload));
+
+        stripeEventHandler.handle(payload);
+        stripeEventHandler.handle(payload);
+
+        Transaction recorded = transactionRepository.findByReferenceId("pi_test_1").orElseThrow();
+        Assertions.assertEquals(0, new BigDecimal("25.00").compareTo(recorded.getAmount()));
+        Assertions.assertEquals(PaymentMethod.STRIPE, recorded.getPaymentMethod());
+        Assertions.assertEquals(PaymentReferences.stripeKey("pi_test_1"), recorded.getIdempotencyKey());
+        Assertions.assertTrue(transactionRepository.existsByIdempotencyKey(recorded.getIdempotencyKey()));
+    }
+
+    @Test
+    void testStripeInbox_PurgesProcessedEventsPastRetention() {
+        StripeInboxEvent old = new StripeInboxEvent("evt_old", "payment_intent.succeeded", null, "{}");
+        old.setStatus(InboxStatus.DONE);
+        old.setProcessedAt(Instant.now().minus(Duration.ofDays(31)));
+        StripeInboxEvent recent = new StripeInboxEvent("evt_recent", "payment_intent.succeeded", null, "{}");
+        recent.setStatus(InboxStatus.DONE);
+        recent.setProcessedAt(Instant.now().minus(Duration.ofDays(1)));
+        StripeInboxEvent failed = new StripeInboxEvent("evt_failed", "payment_intent.succeeded", null, "{}");
+        failed.setStatus(InboxStatus.FAILED);
+        failed.setProcessedAt(Instant.now().minus(Duration.ofDays(31)));
+        stripeInboxRepository.saveAllAndFlush(List.of(old, recent, failed));
+
+        Assertions.assertEquals(1, stripeInboxService.purgeProcessed());
+
+        Assertions.assertFalse(stripeInboxRepository.existsByEventId("evt_old"));
+        Assertions.assertTrue(stripeInboxRepository.existsByEventId("evt_recent"));
+        Assertions.assertTrue(stripeInboxRepository.existsByEventId("evt_failed"));
+    }
+
+    @Test
+    void testStripeEvent_ChargeLookupFailureIsRethrownForRetry() {
+        Unit unit = helper.createReadyUnit();
+        String payload = """
+                {"id": "evt_test_2", "object": "event", "api_version": "%s", "created": 1700000000,
+                 "type": "payment_intent.succeeded",
+                 "data": {"object": {"id": "pi_test_2", "object": "payment_intent", "amount": 2500,
+                                     "currency": "eur", "latest_charge": "ch_test_2",
+                                     "metadata": {"unit_id": "%d"}}}}
+                """.formatted(Stripe.API_VERSION, unit.getId());
+
+        Stripe.overrideApiBase("http://localhost:1");
+        try {
+            Assertions.assertThrows(StripeException.class, () -> stripeEventHandler.handle(payload));
+        } finally {
+            Stripe.overrideApiBase(Stripe.LIVE_API_BASE);
+        }
+        Assertions.assertTrue(transactionRepository.findByReferenceId("pi_test_2").isEmpty());
+    }
+
+    private Transaction pendingTransfer(Unit unit, String amount) {
+        Transaction t = new Transaction();
+        t.setUnit(unit);
+        t.setResponsibleUser(unit.getResponsibleUser());
+        t.setAmount(new BigDecimal(amount));
+        t.setType(TransactionType.PAYMENT);
+        t.setPaymentMethod(PaymentMethod.BANK_TRANSFER);
+        t.setStatus(TransactionStatus.PENDING);
+        return transactionRepository.saveAndFlush(t);
+    }
 }
@@ -0,0 +1,109 @@
+package com.smartentrance.backend.payment;
+
+import com.smartentrance.backend.config.StripeInboxProperties;
+import com.smartentrance.backend.model.StripeInboxEvent;
+import com.smartentrance.backend.model.enums.InboxStatus;
+import com.smartentrance.backend.repository.StripeInboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StripeInboxServiceTest {
+
+    @Mock StripeInboxRepository inboxRepository;
+    @Mock ApplicationEventPublisher eventPublisher;
+
+    SimpleMeterRegistry meterRegistry;
+    StripeInboxService inboxService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        StripeInboxProperties properties = new StripeInboxProperties(2, 3, Duration.ofSeconds(10), Duration.ofSeconds(15),
+                Duration.ofDays(30), Duration.ofDays(90));
+        inboxService = new StripeInboxService(inboxRepository, properties, eventPublisher, meterRegistry);
+    }
+
+    @Test
+    void testReceive_StoresNewEventsAndIgnoresRedeliveries() {
+        when(inboxRepository.existsByEventId("evt_new")).thenReturn(false);
+        when(inboxRepository.existsByEventId("evt_seen")).thenReturn(true);
+        when(inboxRepository.existsByEventId("evt_race")).thenReturn(false);
+        when(inboxRepository.saveAndFlush(any())).thenAnswer(inv -> {
+            StripeInboxEvent e = inv.getArgument(0);
+            if (e.getEventId().equals("evt_race")) throw new DataIntegrityViolationException("uk_stripe_inbox_event");
+            return e;
+        });
+
+        Assertions.assertTrue(inboxService.receive("evt_new", "payment_intent.succeeded", Instant.now(), "{}"));
+        Assertions.assertFalse(inboxService.receive("evt_seen", "payment_intent.succeeded", Instant.now(), "{}"));
+        Assertions.assertFalse(inboxService.receive("evt_race", "payment_intent.succeeded", Instant.now(), "{}"));
+
+        verify(eventPublisher, times(1)).publishEvent(any(StripeEventReceived.class));
+    }
+
+    @Test
+    void testFail_RetriesWithCappedBackoffThenGivesUp() {
+        StripeInboxEvent event = new StripeInboxEvent("evt_1", "payment_intent.succeeded", null, "{}");
+        event.setStatus(InboxStatus.PROCESSING);
+        event.setAttempts(2);
+        when(inboxRepository.findById(1L)).thenReturn(Optional.of(event));
+
+        Instant before = Instant.now();
+        inboxService.fail(1L, new IllegalStateException("db down"));
+
+        Assertions.assertEquals(InboxStatus.PENDING, event.getStatus());
+        Assertions.assertFalse(event.getNextAttemptAt().isBefore(before.plusSeconds(15)));
+        Assertions.assertFalse(event.getNextAttemptAt().isAfter(Instant.now().plusSeconds(15)));
+
+        event.setAttempts(3);
+        inboxService.fail(1L, new IllegalStateException("db down"));
+
+        Assertions.assertEquals(InboxStatus.FAILED, event.getStatus());
+        Assertions.assertEquals(1.0, meterRegistry.get("stripe.inbox.failed").counter().count());
+    }
+
+    @Test
+    void testPurgeProcessed_DeletesPastRetentionInBatches() {
+        when(inboxRepository.deleteProcessedBefore(eq("DONE"), any(), eq(StripeInboxService.PURGE_BATCH_SIZE)))
+                .thenReturn(StripeInboxService.PURGE_BATCH_SIZE, 7);
+        when(inboxRepository.deleteProcessedBefore(eq("FAILED"), any(), eq(StripeInboxService.PURGE_BATCH_SIZE)))
+                .thenReturn(2);
+
+        Instant before = Instant.now();
+        Assertions.assertEquals(StripeInboxService.PURGE_BATCH_SIZE + 9, inboxService.purgeProcessed());
+
+        verify(inboxRepository, times(2)).deleteProcessedBefore(eq("DONE"),
+                argThat(cutoff -> !cutoff.isAfter(before.minus(Duration.ofDays(30)).plusSeconds(5))),
+                eq(StripeInboxService.PURGE_BATCH_SIZE));
+        verify(inboxRepository).deleteProcessedBefore(eq("FAILED"),
+                argThat(cutoff -> cutoff.isBefore(before.minus(Duration.ofDays(89)))),
+                eq(StripeInboxService.PURGE_BATCH_SIZE));
+    }
+
+    @Test
+    void testComplete_RecordsLag() {
+        StripeInboxEvent event = new StripeInboxEvent("evt_1", "payment_intent.succeeded", null, "{}");
+        event.setReceivedAt(Instant.now().minusSeconds(3));
+        when(inboxRepository.findById(1L)).thenReturn(Optional.of(event));
+
+        inboxService.complete(1L);
+
+        Assertions.assertEquals(InboxStatus.DONE, event.getStatus());
+        Assertions.assertEquals(1, meterRegistry.get("stripe.inbox.lag").timer().count());
+    }
+}
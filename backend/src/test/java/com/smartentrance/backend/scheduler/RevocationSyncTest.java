@@ -0,0 +1,47 @@
+package com.smartentrance.backend.scheduler;
+
+import com.smartentrance.backend.model.RevocationEntry;
+import com.smartentrance.backend.repository.RevocationRepository;
+import com.smartentrance.backend.security.TokenRevocationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RevocationSyncTest {
+
+    private final RevocationRepository repository = mock(RevocationRepository.class);
+    private final TokenRevocationService revocationService = mock(TokenRevocationService.class);
+    private final RevocationSync sync = new RevocationSync(repository, revocationService);
+
+    RevocationSyncTest() {
+        ReflectionTestUtils.setField(sync, "rememberMeExpiration", 604800000L);
+    }
+
+    @Test
+    void testPoll_RereadsFromNewestChangeMinusLookback() {
+        Instant changed = Instant.parse("2026-10-18T10:00:00Z");
+        RevocationEntry remote = new RevocationEntry(7L, changed.toEpochMilli(), null, changed);
+        when(repository.findAllByChangedAtGreaterThanEqual(any())).thenReturn(List.of(remote));
+
+        sync.loadRecent();
+        sync.poll();
+
+        verify(repository).findAllByChangedAtGreaterThanEqual(changed.minus(RevocationSync.LOOKBACK));
+        verify(revocationService, times(2)).apply(remote);
+    }
+
+    @Test
+    void testCleanup_DeletesInBatchesUntilShortBatch() {
+        when(repository.deleteOlderThan(anyLong(), eq(RevocationSync.CLEANUP_BATCH_SIZE)))
+                .thenReturn(RevocationSync.CLEANUP_BATCH_SIZE, RevocationSync.CLEANUP_BATCH_SIZE, 12);
+
+        sync.cleanup();
+
+        verify(repository, times(3)).deleteOlderThan(anyLong(), eq(RevocationSync.CLEANUP_BATCH_SIZE));
+    }
+}
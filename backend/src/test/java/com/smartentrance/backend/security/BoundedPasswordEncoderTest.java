@@ -0,0 +1,70 @@
+package com.smartentrance.backend.security;
+
+import com.smartentrance.backend.config.LoginProtectionProperties;
+import com.smartentrance.backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BlockingEncoder(release),
+            new LoginProtectionProperties(1, 1, Duration.ofSeconds(5), 5, 30, 50,
+                    Duration.ofMinutes(15), Duration.ofSeconds(1), Duration.ofMinutes(15)),
+            meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void testEncode_RunsOnHashingPool() {
+        release.countDown();
+        Assertions.assertTrue(encoder.encode("secret").startsWith("password-hash-"));
+        Assertions.assertTrue(encoder.matches("secret", "secret"));
+    }
+
+    @Test
+    void testEncode_FullQueueFailsFast() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        Thread.sleep(200);
+
+        long start = System.nanoTime();
+        Assertions.assertThrows(TooManyRequestsException.class, () -> encoder.encode("c"));
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+        Assertions.assertEquals(1.0, meterRegistry.get("auth.login.throttled").tag("reason", "hashing").counter().count());
+
+        release.countDown();
+        Assertions.assertNotNull(running.get(5, TimeUnit.SECONDS));
+        Assertions.assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private record BlockingEncoder(CountDownLatch release) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Thread.currentThread().getName() + ":" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
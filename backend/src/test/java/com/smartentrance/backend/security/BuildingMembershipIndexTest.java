@@ -0,0 +1,89 @@
+package com.smartentrance.backend.security;
+
+import com.smartentrance.backend.config.MembershipCacheProperties;
+import com.smartentrance.backend.model.User;
+import com.smartentrance.backend.repository.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+class BuildingMembershipIndexTest {
+
+    private final BuildingRepository buildingRepository = mock(BuildingRepository.class);
+    private final UnitRepository unitRepository = mock(UnitRepository.class);
+    private final VotesPollRepository pollRepository = mock(VotesPollRepository.class);
+    private final TokenRevocationService revocationService = mock(TokenRevocationService.class);
+
+    private BuildingMembershipIndex index;
+    private BuildingSecurity security;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        index = new BuildingMembershipIndex(buildingRepository, unitRepository, pollRepository,
+                mock(NoticeRepository.class), mock(DocumentRepository.class), mock(TransactionRepository.class),
+                revocationService,
+                new MembershipCacheProperties(Duration.ofMinutes(5), 100, 100));
+        security = new BuildingSecurity(index);
+        user = new User();
+        user.setId(7L);
+
+        when(buildingRepository.findIdsByManagerId(7L)).thenReturn(List.of(1));
+        when(unitRepository.findMembershipRows(7L)).thenReturn(List.<Object[]>of(new Object[]{20L, 2, true}));
+        when(unitRepository.findBuildingIdById(10L)).thenReturn(Optional.of(1));
+        when(pollRepository.findBuildingIdById(3)).thenReturn(Optional.of(2));
+    }
+
+    @Test
+    void testChecks_LoadMembershipOnce() {
+        Assertions.assertTrue(security.isManager(1, user));
+        Assertions.assertTrue(security.canManageUnit(10L, user));
+        Assertions.assertTrue(security.hasAccess(2, user));
+        Assertions.assertTrue(security.canVote(3, 20L, user));
+        Assertions.assertFalse(security.isManager(2, user));
+        Assertions.assertFalse(security.canVote(3, 10L, user));
+
+        verify(buildingRepository, times(1)).findIdsByManagerId(7L);
+        verify(unitRepository, times(1)).findMembershipRows(7L);
+        Mockito.verify(unitRepository, never()).findById(any());
+    }
+
+    @Test
+    void testMembershipChanged_ReloadsMembership() {
+        Assertions.assertTrue(security.isManager(1, user));
+
+        when(buildingRepository.findIdsByManagerId(7L)).thenReturn(List.of());
+        Assertions.assertTrue(security.isManager(1, user));
+
+        index.membershipChanged(7L, null);
+        Assertions.assertFalse(security.isManager(1, user));
+        verify(revocationService).membershipChanged(7L);
+    }
+
+    @Test
+    void testMembershipVersionAdvanced_ReloadsMembershipWithoutNewVersion() {
+        Assertions.assertTrue(security.isManager(1, user));
+
+        when(buildingRepository.findIdsByManagerId(7L)).thenReturn(List.of());
+        index.onMembershipVersionAdvanced(new MembershipVersionAdvanced(7L));
+
+        Assertions.assertFalse(security.isManager(1, user));
+        verify(revocationService, never()).membershipChanged(any());
+    }
+
+    @Test
+    void testMissingTargets_AreDeniedAndNotCached() {
+        Assertions.assertFalse(security.canManageUnit(99L, user));
+        Assertions.assertFalse(security.canManageUnit(99L, user));
+        Assertions.assertFalse(security.canManageUnit(null, user));
+
+        verify(unitRepository, times(2)).findBuildingIdById(99L);
+    }
+}
@@ -0,0 +1,95 @@
+package com.smartentrance.backend.security;
+
+import com.smartentrance.backend.model.User;
+import com.smartentrance.backend.model.enums.UserRole;
+import com.smartentrance.backend.repository.RevocationRepository;
+import com.smartentrance.backend.security.BuildingMembershipIndex.Membership;
+import com.smartentrance.backend.security.BuildingMembershipIndex.OwnedUnit;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.*;
+
+class JwtServiceTest {
+
+    private final BuildingMembershipIndex membershipIndex = mock(BuildingMembershipIndex.class);
+    private final VerifiedTokenCache verifiedTokens = new VerifiedTokenCache(100);
+    private final TokenRevocationService revocationService = new TokenRevocationService(mock(RevocationRepository.class), verifiedTokens, event -> {}, 604800000L);
+    private final JwtService jwtService = new JwtService(membershipIndex, revocationService, verifiedTokens);
+
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtService, "secretKey", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(jwtService, "shortExpiration", 3600000L);
+        ReflectionTestUtils.setField(jwtService, "rememberMeExpiration", 604800000L);
+        jwtService.init();
+
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("owner@example.com");
+        user.setRole(UserRole.USER);
+        principal = new UserPrincipal(user);
+    }
+
+    @Test
+    void testGenerateToken_EmbedsMembershipClaims() {
+        Membership membership = new Membership(Set.of(1), Map.of(20L, new OwnedUnit(2, true)));
+        when(membershipIndex.membership(7L)).thenReturn(membership);
+
+        Claims claims = jwtService.validateAndGetClaims(jwtService.generateToken(principal, false));
+
+        Assertions.assertEquals(membership, jwtService.getMembership(claims));
+        Assertions.assertTrue(revocationService.isMembershipCurrent(7L, jwtService.getMembershipVersion(claims)));
+    }
+
+    @Test
+    void testMembershipChanged_OutdatesTokenUntilRefreshed() {
+        when(membershipIndex.membership(7L)).thenReturn(new Membership(Set.of(), Map.of()));
+        Claims claims = jwtService.validateAndGetClaims(jwtService.generateToken(principal, true));
+
+        revocationService.membershipChanged(7L);
+        Assertions.assertFalse(revocationService.isMembershipCurrent(7L, jwtService.getMembershipVersion(claims)));
+
+        Membership joined = new Membership(Set.of(), Map.of(20L, new OwnedUnit(2, false)));
+        when(membershipIndex.membership(7L)).thenReturn(joined);
+        Claims refreshed = jwtService.validateAndGetClaims(jwtService.refreshToken(claims));
+
+        Assertions.assertTrue(revocationService.isMembershipCurrent(7L, jwtService.getMembershipVersion(refreshed)));
+        Assertions.assertEquals(joined, jwtService.getMembership(refreshed));
+        Assertions.assertEquals(claims.getExpiration(), refreshed.getExpiration());
+        Assertions.assertEquals(7L, jwtService.getUserId(refreshed));
+    }
+
+    @Test
+    void testValidateAndGetClaims_ServesRepeatedTokenFromCache() {
+        when(membershipIndex.membership(7L)).thenReturn(new Membership(Set.of(), Map.of()));
+        String token = jwtService.generateToken(principal, false);
+
+        Claims first = jwtService.validateAndGetClaims(token);
+        Assertions.assertSame(first, jwtService.validateAndGetClaims(token));
+
+        revocationService.revokeUser(7L);
+        Assertions.assertNotSame(first, jwtService.validateAndGetClaims(token));
+    }
+
+    @Test
+    void testGenerateToken_LeavesOutLargeMemberships() {
+        Set<Integer> buildings = IntStream.rangeClosed(1, JwtService.MAX_MEMBERSHIP_CLAIMS + 1).boxed().collect(Collectors.toSet());
+        when(membershipIndex.membership(7L)).thenReturn(new Membership(buildings, Map.of()));
+
+        Claims claims = jwtService.validateAndGetClaims(jwtService.generateToken(principal, false));
+
+        Assertions.assertNull(jwtService.getMembership(claims));
+        Assertions.assertNotNull(jwtService.getMembershipVersion(claims));
+    }
+}
@@ -0,0 +1,76 @@
+package com.smartentrance.backend.security;
+
+import com.smartentrance.backend.config.LoginProtectionProperties;
+import com.smartentrance.backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+class LoginThrottleTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final LoginProtectionProperties properties = new LoginProtectionProperties(2, 32, Duration.ofSeconds(2),
+            3, 10, 25, Duration.ofMinutes(15), Duration.ofSeconds(1), Duration.ofSeconds(30));
+    private final LoginThrottle throttle = new LoginThrottle(properties, new SimpleMeterRegistry(), now::get);
+
+    @Test
+    void testAccountLockout_DoublesWithEveryFurtherFailure() {
+        for (int i = 0; i < 3; i++) throttle.recordFailure("Victim@Example.com", "10.0.0.1");
+
+        TooManyRequestsException first = Assertions.assertThrows(TooManyRequestsException.class,
+                () -> throttle.check("victim@example.com", "10.0.0.1"));
+        Assertions.assertEquals(Duration.ofSeconds(1), first.getRetryAfter());
+
+        now.addAndGet(1_000);
+        throttle.check("victim@example.com", "10.0.0.1");
+
+        throttle.recordFailure("victim@example.com", "10.0.0.1");
+        TooManyRequestsException second = Assertions.assertThrows(TooManyRequestsException.class,
+                () -> throttle.check("victim@example.com", "10.0.0.1"));
+        Assertions.assertEquals(Duration.ofSeconds(2), second.getRetryAfter());
+    }
+
+    @Test
+    void testAccountLockout_DoesNotLockOutOtherAddresses() {
+        for (int i = 0; i < 3; i++) throttle.recordFailure("victim@example.com", "10.0.0.1");
+
+        Assertions.assertThrows(TooManyRequestsException.class, () -> throttle.check("victim@example.com", "10.0.0.1"));
+        throttle.check("victim@example.com", "10.0.0.2");
+    }
+
+    @Test
+    void testAccountLockout_CappedAndClearedBySuccess() {
+        for (int i = 0; i < 20; i++) throttle.recordFailure("user@example.com", null);
+
+        TooManyRequestsException locked = Assertions.assertThrows(TooManyRequestsException.class,
+                () -> throttle.check("user@example.com", null));
+        Assertions.assertEquals(Duration.ofSeconds(30), locked.getRetryAfter());
+
+        throttle.recordSuccess("user@example.com", null);
+        throttle.check("user@example.com", null);
+    }
+
+    @Test
+    void testAccountTotalLockout_CatchesFailuresSpreadOverAddresses() {
+        for (int i = 0; i < 25; i++) throttle.recordFailure("victim@example.com", "10.0.1." + i);
+
+        TooManyRequestsException locked = Assertions.assertThrows(TooManyRequestsException.class,
+                () -> throttle.check("victim@example.com", "10.0.2.1"));
+        Assertions.assertEquals(Duration.ofSeconds(1), locked.getRetryAfter());
+
+        throttle.recordSuccess("victim@example.com", "10.0.2.1");
+        Assertions.assertThrows(TooManyRequestsException.class, () -> throttle.check("victim@example.com", "10.0.2.1"));
+        throttle.check("other@example.com", "10.0.2.1");
+    }
+
+    @Test
+    void testIpLockout_SpansAccounts() {
+        for (int i = 0; i < 10; i++) throttle.recordFailure("user" + i + "@example.com", "10.0.0.9");
+
+        Assertions.assertThrows(TooManyRequestsException.class, () -> throttle.check("fresh@example.com", "10.0.0.9"));
+        throttle.check("fresh@example.com", "10.0.0.10");
+    }
+}
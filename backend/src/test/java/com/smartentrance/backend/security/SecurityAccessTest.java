@@ -15,6 +15,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -46,4 +47,22 @@ class SecurityAccessTest {
                         .with(TestUtils.mockUser(1L, UserRole.USER)))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLedgerRebuild_AdminOnly() throws Exception {
+        mockMvc.perform(post("/api/debug/ledger/rebuild")
+                        .with(TestUtils.mockUser(1L, UserRole.USER)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/api/debug/ledger/rebuild")
+                        .with(TestUtils.mockUser(1L, UserRole.ADMIN)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testPeriodClose_AdminOnly() throws Exception {
+        mockMvc.perform(post("/api/debug/period-close/1")
+                        .with(TestUtils.mockUser(1L, UserRole.USER)))
+                .andExpect(status().isForbidden());
+    }
+}
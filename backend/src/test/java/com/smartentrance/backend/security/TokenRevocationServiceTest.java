@@ -0,0 +1,98 @@
+package com.smartentrance.backend.security;
+
+import com.smartentrance.backend.model.RevocationEntry;
+import com.smartentrance.backend.repository.RevocationRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+    private static final long HORIZON = 60_000;
+
+    private final RevocationRepository repository = mock(RevocationRepository.class);
+    private final VerifiedTokenCache verifiedTokens = new VerifiedTokenCache(100);
+    private final List<Object> events = new ArrayList<>();
+    private final TokenRevocationService service = new TokenRevocationService(repository, verifiedTokens, events::add, HORIZON);
+
+    @Test
+    void testRevokeUser_StoresChangeWithoutCleanup() {
+        when(repository.insertIfAbsent(eq(7L), anyLong(), isNull(), any())).thenReturn(1);
+
+        service.revokeUser(7L);
+
+        verify(repository).insertIfAbsent(eq(7L), anyLong(), isNull(), notNull());
+        verify(repository, never()).advance(any(), any(), any(), any());
+        verify(repository, never()).save(any());
+        verify(repository, never()).deleteOlderThan(anyLong(), anyInt());
+        Assertions.assertTrue(service.isTokenRevoked(7L, System.currentTimeMillis() / 1000 - 5));
+    }
+
+    @Test
+    void testMembershipChanged_AdvancesOnlyTheVersionOfAnExistingRow() {
+        service.membershipChanged(7L);
+
+        ArgumentCaptor<Long> version = ArgumentCaptor.forClass(Long.class);
+        verify(repository).advance(eq(7L), isNull(), version.capture(), notNull());
+        Assertions.assertEquals(service.membershipVersion(7L), version.getValue());
+    }
+
+    @Test
+    void testApply_RemoteRevocationPurgesVerifiedTokens() {
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, Claims> verifier = token -> {
+            verifications.incrementAndGet();
+            return Jwts.claims().add("id", 7L).expiration(new Date(System.currentTimeMillis() + 60_000)).build();
+        };
+        verifiedTokens.get("token", verifier);
+
+        long now = System.currentTimeMillis();
+        service.apply(new RevocationEntry(7L, now, null, Instant.now()));
+        service.apply(new RevocationEntry(7L, now - 10_000, null, Instant.now()));
+        verifiedTokens.get("token", verifier);
+
+        Assertions.assertEquals(2, verifications.get());
+        Assertions.assertTrue(service.isTokenRevoked(7L, (now - 5_000) / 1000));
+    }
+
+    @Test
+    void testApply_MembershipVersionOnlyMovesForward() {
+        service.apply(new RevocationEntry(7L, null, 5_000L + System.currentTimeMillis(), Instant.now()));
+        long version = service.membershipVersion(7L);
+        service.apply(new RevocationEntry(7L, null, 1L + System.currentTimeMillis(), Instant.now()));
+
+        Assertions.assertEquals(version, service.membershipVersion(7L));
+        Assertions.assertFalse(service.isMembershipCurrent(7L, version - 1));
+    }
+
+    @Test
+    void testApply_AnnouncesOnlyNewerMembershipVersions() {
+        long version = 5_000L + System.currentTimeMillis();
+        service.apply(new RevocationEntry(7L, null, version, Instant.now()));
+        service.apply(new RevocationEntry(7L, null, version, Instant.now()));
+        service.apply(new RevocationEntry(7L, version, null, Instant.now()));
+
+        Assertions.assertEquals(List.of(new MembershipVersionAdvanced(7L)), events);
+    }
+
+    @Test
+    void testEntries_ExpireAtRememberMeHorizon() {
+        long old = System.currentTimeMillis() - HORIZON - 1_000;
+        service.apply(new RevocationEntry(7L, old, old, Instant.now()));
+
+        Assertions.assertFalse(service.isTokenRevoked(7L, (old - 1_000) / 1000));
+        Assertions.assertEquals(0L, service.membershipVersion(7L));
+        Assertions.assertEquals(0, service.trackedUsers());
+    }
+}
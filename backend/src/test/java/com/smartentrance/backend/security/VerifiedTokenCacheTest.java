@@ -0,0 +1,74 @@
+package com.smartentrance.backend.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+class VerifiedTokenCacheTest {
+
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(100);
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    void testGet_VerifiesEachTokenOnce() {
+        Function<String, Claims> verifier = verifier(7L, 60_000);
+
+        Claims first = cache.get("token-a", verifier);
+        Claims second = cache.get("token-a", verifier);
+        cache.get("token-b", verifier);
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void testGet_DoesNotCacheFailures() {
+        Function<String, Claims> failing = token -> {
+            verifications.incrementAndGet();
+            throw new JwtException("bad signature");
+        };
+
+        Assertions.assertThrows(JwtException.class, () -> cache.get("forged", failing));
+        Assertions.assertThrows(JwtException.class, () -> cache.get("forged", failing));
+        Assertions.assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void testGet_ExpiresWithToken() throws Exception {
+        Function<String, Claims> verifier = verifier(7L, 50);
+
+        cache.get("short-lived", verifier);
+        Thread.sleep(100);
+        cache.get("short-lived", verifier);
+
+        Assertions.assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void testInvalidateUser_DropsOnlyThatUser() {
+        cache.get("token-7", verifier(7L, 60_000));
+        cache.get("token-8", verifier(8L, 60_000));
+
+        cache.invalidateUser(7L);
+        cache.get("token-7", verifier(7L, 60_000));
+        cache.get("token-8", verifier(8L, 60_000));
+
+        Assertions.assertEquals(3, verifications.get());
+    }
+
+    private Function<String, Claims> verifier(Long userId, long ttlMillis) {
+        return token -> {
+            verifications.incrementAndGet();
+            return Jwts.claims()
+                    .add("id", userId)
+                    .expiration(new Date(System.currentTimeMillis() + ttlMillis))
+                    .build();
+        };
+    }
+}
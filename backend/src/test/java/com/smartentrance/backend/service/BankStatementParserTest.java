@@ -0,0 +1,83 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.dto.enums.StatementFormat;
+import com.smartentrance.backend.dto.finance.StatementLine;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+class BankStatementParserTest {
+
+    private final BankStatementParser parser = new BankStatementParser();
+
+    @Test
+    void testParseCsv_DetectsColumnsSeparatorAndDecimalComma() throws Exception {
+        String csv = """
+                Date;Reference;Amount
+                2026-09-01;"Flat 4; REF-100";1.250,50
+                2026-09-02;Bank fee;-3,00
+                """;
+
+        List<StatementLine> lines = parse(csv, StatementFormat.CSV);
+
+        Assertions.assertEquals(2, lines.size());
+        Assertions.assertEquals("Flat 4; REF-100", lines.get(0).reference());
+        Assertions.assertEquals(0, new BigDecimal("1250.50").compareTo(lines.get(0).amount()));
+        Assertions.assertTrue(lines.get(0).credit());
+        Assertions.assertFalse(lines.get(1).credit());
+    }
+
+    @Test
+    void testParseAmount_CommaBeforeThreeDigitsGroupsThousands() {
+        Assertions.assertEquals(0, new BigDecimal("1234").compareTo(BankStatementParser.parseAmount("1,234")));
+        Assertions.assertEquals(0, new BigDecimal("-1234567").compareTo(BankStatementParser.parseAmount("-1,234,567")));
+        Assertions.assertEquals(0, new BigDecimal("12.50").compareTo(BankStatementParser.parseAmount("12,50")));
+        Assertions.assertEquals(0, new BigDecimal("1234.5").compareTo(BankStatementParser.parseAmount("1234,5")));
+        Assertions.assertEquals(0, new BigDecimal("1.2345").compareTo(BankStatementParser.parseAmount("1,2345")));
+    }
+
+    @Test
+    void testParseCamt_ReadsEntriesWithRemittanceInfo() throws Exception {
+        String xml = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <Document xmlns="urn:iso:std:iso:20022:tech:xsd:camt.053.001.02">
+                  <BkToCstmrStmt><Stmt>
+                    <Ntry>
+                      <Amt Ccy="EUR">40.00</Amt>
+                      <CdtDbtInd>CRDT</CdtDbtInd>
+                      <BookgDt><Dt>2026-09-03</Dt></BookgDt>
+                      <NtryDtls><TxDtls>
+                        <Refs><EndToEndId>NOTPROVIDED</EndToEndId></Refs>
+                        <AmtDtls><TxAmt><Amt Ccy="EUR">40.00</Amt></TxAmt></AmtDtls>
+                        <RmtInf><Ustrd>REF-200 September</Ustrd></RmtInf>
+                      </TxDtls></NtryDtls>
+                    </Ntry>
+                    <Ntry>
+                      <Amt Ccy="EUR">12.00</Amt>
+                      <CdtDbtInd>DBIT</CdtDbtInd>
+                    </Ntry>
+                  </Stmt></BkToCstmrStmt>
+                </Document>
+                """;
+
+        List<StatementLine> lines = parse(xml, StatementFormat.CAMT053);
+
+        Assertions.assertEquals(2, lines.size());
+        Assertions.assertEquals("REF-200 September", lines.get(0).reference());
+        Assertions.assertEquals("2026-09-03", lines.get(0).bookingDate());
+        Assertions.assertEquals(0, new BigDecimal("40.00").compareTo(lines.get(0).amount()));
+        Assertions.assertTrue(lines.get(0).credit());
+        Assertions.assertFalse(lines.get(1).credit());
+    }
+
+    private List<StatementLine> parse(String content, StatementFormat format) throws Exception {
+        List<StatementLine> lines = new ArrayList<>();
+        parser.parse(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format, lines::add);
+        return lines;
+    }
+}
@@ -0,0 +1,71 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.model.Building;
+import com.smartentrance.backend.model.Transaction;
+import com.smartentrance.backend.model.TransactionSplit;
+import com.smartentrance.backend.model.enums.FundType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+class DebtSnapshotTest {
+
+    @Test
+    void testAllocate_FollowsBuildingOrderAndSpillsToGeneral() {
+        DebtSnapshot snapshot = new DebtSnapshot(Map.of(
+                FundType.REPAIR, new BigDecimal("-30.00"),
+                FundType.MAINTENANCE, new BigDecimal("-20.00")));
+        Building building = Building.builder().fundAllocationOrder("MAINTENANCE,REPAIR").build();
+
+        Transaction t = payment("60.00");
+        snapshot.allocate(t, DebtSnapshot.orderOf(building));
+
+        Map<FundType, BigDecimal> splits = splitsOf(t);
+        Assertions.assertEquals(List.of(FundType.MAINTENANCE, FundType.REPAIR, FundType.GENERAL),
+                t.getSplit().stream().map(TransactionSplit::getFundType).toList());
+        Assertions.assertEquals(0, new BigDecimal("20.00").compareTo(splits.get(FundType.MAINTENANCE)));
+        Assertions.assertEquals(0, new BigDecimal("30.00").compareTo(splits.get(FundType.REPAIR)));
+        Assertions.assertEquals(0, new BigDecimal("10.00").compareTo(splits.get(FundType.GENERAL)));
+    }
+
+    @Test
+    void testAllocate_ConsecutivePaymentsSeeReducedDebt() {
+        DebtSnapshot snapshot = new DebtSnapshot(Map.of(FundType.REPAIR, new BigDecimal("-50.00")));
+
+        Transaction first = payment("40.00");
+        Transaction second = payment("40.00");
+        snapshot.allocate(first, DebtSnapshot.DEFAULT_ORDER);
+        snapshot.allocate(second, DebtSnapshot.DEFAULT_ORDER);
+
+        Assertions.assertEquals(0, new BigDecimal("40.00").compareTo(splitsOf(first).get(FundType.REPAIR)));
+        Assertions.assertEquals(0, new BigDecimal("10.00").compareTo(splitsOf(second).get(FundType.REPAIR)));
+        Assertions.assertEquals(0, new BigDecimal("30.00").compareTo(splitsOf(second).get(FundType.GENERAL)));
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(snapshot.debtOf(FundType.REPAIR)));
+    }
+
+    @Test
+    void testParseOrder_RequiresFullPermutation() {
+        Assertions.assertEquals(List.of(FundType.MAINTENANCE, FundType.REPAIR), DebtSnapshot.parseOrder("maintenance, REPAIR"));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DebtSnapshot.parseOrder("REPAIR,REPAIR"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DebtSnapshot.parseOrder("REPAIR"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DebtSnapshot.parseOrder("REPAIR,MAINTENANCE,GENERAL"));
+    }
+
+    private Transaction payment(String amount) {
+        Transaction t = new Transaction();
+        t.setAmount(new BigDecimal(amount));
+        return t;
+    }
+
+    private Map<FundType, BigDecimal> splitsOf(Transaction t) {
+        return t.getSplit().stream().collect(Collectors.toMap(
+                TransactionSplit::getFundType, TransactionSplit::getAmount,
+                BigDecimal::add, () -> new EnumMap<>(FundType.class)));
+    }
+}
@@ -0,0 +1,90 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.mapper.FeeRunMapper;
+import com.smartentrance.backend.model.Building;
+import com.smartentrance.backend.model.FeeJournalEntry;
+import com.smartentrance.backend.model.FeeRun;
+import com.smartentrance.backend.model.FeeRunItem;
+import com.smartentrance.backend.model.enums.FeeRunItemStatus;
+import com.smartentrance.backend.repository.BuildingRepository;
+import com.smartentrance.backend.repository.FeeJournalRepository;
+import com.smartentrance.backend.repository.FeeRunItemRepository;
+import com.smartentrance.backend.repository.FeeRunRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeeRunServiceTest {
+
+    @Mock FeeRunRepository runRepository;
+    @Mock FeeRunItemRepository itemRepository;
+    @Mock BuildingRepository buildingRepository;
+    @Mock FeeJournalRepository journalRepository;
+    @Mock MonthlyFeeService monthlyFeeService;
+    @Mock FeeRunMapper feeRunMapper;
+    @Mock FinancialSummaryCache summaryCache;
+
+    @InjectMocks FeeRunService feeRunService;
+
+    private Building building;
+    private FeeRunItem item;
+
+    @BeforeEach
+    void setUp() {
+        building = Building.builder().id(7).build();
+        FeeRun run = new FeeRun(); run.setId(1L); run.setPeriod("2026-10");
+        item = new FeeRunItem(run, building); item.setId(100L);
+        lenient().when(itemRepository.findById(100L)).thenReturn(Optional.of(item));
+    }
+
+    @Test
+    void testProcessItem_SkipsBuildingAlreadyBilledForPeriod() {
+        when(journalRepository.existsByBuildingIdAndPeriod(7, "2026-10")).thenReturn(true);
+
+        feeRunService.processItem(100L, System.nanoTime());
+
+        Assertions.assertEquals(FeeRunItemStatus.SKIPPED, item.getStatus());
+        verify(monthlyFeeService, never()).generateMonthlyFees(any(), anyString());
+        verify(journalRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testProcessItem_JournalsBuildingBeforeCharging() {
+        when(journalRepository.existsByBuildingIdAndPeriod(7, "2026-10")).thenReturn(false);
+        when(journalRepository.saveAndFlush(any(FeeJournalEntry.class))).thenAnswer(i -> i.getArgument(0));
+        when(monthlyFeeService.generateMonthlyFees(building, "OCTOBER")).thenReturn(6);
+
+        feeRunService.processItem(100L, System.nanoTime());
+
+        Assertions.assertEquals(FeeRunItemStatus.COMPLETED, item.getStatus());
+        Assertions.assertEquals(6, item.getFeesCreated());
+        var order = inOrder(journalRepository, monthlyFeeService);
+        order.verify(journalRepository).saveAndFlush(any(FeeJournalEntry.class));
+        order.verify(monthlyFeeService).generateMonthlyFees(building, "OCTOBER");
+        verify(summaryCache).evict(7);
+    }
+
+    @Test
+    void testMarkItemFailed_LeavesItemFinishedByAnotherWorker() {
+        when(itemRepository.markFailedIfPending(eq(100L), anyString(), anyLong(), any())).thenReturn(0);
+
+        boolean marked = feeRunService.markItemFailed(100L, System.nanoTime(), new IllegalStateException("duplicate journal"));
+
+        Assertions.assertFalse(marked);
+        verify(itemRepository).markFailedIfPending(eq(100L), eq("IllegalStateException: duplicate journal"), anyLong(), any());
+        verify(itemRepository, never()).findById(any());
+    }
+}
@@ -0,0 +1,77 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.model.Building;
+import com.smartentrance.backend.model.Transaction;
+import com.smartentrance.backend.model.Unit;
+import com.smartentrance.backend.model.User;
+import com.smartentrance.backend.model.enums.FundType;
+import com.smartentrance.backend.model.enums.TransactionType;
+import com.smartentrance.backend.repository.TransactionRepository;
+import com.smartentrance.backend.repository.UnitRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MonthlyFeeServiceTest {
+
+    @Mock UnitRepository unitRepository;
+    @Mock TransactionRepository transactionRepository;
+    @Mock BalanceLedgerService balanceLedgerService;
+
+    @InjectMocks MonthlyFeeService monthlyFeeService;
+
+    @Test
+    void testGenerateMonthlyFees_SplitsBudgetsAndSavesInOneBatch() {
+        Building building = Building.builder().id(1)
+                .repairBudget(new BigDecimal("100.00"))
+                .maintenanceBudget(new BigDecimal("30.00"))
+                .build();
+
+        Unit big = unit(1L, "60", 2);
+        Unit small = unit(2L, "40", 1);
+        Unit unverified = unit(3L, "80", 4);
+        unverified.setVerified(false);
+
+        when(unitRepository.findAllByBuildingId(1)).thenReturn(List.of(big, small, unverified));
+
+        int created = monthlyFeeService.generateMonthlyFees(building, "OCTOBER");
+
+        Assertions.assertEquals(4, created);
+        verify(transactionRepository, times(1)).saveAll(anyList());
+        verify(balanceLedgerService, times(1)).recordAll(anyList());
+
+        List<Transaction> fees = monthlyFeeService.calculateMonthlyFees(building, "OCTOBER");
+        Assertions.assertTrue(fees.stream().allMatch(t -> t.getType() == TransactionType.FEE));
+        Assertions.assertEquals(0, new BigDecimal("-60.00").compareTo(amount(fees, big, FundType.REPAIR)));
+        Assertions.assertEquals(0, new BigDecimal("-40.00").compareTo(amount(fees, small, FundType.REPAIR)));
+        Assertions.assertEquals(0, new BigDecimal("-20.00").compareTo(amount(fees, big, FundType.MAINTENANCE)));
+        Assertions.assertEquals(0, new BigDecimal("-10.00").compareTo(amount(fees, small, FundType.MAINTENANCE)));
+    }
+
+    private Unit unit(Long id, String area, int residents) {
+        User owner = new User(); owner.setId(id * 100);
+        Unit unit = new Unit();
+        unit.setId(id);
+        unit.setArea(new BigDecimal(area));
+        unit.setResidentsCount(residents);
+        unit.setResponsibleUser(owner);
+        unit.setVerified(true);
+        return unit;
+    }
+
+    private BigDecimal amount(List<Transaction> fees, Unit unit, FundType fund) {
+        return fees.stream()
+                .filter(t -> t.getUnit() == unit && t.getFundType() == fund)
+                .findFirst().orElseThrow()
+                .getAmount();
+    }
+}
@@ -0,0 +1,38 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.repository.TransactionRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class PaymentReferencesTest {
+
+    private final TransactionRepository transactionRepository = Mockito.mock(TransactionRepository.class);
+    private final PaymentReferences references = new PaymentReferences(transactionRepository);
+
+    @Test
+    void testIsRecorded_CachesPositiveLookups() {
+        Mockito.when(transactionRepository.existsByIdempotencyKey("stripe:pi_1")).thenReturn(true);
+
+        Assertions.assertTrue(references.isRecorded("stripe:pi_1"));
+        Assertions.assertTrue(references.isRecorded("stripe:pi_1"));
+
+        Mockito.verify(transactionRepository, Mockito.times(1)).existsByIdempotencyKey("stripe:pi_1");
+    }
+
+    @Test
+    void testIsRecorded_UnknownKeyIsCheckedAgain() {
+        Assertions.assertFalse(references.isRecorded("stripe:pi_2"));
+        Assertions.assertFalse(references.isRecorded("stripe:pi_2"));
+
+        Mockito.verify(transactionRepository, Mockito.times(2)).existsByIdempotencyKey("stripe:pi_2");
+    }
+
+    @Test
+    void testMarkRecorded_OutsideTransactionSkipsDatabase() {
+        references.markRecorded("stripe:pi_3");
+
+        Assertions.assertTrue(references.isRecorded("stripe:pi_3"));
+        Mockito.verifyNoInteractions(transactionRepository);
+    }
+}
@@ -0,0 +1,61 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.model.Building;
+import com.smartentrance.backend.model.Transaction;
+import com.smartentrance.backend.model.Unit;
+import com.smartentrance.backend.model.enums.FundType;
+import com.smartentrance.backend.model.enums.PaymentMethod;
+import com.smartentrance.backend.model.enums.TransactionStatus;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class PdfReceiptServiceTest {
+
+    private final PdfReceiptService pdfReceiptService = new PdfReceiptService("EUR", new PdfStyles());
+
+    @Test
+    void testGenerateReceipt_SharedRendererIsSafeAcrossThreads() throws Exception {
+        List<Future<byte[]>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int i = 0; i < 16; i++) {
+                Transaction transaction = transaction(i + 1L);
+                results.add(executor.submit(() -> pdfReceiptService.generateReceipt(transaction, null)));
+            }
+        }
+
+        for (Future<byte[]> result : results) {
+            byte[] pdf = result.get();
+            Assertions.assertTrue(pdf.length > 1000);
+            Assertions.assertEquals("%PDF", new String(pdf, 0, 4, StandardCharsets.US_ASCII));
+        }
+    }
+
+    private Transaction transaction(Long id) {
+        Building building = new Building();
+        building.setName("Test Building");
+        building.setAddress("Test Address");
+
+        Unit unit = new Unit();
+        unit.setUnitNumber(id.intValue());
+        unit.setBuilding(building);
+
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setUnit(unit);
+        transaction.setAmount(new BigDecimal("50.00"));
+        transaction.setPaymentMethod(PaymentMethod.CASH);
+        transaction.setFundType(FundType.REPAIR);
+        transaction.setDescription("Payment");
+        transaction.setStatus(TransactionStatus.CONFIRMED);
+        return transaction;
+    }
+}
@@ -0,0 +1,71 @@
+package com.smartentrance.backend.service;
+
+import com.smartentrance.backend.config.ReceiptCacheProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ReceiptCacheTest {
+
+    @TempDir Path dir;
+
+    @Test
+    void testGetOrRender_RendersOncePerKey() {
+        ReceiptCache cache = new ReceiptCache(new ReceiptCacheProperties(dir.toString(), DataSize.ofKilobytes(10)));
+        AtomicInteger renders = new AtomicInteger();
+
+        byte[] first = cache.getOrRender("abc", () -> { renders.incrementAndGet(); return new byte[]{1, 2, 3}; });
+        byte[] second = cache.getOrRender("abc", () -> { renders.incrementAndGet(); return new byte[]{4, 5, 6}; });
+
+        Assertions.assertArrayEquals(first, second);
+        Assertions.assertEquals(1, renders.get());
+        Assertions.assertEquals(3, cache.currentBytes());
+    }
+
+    @Test
+    void testGetOrRender_RendersAgainWhenFileWasEvicted() throws Exception {
+        ReceiptCache cache = new ReceiptCache(new ReceiptCacheProperties(dir.toString(), DataSize.ofKilobytes(10)));
+        cache.getOrRender("abc", () -> new byte[]{1});
+
+        Files.delete(dir.resolve("abc.pdf"));
+
+        Assertions.assertArrayEquals(new byte[]{2}, cache.getOrRender("abc", () -> new byte[]{2}));
+        Assertions.assertTrue(Files.exists(dir.resolve("abc.pdf")));
+    }
+
+    @Test
+    void testGetOrRender_EvictsLeastRecentlyUsedOverLimit() throws Exception {
+        ReceiptCache cache = new ReceiptCache(new ReceiptCacheProperties(dir.toString(), DataSize.ofBytes(2500)));
+
+        Path oldest = dir.resolve("a.pdf");
+        Path recent = dir.resolve("b.pdf");
+        Path newest = dir.resolve("c.pdf");
+
+        cache.getOrRender("a", () -> new byte[1000]);
+        Files.setLastModifiedTime(oldest, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        cache.getOrRender("b", () -> new byte[1000]);
+        cache.getOrRender("c", () -> new byte[1000]);
+
+        Assertions.assertFalse(Files.exists(oldest));
+        Assertions.assertTrue(Files.exists(recent));
+        Assertions.assertTrue(Files.exists(newest));
+        Assertions.assertEquals(2000, cache.currentBytes());
+    }
+
+    @Test
+    void testConstructor_CountsExistingFilesAndDropsLeftovers() throws Exception {
+        Files.write(dir.resolve("old.pdf"), new byte[300]);
+        Files.write(dir.resolve("render-1.tmp"), new byte[50]);
+
+        ReceiptCache cache = new ReceiptCache(new ReceiptCacheProperties(dir.toString(), DataSize.ofKilobytes(10)));
+
+        Assertions.assertEquals(300, cache.currentBytes());
+        Assertions.assertFalse(Files.exists(dir.resolve("render-1.tmp")));
+    }
+}
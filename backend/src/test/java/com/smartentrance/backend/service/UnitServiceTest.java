@@ -1,11 +1,13 @@
 package com.smartentrance.backend.service;
 
+import com.smartentrance.backend.dto.finance.UnitFinanceStatus;
 import com.smartentrance.backend.dto.unit.UnitJoinRequest;
 import com.smartentrance.backend.dto.unit.UnitResponse;
 import com.smartentrance.backend.mapper.UnitMapper;
 import com.smartentrance.backend.model.Unit;
 import com.smartentrance.backend.model.User;
 import com.smartentrance.backend.repository.UnitRepository;
+import com.smartentrance.backend.security.BuildingMembershipIndex;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +17,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -26,6 +30,7 @@ class UnitServiceTest {
     @Mock UnitRepository unitRepository;
     @Mock UnitMapper unitMapper;
     @Mock FinanceService financeService;
+    @Mock BuildingMembershipIndex membershipIndex;
 
     @InjectMocks UnitService unitService;
 
@@ -52,5 +57,23 @@ class UnitServiceTest {
         Assertions.assertEquals(user, unit.getResponsibleUser());
         Assertions.assertNotEquals("123456", unit.getAccessCode());
         verify(unitRepository).save(unit);
+        verify(membershipIndex).membershipChanged(null, 1L);
+    }
+
+    @Test
+    void testGetUnitsByBuilding_LoadsFinanceStatusesInOneCall() {
+        Unit second = new Unit(); second.setId(11L); second.setAccessCode("654321");
+        when(unitRepository.findAllByBuildingIdOrderByUnitNumberAsc(5)).thenReturn(List.of(unit, second));
+        when(financeService.getFinanceStatuses(List.of(10L, 11L))).thenReturn(Map.of(
+                10L, new UnitFinanceStatus(10L, new BigDecimal("-25.00"), true),
+                11L, new UnitFinanceStatus(11L, BigDecimal.ZERO, false)));
+
+        unitService.getUnitsByBuilding(5);
+
+        verify(financeService).getFinanceStatuses(List.of(10L, 11L));
+        verify(unitMapper).toManagementResponse(unit, new BigDecimal("-25.00"), true);
+        verify(unitMapper).toManagementResponse(second, BigDecimal.ZERO, false);
+        verify(financeService, never()).getBalance(any());
+        verify(financeService, never()).hasPendingPayments(any());
     }
 }
@@ -53,8 +53,9 @@ export function AdminOverview() {
     
     try {
       setLoadingPayments(true);
-      const transactions = await buildingService.getTransactions(
+      const transactions = await buildingService.getRecentTransactions(
         selectedBuilding.id,
+        4,
         TransactionType.PAYMENT,
         TransactionStatus.CONFIRMED
       );
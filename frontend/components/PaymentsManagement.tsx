@@ -58,12 +58,17 @@ export function PaymentsManagement() {
   const { selectedBuilding } = useSelection();
   const navigate = useNavigate();
   const [transactions, setTransactions] = useState<Transaction[]>([]);
+  const [pendingPayments, setPendingPayments] = useState<Transaction[]>([]);
   const [expenses, setExpenses] = useState<BuildingExpense[]>([]);
   const [units, setUnits] = useState<UnitResponseFromAPI[]>([]);
   const [budget, setBudget] = useState<BudgetData | null>(null);
   const [financialSummary, setFinancialSummary] = useState<FinancialSummary | null>(null);
   
   const [loading, setLoading] = useState(true);
+  // Курсори към следващите страници на историята и на опашката за одобрение
+  const [transactionsCursor, setTransactionsCursor] = useState<string | undefined>();
+  const [pendingCursor, setPendingCursor] = useState<string | undefined>();
+  const [loadingMore, setLoadingMore] = useState(false);
   const [showCashPaymentModal, setShowCashPaymentModal] = useState(false);
   const [showExpenseModal, setShowExpenseModal] = useState(false);
   const [showBudgetModal, setShowBudgetModal] = useState(false);
@@ -77,24 +82,27 @@ export function PaymentsManagement() {
     }
   }, [selectedBuilding, typeFilter]);
 
+  const historyType = typeFilter === "all" || typeFilter === "expense" ? undefined : typeFilter;
+
   const loadAllData = async () => {
     if (!selectedBuilding) return;
 
     try {
       setLoading(true);
-      const [txData, expensesData, unitsData, budgetData, financialSummaryData] = await Promise.all([
-        buildingService.getTransactions(
-          selectedBuilding.id,
-          typeFilter === "all" || typeFilter === "expense" ? undefined : typeFilter,
-          undefined
-        ),
+      const [txData, pendingData, expensesData, unitsData, budgetData, financialSummaryData] = await Promise.all([
+        buildingService.getTransactions(selectedBuilding.id, historyType, undefined),
+        // Опашката за одобрение се зарежда отделно, за да не зависи от дължината на историята
+        buildingService.getTransactions(selectedBuilding.id, TransactionType.PAYMENT, TransactionStatus.PENDING),
         buildingService.getExpenses(selectedBuilding.id),
         unitService.getAllByBuilding(selectedBuilding.id),
         buildingService.getBudget(selectedBuilding.id),
         buildingService.getFinancialSummary(selectedBuilding.id),
       ]);
 
-      setTransactions(txData);
+      setTransactions(txData.items);
+      setTransactionsCursor(txData.nextCursor);
+      setPendingPayments(pendingData.items);
+      setPendingCursor(pendingData.nextCursor);
       setExpenses(expensesData);
       setUnits(unitsData);
       setBudget(budgetData);
@@ -107,6 +115,33 @@ export function PaymentsManagement() {
     }
   };
 
+  // "За одобрение" показва опашката, останалите филтри - историята; всяка има свой курсор
+  const loadMore = async () => {
+    if (!selectedBuilding) return;
+    const pendingOnly = filter === "pending";
+    const cursor = pendingOnly ? pendingCursor : transactionsCursor;
+    if (!cursor) return;
+
+    try {
+      setLoadingMore(true);
+      if (pendingOnly) {
+        const page = await buildingService.getTransactions(
+          selectedBuilding.id, TransactionType.PAYMENT, TransactionStatus.PENDING, cursor);
+        setPendingPayments((prev) => [...prev, ...page.items]);
+        setPendingCursor(page.nextCursor);
+      } else {
+        const page = await buildingService.getTransactions(selectedBuilding.id, historyType, undefined, cursor);
+        setTransactions((prev) => [...prev, ...page.items]);
+        setTransactionsCursor(page.nextCursor);
+      }
+    } catch (err) {
+      console.error("Error loading more transactions:", err);
+      toast.error("Грешка при зареждане на данните");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleApprove = async (transactionId: number) => {
     if (!confirm("Потвърдете одобрението на това плащане")) return;
 
@@ -223,8 +258,11 @@ export function PaymentsManagement() {
   }
 
   // Комбинирай транзакции и разходи (без Stripe Fee)
+  const listedTransactions = filter === "pending" ? pendingPayments : transactions;
+  const hasMore = typeFilter !== "expense" && !!(filter === "pending" ? pendingCursor : transactionsCursor);
+
   const combinedItems: CombinedItem[] = [
-    ...transactions
+    ...listedTransactions
       .filter((tx) => !(tx.type === TransactionType.FEE && tx.description.includes("Stripe Fee")))
       .map((tx) => ({
         id: tx.id,
@@ -292,9 +330,6 @@ export function PaymentsManagement() {
   const confirmedPayments = transactions.filter(
     (tx) => tx.transactionStatus === TransactionStatus.CONFIRMED && tx.type === TransactionType.PAYMENT
   );
-  const pendingPayments = transactions.filter(
-    (tx) => tx.transactionStatus === TransactionStatus.PENDING && tx.type === TransactionType.PAYMENT
-  );
   const expenseItems = expenses; // Всички разходи
 
   // Статистики по фондове от API (Real-time данни от backend)
@@ -399,7 +434,7 @@ export function PaymentsManagement() {
               <div className="text-gray-600">Потвърдени</div>
             </div>
             <div className="text-gray-900 mb-1">
-              {confirmedPayments.length} плащания
+              {confirmedPayments.length}{transactionsCursor ? "+" : ""} плащания
             </div>
           </div>
 
@@ -411,7 +446,7 @@ export function PaymentsManagement() {
               <div className="text-gray-600">Чакащи одобрение</div>
             </div>
             <div className="text-gray-900 mb-1">
-              {pendingPayments.length} плащания
+              {pendingPayments.length}{pendingCursor ? "+" : ""} плащания
             </div>
           </div>
 
@@ -507,7 +542,7 @@ export function PaymentsManagement() {
                     : "bg-gray-100 text-gray-700 hover:bg-gray-200"
                 }`}
               >
-                За одобрение {pendingPayments.length > 0 && `(${pendingPayments.length})`}
+                За одобрение {pendingPayments.length > 0 && `(${pendingPayments.length}${pendingCursor ? "+" : ""})`}
               </button>
               <button
                 onClick={() => setFilter("confirmed")}
@@ -843,6 +878,17 @@ export function PaymentsManagement() {
               </tbody>
             </table>
           </div>
+          {hasMore && (
+            <div className="p-4 border-t text-center">
+              <button
+                onClick={loadMore}
+                disabled={loadingMore}
+                className="px-4 py-2 bg-gray-100 text-gray-700 rounded-lg hover:bg-gray-200 transition-colors disabled:opacity-50"
+              >
+                {loadingMore ? "Зареждане..." : "Зареди още"}
+              </button>
+            </div>
+          )}
         </div>
       </div>
 
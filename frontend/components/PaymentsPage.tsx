@@ -12,6 +12,8 @@ export function PaymentsPage() {
   const [transactions, setTransactions] = useState<Transaction[]>([]);
   const [balance, setBalance] = useState<number>(0);
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState<string | undefined>();
+  const [loadingMore, setLoadingMore] = useState(false);
   const [filter, setFilter] = useState<'all' | 'pending' | 'confirmed'>('all');
 
   useEffect(() => {
@@ -30,7 +32,8 @@ export function PaymentsPage() {
         paymentService.getUnitBalance(selectedUnit.unitId)
       ]);
       console.log('Loaded transactions:', txData);
-      setTransactions(txData);
+      setTransactions(txData.items);
+      setNextCursor(txData.nextCursor);
       setBalance(balanceData);
     } catch (err) {
       console.error('Error loading payment data:', err);
@@ -39,6 +42,22 @@ export function PaymentsPage() {
     }
   };
 
+  // Зарежда следващата страница от историята и я добавя към списъка
+  const loadMore = async () => {
+    if (!selectedUnit || !nextCursor) return;
+
+    try {
+      setLoadingMore(true);
+      const page = await paymentService.getUnitTransactions(selectedUnit.unitId, { cursor: nextCursor });
+      setTransactions(prev => [...prev, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      console.error('Error loading more transactions:', err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const getFundName = (fundType: FundType) => {
     if (fundType === FundType.MAINTENANCE || fundType === FundType.GENERAL) {
       return 'Фонд Поддръжка';
@@ -319,6 +338,17 @@ export function PaymentsPage() {
             })
           )}
         </div>
+        {nextCursor && (
+          <div className="p-4 border-t text-center">
+            <button
+              onClick={loadMore}
+              disabled={loadingMore}
+              className="px-4 py-2 bg-gray-100 text-gray-700 rounded-lg hover:bg-gray-200 transition-colors disabled:opacity-50"
+            >
+              {loadingMore ? 'Зареждане...' : 'Зареди още'}
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );
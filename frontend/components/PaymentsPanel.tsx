@@ -29,11 +29,11 @@ export function PaymentsPanel({ expanded = false }: PaymentsPanelProps) {
     try {
       setLoading(true);
       const [txData, balanceData] = await Promise.all([
-        paymentService.getUnitTransactions(selectedUnit.unitId),
+        paymentService.getUnitTransactions(selectedUnit.unitId, { size: 3 }),
         paymentService.getUnitBalance(selectedUnit.unitId)
       ]);
       console.log('PaymentsPanel - Loaded transactions:', txData);
-      setTransactions(txData.slice(0, 3)); // Показваме само последните 3
+      setTransactions(txData.items); // Показваме само последните 3
       setBalance(balanceData);
     } catch (err) {
       console.error('Error loading payment data:', err);
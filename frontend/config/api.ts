@@ -49,6 +49,15 @@ axiosInstance.interceptors.response.use(
   }
 );
 
+// Странициране на списъци с транзакции (виж TransactionCursor в backend)
+const NEXT_CURSOR_HEADER = 'x-next-cursor';
+
+// Една страница от списък; nextCursor липсва на последната страница
+export interface Page<T> {
+  items: T[];
+  nextCursor?: string;
+}
+
 // HTTP Client wrapper
 class ApiClient {
   private axios: AxiosInstance;
@@ -63,6 +72,17 @@ class ApiClient {
     return response.data;
   }
 
+  // GET на една страница: cursor е стойността на X-Next-Cursor от предишната страница
+  async getPage<T>(endpoint: string, params?: Record<string, any>, cursor?: string): Promise<Page<T>> {
+    const response = await this.axios.get<T[]>(endpoint, {
+      params: { ...params, ...(cursor ? { cursor } : {}) },
+    });
+    return {
+      items: response.data,
+      nextCursor: (response.headers[NEXT_CURSOR_HEADER] as string | undefined) || undefined,
+    };
+  }
+
   // POST request
   async post<T>(endpoint: string, body?: unknown, config?: any): Promise<T> {
     const response = await this.axios.post<T>(endpoint, body, config);
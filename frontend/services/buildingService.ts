@@ -1,4 +1,4 @@
-import { api } from '../config/api';
+import { api, type Page } from '../config/api';
 import { Transaction, TransactionType, TransactionStatus, Document, PaymentMethod } from '../types/database';
 
 export interface CreateBuildingRequest {
@@ -97,16 +97,30 @@ class BuildingService {
     return await api.get<FinancialSummary>(`/buildings/${buildingId}/finance/summary`);
   }
 
+  // Една страница от историята; за следващата подайте nextCursor от предишната
   async getTransactions(
     buildingId: number, 
     type?: TransactionType, 
+    status?: TransactionStatus,
+    cursor?: string
+  ): Promise<Page<Transaction>> {
+    const params: Record<string, string> = {};
+    if (type) params.type = type;
+    if (status) params.status = status;
+    return await api.getPage<Transaction>(`/buildings/${buildingId}/finance/transactions`, params, cursor);
+  }
+
+  // Само най-новите транзакции (една страница), без да се зарежда цялата история
+  async getRecentTransactions(
+    buildingId: number,
+    size: number,
+    type?: TransactionType,
     status?: TransactionStatus
   ): Promise<Transaction[]> {
-    const params = new URLSearchParams();
-    if (type) params.append('type', type);
-    if (status) params.append('status', status);
-    const query = params.toString() ? `?${params.toString()}` : '';
-    return await api.get<Transaction[]>(`/buildings/${buildingId}/finance/transactions${query}`);
+    const params: Record<string, string | number> = { size };
+    if (type) params.type = type;
+    if (status) params.status = status;
+    return await api.get<Transaction[]>(`/buildings/${buildingId}/finance/transactions`, params);
   }
 
   async getExpenses(buildingId: number): Promise<BuildingExpense[]> {
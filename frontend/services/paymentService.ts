@@ -1,4 +1,4 @@
-import { api } from '../config/api';
+import { api, type Page } from '../config/api';
 import { axiosInstance } from '../config/api';
 import type { 
   Transaction, 
@@ -61,10 +61,15 @@ export const paymentService = {
     return response.data.url;
   },
 
-  // Получи всички транзакции за unit (плащания или такси)
-  getUnitTransactions: async (unitId: number, type?: TransactionType): Promise<Transaction[]> => {
-    const params = type ? `?type=${type}` : '';
-    return await api.get<Transaction[]>(`/units/${unitId}/transactions${params}`);
+  // Получи една страница транзакции за unit (плащания или такси), най-новите първи
+  getUnitTransactions: async (
+    unitId: number,
+    options: { type?: TransactionType; size?: number; cursor?: string } = {}
+  ): Promise<Page<Transaction>> => {
+    const params: Record<string, string | number> = {};
+    if (options.type) params.type = options.type;
+    if (options.size) params.size = options.size;
+    return await api.getPage<Transaction>(`/units/${unitId}/transactions`, params, options.cursor);
   },
 
   // Получи баланса на unit